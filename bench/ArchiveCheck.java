@@ -0,0 +1,157 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+// Checks Archiver on an in-memory H2 database seeded with applications spread over two years and jobs posted
+// long ago: old applications and inactive jobs leave the hot tables and arrive intact in the archive, the
+// seeker's history still lists everything, the change feed takes archived jobs out of search, and the
+// analytics totals do not move. Prints one line per check and exits with 1 if any fails.
+// Usage: java -cp out/bench:h2.jar ArchiveCheck [10k|1m|10m]
+public class ArchiveCheck {
+    private static final String URL = "jdbc:h2:mem:archive;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int APPLICATION_DAYS = 365, JOB_DAYS = 180;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        SyntheticData data = SyntheticData.forScale(args.length > 0 ? args[0] : "10k");
+        ConnectionPool pool = new ConnectionPool(URL, "sa", "", 4);
+        DbExecutor db = new DbExecutor(pool, 2, 100);
+        ChangeFeed feed = new ChangeFeed(pool, 100);
+        MatchingEngine matcher = MatchingEngine.fromSystemProperties();
+        JobSearchIndex index = new JobSearchIndex();
+        JobService jobs = new JobService(index, JobCatalogCache.fromSystemProperties(), matcher);
+        QueryScope scope = new QueryScope();
+        try (Connection conn = pool.getConnection()) {
+            data.load(conn);
+            // Every job was posted before the job cutoff; a few never drew an application
+            long now = System.currentTimeMillis();
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE jobs SET postedAt = ?")) {
+                pstmt.setTimestamp(1, new Timestamp(now - 400 * DAY_MILLIS));
+                pstmt.executeUpdate();
+            }
+            Timestamp cutoff = new Timestamp(now - APPLICATION_DAYS * DAY_MILLIS);
+            int seekerId = data.seekerId(0);
+            int applications = count(conn, "SELECT COUNT(*) FROM applications");
+            int old = count(conn, "SELECT COUNT(*) FROM applications WHERE appliedDate < ?", cutoff);
+            int history = rows(conn, ApplicationService.STATUS_SQL, seekerId);
+            long totals = count(conn, "SELECT COALESCE(SUM(applications), 0) FROM stats_daily");
+            Map<Integer, String> descriptions = descriptions(conn);
+            DbExecutor.join(jobs.ensureIndexLoaded(db, scope));
+            jobs.follow(feed, scope);
+            feed.start();
+
+            long start = System.nanoTime();
+            Archiver.Result result = new Archiver(pool, APPLICATION_DAYS, JOB_DAYS).runOnce();
+            System.out.printf("Archived %d applications and %d jobs in %.1f ms; hot applications %d -> %d%n",
+                    result.applications(), result.jobs(), (System.nanoTime() - start) / 1e6, applications,
+                    count(conn, "SELECT COUNT(*) FROM applications"));
+
+            check("applications older than the cutoff leave the hot table",
+                    result.applications() == old && old > 0
+                            && count(conn, "SELECT COUNT(*) FROM applications WHERE appliedDate < ?", cutoff) == 0);
+            check("every application is in exactly one tier",
+                    count(conn, "SELECT COUNT(*) FROM applications") + count(conn,
+                            "SELECT COUNT(*) FROM applications_archive") == applications
+                            && count(conn, "SELECT COUNT(*) FROM applications a JOIN applications_archive r " +
+                            "ON a.id = r.id") == 0);
+            check("the seeker's history lists every application, archived ones with their job title",
+                    rows(conn, ApplicationService.HISTORY_SQL, seekerId, seekerId) == history
+                            && count(conn, "SELECT COUNT(*) FROM applications_archive WHERE title IS NULL") == 0);
+            check("only jobs without a current application are archived",
+                    result.jobs() > 0 && count(conn, "SELECT COUNT(*) FROM jobs j WHERE NOT EXISTS " +
+                            "(SELECT 1 FROM applications a WHERE a.jobId = j.id)") == 0
+                            && count(conn, "SELECT COUNT(*) FROM applications a LEFT JOIN jobs j ON a.jobId = j.id " +
+                            "WHERE j.id IS NULL") == 0);
+            check("archived descriptions are compressed and intact", archivedDescriptionsMatch(conn, descriptions));
+            check("every moved row is logged as archived",
+                    count(conn, "SELECT COUNT(*) FROM change_log WHERE op = ?", String.valueOf(ChangeLog.ARCHIVED))
+                            == result.applications() + result.jobs());
+            check("analytics totals are unchanged",
+                    count(conn, "SELECT COALESCE(SUM(applications), 0) FROM stats_daily") == totals);
+            for (int i = 0; i < 50 && index.size() != data.jobs - result.jobs(); i++) {
+                Thread.sleep(100);
+            }
+            check("the change feed takes archived jobs out of search", index.size() == data.jobs - result.jobs());
+            Archiver.Result again = new Archiver(pool, APPLICATION_DAYS, JOB_DAYS).runOnce();
+            check("a second run moves nothing", again.applications() == 0 && again.jobs() == 0);
+        } finally {
+            scope.cancel();
+            feed.close();
+            matcher.close();
+            db.close();
+            pool.close();
+        }
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    private static int count(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static int rows(Connection conn, String sql, Object... params) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            int n = 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    private static Map<Integer, String> descriptions(Connection conn) throws SQLException {
+        Map<Integer, String> descriptions = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, description FROM jobs")) {
+            while (rs.next()) {
+                descriptions.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return descriptions;
+    }
+
+    private static boolean archivedDescriptionsMatch(Connection conn, Map<Integer, String> original)
+            throws SQLException {
+        long raw = 0, stored = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, description FROM jobs_archive")) {
+            while (rs.next()) {
+                byte[] compressed = rs.getBytes(2);
+                String text = original.get(rs.getInt(1));
+                if (!text.equals(ResumeTexts.decompress(compressed))) {
+                    return false;
+                }
+                raw += text.length();
+                stored += compressed.length;
+            }
+        }
+        System.out.printf("  job descriptions: %d chars stored in %d bytes%n", raw, stored);
+        return stored < raw;
+    }
+}
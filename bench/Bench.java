@@ -0,0 +1,113 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Minimal single-threaded benchmark harness: a warmup period, then a timed run of one operation.
+// Reports throughput, latency percentiles and bytes allocated per operation (including the JDBC driver's).
+class Bench {
+    private static final int MAX_SAMPLES = 1 << 20; // reservoir; recording never allocates during the run
+
+    interface Operation {
+        // i is the iteration number, used to pick inputs deterministically
+        void run(long i) throws Exception;
+    }
+
+    static final class Result {
+        final String name;
+        final long ops;
+        final double seconds;
+        final long p50, p90, p99, p999, max; // nanoseconds
+        final long bytesPerOp;               // -1 if the JVM cannot measure allocation
+
+        Result(String name, long ops, double seconds, long[] sorted, long bytesPerOp) {
+            this.name = name;
+            this.ops = ops;
+            this.seconds = seconds;
+            this.p50 = percentile(sorted, 0.50);
+            this.p90 = percentile(sorted, 0.90);
+            this.p99 = percentile(sorted, 0.99);
+            this.p999 = percentile(sorted, 0.999);
+            this.max = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        double opsPerSecond() {
+            return ops / seconds;
+        }
+
+        static String header() {
+            return String.format("%-28s %12s %10s %10s %10s %10s %10s %12s",
+                    "operation", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "alloc B/op");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-28s %12.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12s", name, opsPerSecond(),
+                    p50 / 1e3, p90 / 1e3, p99 / 1e3, p999 / 1e3, max / 1e3,
+                    bytesPerOp < 0 ? "n/a" : Long.toString(bytesPerOp));
+        }
+    }
+
+    private final long warmupMillis;
+    private final long measureMillis;
+
+    Bench(long warmupMillis, long measureMillis) {
+        this.warmupMillis = warmupMillis;
+        this.measureMillis = measureMillis;
+    }
+
+    Result measure(String name, Operation op) throws Exception {
+        long i = 0;
+        long warmupEnd = System.nanoTime() + warmupMillis * 1_000_000;
+        while (System.nanoTime() < warmupEnd) {
+            op.run(i++);
+        }
+
+        long[] samples = new long[MAX_SAMPLES];
+        long ops = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + measureMillis * 1_000_000;
+        long now = start;
+        while (now < end) {
+            op.run(i++);
+            long after = System.nanoTime();
+            long latency = after - now;
+            if (ops < MAX_SAMPLES) {
+                samples[(int) ops] = latency;
+            } else {
+                long slot = ThreadLocalRandom.current().nextLong(ops + 1); // uniform sample of the whole run
+                if (slot < MAX_SAMPLES) {
+                    samples[(int) slot] = latency;
+                }
+            }
+            ops++;
+            now = after;
+        }
+        long allocatedAfter = allocatedBytes();
+
+        long[] sorted = Arrays.copyOf(samples, (int) Math.min(ops, MAX_SAMPLES));
+        Arrays.sort(sorted);
+        long bytesPerOp = allocatedBefore < 0 || ops == 0 ? -1 : (allocatedAfter - allocatedBefore) / ops;
+        return new Result(name, ops, (now - start) / 1e9, sorted, bytesPerOp);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    // Bytes allocated so far by this thread, or -1 when the JVM does not expose it
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
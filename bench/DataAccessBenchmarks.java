@@ -0,0 +1,213 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+// Benchmarks for the SQL behind login, Search Jobs, View Applications and View Application Status.
+// Usage: java -Dbench.url=... DataAccessBenchmarks [10k|1m|10m] [name filter]
+// Without bench.url it runs on an in-memory H2 database in MySQL mode (H2 must be on the classpath).
+public class DataAccessBenchmarks {
+    // Same statements the UI issues
+    private static final String USER_ID_SQL = "SELECT id FROM users WHERE email = ?";
+    private static final String JOB_PAGE_SQL = "SELECT id, title, salary FROM jobs WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String STATUS_SQL = "SELECT j.title, a.status, a.appliedDate " +
+            "FROM applications a " +
+            "JOIN jobs j ON a.jobId = j.id " +
+            "WHERE a.jobSeekerId = ?";
+
+    public static void main(String[] args) throws Exception {
+        String scale = args.length > 0 ? args[0] : "10k";
+        String only = args.length > 1 ? args[1] : "";
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Bench bench = new Bench(Long.getLong("bench.warmup", 5) * 1000, Long.getLong("bench.time", 10) * 1000);
+        SyntheticData data = SyntheticData.forScale(scale);
+
+        try (ConnectionPool pool = new ConnectionPool(url, System.getProperty("bench.user", "sa"),
+                System.getProperty("bench.password", ""), 2)) {
+            try (Connection conn = pool.getConnection()) {
+                data.load(conn);
+            }
+
+            DbExecutor db = new DbExecutor(pool, 1, 10);
+            JobSearchIndex jobIndex = new JobSearchIndex();
+            long indexStart = System.nanoTime();
+            int indexed = jobIndex.ensureLoaded(db, new QueryScope()).get();
+            System.out.printf("Indexed %d jobs in %.1f s%n", indexed, (System.nanoTime() - indexStart) / 1e9);
+            MatchingEngine matcher = MatchingEngine.fromSystemProperties();
+            long matchStart = System.nanoTime();
+            int vectors = matcher.ensureLoaded(db, new QueryScope()).get();
+            System.out.printf("Built %d job vectors in %.1f s%n", vectors, (System.nanoTime() - matchStart) / 1e9);
+            db.close();
+            // Resume search over one synthetic resume per application, up to 100k; extraction is not measured
+            ResumeIndex resumes = new ResumeIndex(pool, null, 1, 1);
+            int resumeCount = Math.min(data.applications, 100_000);
+            for (int id = 1; id <= resumeCount; id++) {
+                resumes.put(id, data.employerId(id), resume(id));
+            }
+
+            List<Bench.Result> results = new ArrayList<>();
+            try (Connection conn = pool.getConnection()) {
+                QueryScope scope = new QueryScope();
+                List<String> names = new ArrayList<>();
+                List<Bench.Operation> ops = new ArrayList<>();
+
+                // The database half of a login; the password check is in LoginBenchmarks
+                names.add("authenticateUser");
+                ops.add(i -> {
+                    int userId = data.seekerId(i * 7919);
+                    try (PreparedStatement pstmt = conn.prepareStatement(UserService.CREDENTIALS_SQL)) {
+                        pstmt.setString(1, SyntheticData.email(userId));
+                        pstmt.setString(2, "JobSeeker");
+                        drain(pstmt);
+                    }
+                });
+
+                // Removed from the screens by the session cache; kept as the baseline it replaced
+                names.add("getUserId");
+                ops.add(i -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(USER_ID_SQL)) {
+                        pstmt.setString(1, SyntheticData.email(data.seekerId(i * 7919)));
+                        drain(pstmt);
+                    }
+                });
+
+                names.add("searchJobs.page");
+                ops.add(i -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(JOB_PAGE_SQL)) {
+                        pstmt.setInt(1, (int) Math.floorMod(i * 104_729, (long) data.jobs));
+                        pstmt.setInt(2, JobTableModel.PAGE_SIZE);
+                        drain(pstmt);
+                    }
+                });
+
+                // Opening Search Jobs or Refresh: the first pages, as the screens request them, from the catalog cache
+                JobCatalogCache catalog = new JobCatalogCache(200, 60_000);
+                names.add("searchJobs.cachedPage");
+                ops.add(i -> catalog.get(conn, scope, (int) (i % 20) * JobTableModel.PAGE_SIZE, JobTableModel.PAGE_SIZE));
+
+                // Recommendations: one resume scored against every job on the matcher's ForkJoin pool
+                names.add("match.rankJobs");
+                ops.add(i -> matcher.rankJobs(MatchingEngine.TermVector.of(resume(i)), 50, jobId -> false));
+
+                // An employer's skill search across their applicants' resumes
+                names.add("resumes.search");
+                ops.add(i -> resumes.search(data.employerId(i), skills(i), 50));
+
+                names.add("searchJobs.index");
+                ops.add(i -> jobIndex.search(query(i), 0, Double.MAX_VALUE, 50));
+
+                names.add("searchJobs.hits");
+                ops.add(i -> {
+                    List<InvertedIndex.Hit> hits = jobIndex.search(query(i), 0, Double.MAX_VALUE, 50);
+                    if (hits.isEmpty()) {
+                        return;
+                    }
+                    String sql = "SELECT id, title, salary FROM jobs WHERE id IN (" +
+                            ApplicationBatch.placeholders(hits.size()) + ")";
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        for (int h = 0; h < hits.size(); h++) {
+                            pstmt.setInt(h + 1, hits.get(h).docId);
+                        }
+                        drain(pstmt);
+                    }
+                });
+
+                names.add("viewApplications.count");
+                ops.add(i -> {
+                    ApplicationReviewQuery.invalidateCounts(); // measure the query, not the count cache
+                    ApplicationReviewQuery.count(conn, newestFirst(data.employerId(i)));
+                });
+
+                names.add("viewApplications.page");
+                ops.add(i -> ApplicationReviewQuery.page(conn, scope, newestFirst(data.employerId(i)),
+                        0, ApplicationTableModel.PAGE_SIZE));
+
+                names.add("viewApplications.deepPage");
+                ops.add(i -> ApplicationReviewQuery.page(conn, scope, newestFirst(data.employerId(i)),
+                        10 * ApplicationTableModel.PAGE_SIZE, ApplicationTableModel.PAGE_SIZE));
+
+                // Analytics from the running totals, against counting the same figures from applications
+                names.add("analytics.report");
+                ops.add(i -> ApplicationStats.report(conn, data.employerId(i), 30));
+
+                names.add("analytics.groupBy");
+                ops.add(i -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement("SELECT a.jobId, a.status, COUNT(*) " +
+                            "FROM applications a JOIN jobs j ON a.jobId = j.id WHERE j.employerId = ? " +
+                            "GROUP BY a.jobId, a.status")) {
+                        pstmt.setInt(1, data.employerId(i));
+                        drain(pstmt);
+                    }
+                });
+
+                names.add("viewApplicationStatus");
+                ops.add(i -> {
+                    try (PreparedStatement pstmt = conn.prepareStatement(STATUS_SQL)) {
+                        pstmt.setInt(1, data.seekerId(i * 7919));
+                        drain(pstmt);
+                    }
+                });
+
+                for (int n = 0; n < names.size(); n++) {
+                    if (names.get(n).contains(only)) {
+                        System.out.println("Running " + names.get(n) + "...");
+                        results.add(bench.measure(names.get(n), ops.get(n)));
+                    }
+                }
+            }
+
+            System.out.println();
+            System.out.println("Scale: " + data.applications + " applications, " + data.jobs + " jobs, "
+                    + data.users + " users");
+            System.out.println(Bench.Result.header());
+            for (Bench.Result result : results) {
+                System.out.println(result);
+            }
+        }
+    }
+
+    private static ApplicationReviewQuery.Filter newestFirst(int employerId) {
+        return new ApplicationReviewQuery.Filter(employerId, null, null, null, 4, false);
+    }
+
+    // Two-word queries from the generator's vocabulary; the second word is typed halfway, as in typeahead
+    private static String query(long i) {
+        String first = SyntheticData.TITLE_WORDS[(int) Math.floorMod(i, (long) SyntheticData.TITLE_WORDS.length)];
+        String second = SyntheticData.DESCRIPTION_WORDS[(int) Math.floorMod(i * 31,
+                (long) SyntheticData.DESCRIPTION_WORDS.length)];
+        return first + " " + second.substring(0, Math.max(2, second.length() / 2));
+    }
+
+    // Two words a resume may contain
+    private static String skills(long i) {
+        String[] words = SyntheticData.DESCRIPTION_WORDS;
+        return words[(int) Math.floorMod(i * 13, (long) words.length)] + " "
+                + words[(int) Math.floorMod(i * 29 + 5, (long) words.length)];
+    }
+
+    // A resume-sized text: 200 words from the job descriptions' vocabulary
+    private static String resume(long i) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < 200; w++) {
+            text.append(SyntheticData.DESCRIPTION_WORDS[(int) Math.floorMod(i * 31 + w * 7L,
+                    (long) SyntheticData.DESCRIPTION_WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    // Reads every column of every row, as the screens do
+    private static int drain(PreparedStatement pstmt) throws Exception {
+        int rows = 0;
+        try (ResultSet rs = pstmt.executeQuery()) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int c = 1; c <= columns; c++) {
+                    rs.getObject(c);
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
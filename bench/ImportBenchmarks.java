@@ -0,0 +1,145 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Random;
+
+// Bulk job import throughput: writes an ATS-style export of the given number of jobs as CSV and as JSON lines,
+// one row in a thousand invalid, and imports each for one employer through JobImport. Prints rows per second,
+// the rows rejected and the most heap in use while importing; run with a small -Xmx to see memory stay bounded.
+// Also checks that every imported job belongs to the employer and is in the change log.
+// Usage: java -Xmx256m -Dbench.url=... ImportBenchmarks [rows, default 50000]
+// Without bench.url it runs on an in-memory H2 database in MySQL mode (H2 must be on the classpath); the heap
+// then holds the imported jobs too, so give it more. On MySQL add rewriteBatchedStatements=true to the URL so
+// each batch goes as one statement.
+public class ImportBenchmarks {
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        SyntheticData data = new SyntheticData(1_000);
+        Path dir = Files.createTempDirectory("import-bench");
+        Path csv = dir.resolve("jobs.csv"), jsonl = dir.resolve("jobs.jsonl");
+        writeFiles(rows, csv, jsonl);
+        System.out.printf("%d rows: %.1f MB of CSV, %.1f MB of JSON lines%n", rows, Files.size(csv) / 1e6,
+                Files.size(jsonl) / 1e6);
+
+        MatchingEngine matcher = MatchingEngine.fromSystemProperties();
+        JobService jobs = new JobService(new JobSearchIndex(), JobCatalogCache.fromSystemProperties(), matcher);
+        boolean ok = true;
+        try (ConnectionPool pool = new ConnectionPool(url, System.getProperty("bench.user", "sa"),
+                System.getProperty("bench.password", ""), 1);
+             JobImport importer = JobImport.fromSystemProperties(jobs);
+             Connection conn = pool.getConnection()) {
+            data.load(conn);
+            System.out.printf("%-6s %10s %10s %8s %10s %12s %10s%n", "format", "rows", "imported", "failed",
+                    "seconds", "rows/s", "heap MB");
+            int employer = 0;
+            for (Path file : new Path[]{csv, jsonl}) {
+                int employerId = data.employerId(employer++);
+                long before = count(conn, "SELECT COUNT(*) FROM jobs WHERE employerId = ?", employerId);
+                MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+                long[] maxHeap = {0};
+                JobImport.Report report;
+                try (InputStream in = Files.newInputStream(file)) {
+                    report = importer.run(conn, in, JobImport.Format.of(file.toString()), employerId,
+                            (bytes, read, imported) -> maxHeap[0] = Math.max(maxHeap[0],
+                                    memory.getHeapMemoryUsage().getUsed()));
+                }
+                System.out.printf("%-6s %10d %10d %8d %10.2f %12.0f %10.0f%n",
+                        JobImport.Format.of(file.toString()), report.rows(), report.imported(), report.failed(),
+                        report.nanos() / 1e9, report.rowsPerSecond(), maxHeap[0] / 1e6);
+                if (!report.errors().isEmpty()) {
+                    JobImport.RowError first = report.errors().get(0);
+                    System.out.println("  first error: line " + first.line() + ": " + first.message());
+                }
+                long added = count(conn, "SELECT COUNT(*) FROM jobs WHERE employerId = ?", employerId) - before;
+                long logged = count(conn, "SELECT COUNT(*) FROM change_log WHERE tableName = 'jobs' AND op = 'I' " +
+                        "AND employerId = ?", employerId);
+                if (added != report.imported() || logged != report.imported() || report.rows() != rows
+                        || report.failed() != rows / 1_000) {
+                    System.out.println("  FAIL: " + added + " jobs added and " + logged + " logged for the employer");
+                    ok = false;
+                }
+            }
+            ok &= malformedFails(dir.resolve("broken.csv"), jobs, conn, data.employerId(employer));
+        } finally {
+            matcher.close();
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    // A file cut off inside a quoted field, after more valid rows than fit in the chunk queue of a single
+    // validation thread, must fail the import rather than leave it waiting for a chunk that never comes
+    private static boolean malformedFails(Path file, JobService jobs, Connection conn, int employerId)
+            throws Exception {
+        int rows = 20 * JobImport.CHUNK;
+        try (BufferedWriter w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            w.write("title,salary,description\n");
+            for (int i = 1; i <= rows; i++) {
+                w.write("Job " + i + ",50000,\"Row " + i + "\"\n");
+            }
+            w.write("Cut off,50000,\"no closing quote\n");
+        }
+        Object[] outcome = new Object[1];
+        Thread importing = new Thread(() -> {
+            try (JobImport importer = new JobImport(jobs, 1); InputStream in = Files.newInputStream(file)) {
+                outcome[0] = importer.run(conn, in, JobImport.Format.CSV, employerId, (bytes, read, imported) -> { });
+            } catch (Exception e) {
+                outcome[0] = e;
+            }
+        }, "malformed-import");
+        importing.setDaemon(true);
+        importing.start();
+        importing.join(120_000);
+        boolean failed = !importing.isAlive() && outcome[0] instanceof IOException;
+        System.out.println((failed ? "PASS" : "FAIL") + " a file with an unclosed quote fails the import: "
+                + (importing.isAlive() ? "still running after 120 s" : outcome[0]));
+        return failed;
+    }
+
+    // Descriptions with commas, quotes and line breaks; every thousandth row has an unreadable salary
+    private static void writeFiles(int rows, Path csv, Path jsonl) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter c = Files.newBufferedWriter(csv, StandardCharsets.UTF_8);
+             BufferedWriter j = Files.newBufferedWriter(jsonl, StandardCharsets.UTF_8)) {
+            c.write("Requisition,Title,Description,Salary,Location\r\n");
+            for (int i = 1; i <= rows; i++) {
+                String title = words(random, SyntheticData.TITLE_WORDS, 2 + random.nextInt(2));
+                String description = words(random, SyntheticData.DESCRIPTION_WORDS, 20 + random.nextInt(40))
+                        + ", \"hybrid\"\nApply by " + (1 + random.nextInt(28)) + " June";
+                String salary = i % 1_000 == 0 ? "competitive" : Integer.toString(20_000 + random.nextInt(180) * 1_000);
+                c.write("REQ-" + i + "," + title + ",\"" + description.replace("\"", "\"\"") + "\"," + salary
+                        + ",Remote\r\n");
+                j.write("{\"requisition\":\"REQ-" + i + "\",\"title\":\"" + title + "\",\"description\":\""
+                        + description.replace("\"", "\\\"").replace("\n", "\\n") + "\",\"salary\":"
+                        + (i % 1_000 == 0 ? "\"competitive\"" : salary) + ",\"tags\":[\"a\",{\"b\":1}]}\n");
+            }
+        }
+    }
+
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "" : " ").append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static long count(Connection conn, String sql, int employerId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test of a running ApiServer: for each concurrency level, each scenario runs with that many
+// clients sending back-to-back requests, and requests per second and latency percentiles are reported.
+// The server must use a database seeded by DataAccessBenchmarks at the same scale; the apply scenario adds rows.
+// Usage: java LoadGenerator http://localhost:8080 [10k|1m|10m] [1,8,32,128,256]
+public class LoadGenerator {
+    private static final int MAX_SAMPLES_PER_CLIENT = 1 << 14;
+    private static final byte[] RESUME = new byte[20 * 1024];
+
+    private interface Call {
+        // Sends one request as the given client; returns the HTTP status
+        int send(int client, long i) throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : "http://localhost:8080";
+        SyntheticData data = SyntheticData.forScale(args.length > 1 ? args[1] : "10k");
+        int[] levels = Arrays.stream((args.length > 2 ? args[2] : "1,8,32,128,256").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        long warmupMillis = Long.getLong("load.warmup", 2) * 1000;
+        long measureMillis = Long.getLong("load.time", 10) * 1000;
+        int maxClients = Arrays.stream(levels).max().orElse(1);
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Arrays.fill(RESUME, (byte) 'x');
+
+        // One session per distinct user; clients beyond that share them. A login replaces the user's earlier
+        // session, so the tokens are taken again after the login scenario.
+        int seekerCount = Math.min(maxClients, data.users - data.employers);
+        int employerCount = Math.min(maxClients, data.employers);
+        String[] seekerTokens = new String[seekerCount];
+        String[] employerTokens = new String[employerCount];
+        Runnable logInAll = () -> {
+            try {
+                for (int i = 0; i < seekerCount; i++) {
+                    seekerTokens[i] = login(http, base, data.seekerId(i), "JobSeeker");
+                }
+                for (int i = 0; i < employerCount; i++) {
+                    employerTokens[i] = login(http, base, data.employerId(i), "Employer");
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not log in the load test users", e);
+            }
+        };
+
+        List<String> names = List.of("login", "search", "apply", "review");
+        List<Call> calls = List.of(
+                (client, i) -> {
+                    int userId = data.seekerId(client + i * 7919);
+                    return post(http, base + "/api/login", null, form("email", SyntheticData.email(userId),
+                            "password", SyntheticData.password(userId), "role", "JobSeeker"));
+                },
+                (client, i) -> {
+                    String word = SyntheticData.TITLE_WORDS[(int) Math.floorMod(client + i, (long) SyntheticData.TITLE_WORDS.length)];
+                    return get(http, base + "/api/jobs?q=" + URLEncoder.encode(word, StandardCharsets.UTF_8), null);
+                },
+                (client, i) -> {
+                    int jobId = 1 + (int) Math.floorMod(client * 104_729L + i, (long) data.jobs);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/applications/apply?jobId=" + jobId))
+                            .header("Authorization", "Bearer " + seekerTokens[client % seekerCount])
+                            .header("Content-Type", "application/octet-stream")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(RESUME)).build();
+                    return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                },
+                (client, i) -> get(http, base + "/api/applications?offset=0&limit=" + ApplicationTableModel.PAGE_SIZE,
+                        employerTokens[client % employerCount])
+        );
+
+        List<String> lines = new ArrayList<>();
+        for (int level : levels) {
+            for (int s = 0; s < names.size(); s++) {
+                String name = names.get(s) + " x" + level;
+                System.out.println("Running " + name + "...");
+                if (!names.get(s).equals("login")) {
+                    logInAll.run();
+                }
+                run("warmup", calls.get(s), level, warmupMillis); // discarded
+                lines.add(run(name, calls.get(s), level, measureMillis));
+            }
+        }
+
+        System.out.println();
+        System.out.println(Bench.Result.header() + "   errors");
+        lines.forEach(System.out::println);
+    }
+
+    private static String run(String name, Call call, int clients, long millis) throws InterruptedException {
+        long[][] samples = new long[clients][MAX_SAMPLES_PER_CLIENT];
+        int[] counts = new int[clients];
+        AtomicLong ops = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads[c] = new Thread(() -> {
+                long i = 0;
+                while (System.nanoTime() < end) {
+                    long before = System.nanoTime();
+                    int status;
+                    try {
+                        status = call.send(client, i++);
+                    } catch (Exception e) {
+                        status = -1;
+                    }
+                    long latency = System.nanoTime() - before;
+                    if (status < 200 || status >= 300) {
+                        errors.incrementAndGet();
+                    }
+                    if (counts[client] < MAX_SAMPLES_PER_CLIENT) {
+                        samples[client][counts[client]++] = latency;
+                    }
+                    ops.incrementAndGet();
+                }
+            }, "load-client-" + c);
+            threads[c].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int total = Arrays.stream(counts).sum();
+        long[] sorted = new long[total];
+        int n = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(samples[c], 0, sorted, n, counts[c]);
+            n += counts[c];
+        }
+        Arrays.sort(sorted);
+        return new Bench.Result(name, ops.get(), seconds, sorted, -1) + String.format(" %8d", errors.get());
+    }
+
+    private static String login(HttpClient http, String base, int userId, String role) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/api/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form("email", SyntheticData.email(userId),
+                        "password", SyntheticData.password(userId), "role", role))).build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as user " + userId + " failed: " + response.body());
+        }
+        // {"token":"...", ...}; tokens are URL-safe base64, so no escaping to undo
+        String body = response.body();
+        int start = body.indexOf("\"token\":\"") + 9;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static int get(HttpClient http, String url, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static int post(HttpClient http, String url, String token, String form) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            sb.append(i == 0 ? "" : "&").append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8))
+                    .append('=').append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,56 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+// CPU cost of the password check behind login: logins per second per core at the configured PBKDF2 cost,
+// and total throughput with one checking thread per core (the size of the hasher pool).
+// Usage: java -Dpassword.iterations=210000 LoginBenchmarks
+public class LoginBenchmarks {
+    public static void main(String[] args) throws Exception {
+        long measureMillis = Long.getLong("bench.time", 10) * 1000;
+        Bench bench = new Bench(Long.getLong("bench.warmup", 5) * 1000, measureMillis);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        try (PasswordHasher hasher = PasswordHasher.fromSystemProperties()) {
+            String stored = hasher.hash(SyntheticData.password(1));
+            System.out.println("PBKDF2 iterations: " + hasher.iterations() + ", cores: " + cores);
+
+            Bench.Result verify = bench.measure("verifyPassword", i -> {
+                if (!hasher.verify(SyntheticData.password(1), stored)) {
+                    throw new IllegalStateException("Password did not verify");
+                }
+            });
+            Bench.Result plain = bench.measure("verifyPlainText", i -> hasher.verify("pw1", "pw1"));
+
+            System.out.println();
+            System.out.println(Bench.Result.header());
+            System.out.println(verify);
+            System.out.println(plain);
+
+            for (int threads : new int[]{1, cores}) {
+                double perSecond = parallel(hasher, stored, threads, measureMillis);
+                System.out.printf("%d thread(s): %.1f logins/s, %.1f logins/s per core%n",
+                        threads, perSecond, perSecond / Math.min(threads, cores));
+            }
+        }
+    }
+
+    private static double parallel(PasswordHasher hasher, String stored, int threads, long millis)
+            throws InterruptedException {
+        AtomicLong ops = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + millis * 1_000_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    hasher.verify(SyntheticData.password(1), stored);
+                    ops.incrementAndGet();
+                }
+            }, "login-bench-" + t);
+            workers[t].start();
+        }
+        for (Thread t : workers) {
+            t.join();
+        }
+        return ops.get() / ((System.nanoTime() - start) / 1e9);
+    }
+}
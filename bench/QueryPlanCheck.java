@@ -0,0 +1,96 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs EXPLAIN on every hot query against a migrated, seeded database and exits with status 1 if any of them
+// reads a whole table. Run it after changing a query or a migration.
+// Usage: java -Dbench.url=... QueryPlanCheck [10k|1m|10m]
+// Without bench.url it uses an in-memory H2 database in MySQL mode (H2 must be on the classpath).
+public class QueryPlanCheck {
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:plans;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        SyntheticData data = SyntheticData.forScale(args.length > 0 ? args[0] : "10k");
+
+        try (ConnectionPool pool = new ConnectionPool(url, System.getProperty("bench.user", "sa"),
+                System.getProperty("bench.password", ""), 1);
+             Connection conn = pool.getConnection()) {
+            data.load(conn);
+
+            // Each query with sample parameters
+            Map<String, Object[]> queries = new LinkedHashMap<>();
+            queries.put(UserService.CREDENTIALS_SQL, new Object[]{SyntheticData.email(data.seekerId(0)), "JobSeeker"});
+            queries.put(JobTableModel.PAGE_SQL, new Object[]{data.jobs / 2, JobTableModel.PAGE_SIZE});
+            queries.put(ApplicationService.STATUS_SQL, new Object[]{data.seekerId(0)});
+            queries.put(ApplicationService.ARCHIVED_STATUS_SQL, new Object[]{data.seekerId(0)});
+            // Archiver's candidates
+            queries.put("SELECT id FROM applications WHERE appliedDate < ? LIMIT ?",
+                    new Object[]{Timestamp.valueOf("2020-01-01 00:00:00"), 500});
+            queries.put("SELECT id FROM jobs j WHERE postedAt < ? AND NOT EXISTS " +
+                    "(SELECT 1 FROM applications a WHERE a.jobId = j.id) LIMIT ?",
+                    new Object[]{Timestamp.valueOf("2020-01-01 00:00:00"), 500});
+            queries.put("SELECT 1 FROM applications WHERE jobId = ? AND jobSeekerId = ?", // ingest duplicate check
+                    new Object[]{1, data.seekerId(0)});
+            queries.put("SELECT id FROM jobs WHERE employerId = ?", new Object[]{data.employerId(0)}); // ownership
+            ApplicationReviewQuery.Filter filter = new ApplicationReviewQuery.Filter(data.employerId(0), "Pending",
+                    Date.valueOf("2020-01-01"), null, 0, false);
+            List<Object> params = new ArrayList<>();
+            queries.put(ApplicationReviewQuery.countSql(filter, params), params.toArray());
+            params = new ArrayList<>();
+            queries.put(ApplicationReviewQuery.pageSql(filter, 0, ApplicationTableModel.PAGE_SIZE, params),
+                    params.toArray());
+
+            queries.put(ApplicationStats.JOBS_SQL, new Object[]{data.employerId(0)});
+            queries.put(ApplicationStats.DAYS_SQL, new Object[]{data.employerId(0), Date.valueOf("2020-01-01")});
+            queries.put(ApplicationStats.SELECTION_SQL, new Object[]{data.employerId(0)});
+
+            int failures = 0;
+            for (Map.Entry<String, Object[]> query : queries.entrySet()) {
+                String plan = explain(conn, query.getKey(), query.getValue());
+                boolean fullScan = isFullScan(plan);
+                System.out.println((fullScan ? "FULL SCAN  " : "ok         ") + query.getKey());
+                if (fullScan) {
+                    System.out.println("    " + plan.replace("\n", "\n    "));
+                    failures++;
+                }
+            }
+            if (failures > 0) {
+                System.out.println(failures + " of " + queries.size() + " queries read a whole table");
+                System.exit(1);
+            }
+            System.out.println("All " + queries.size() + " queries use an index");
+        }
+    }
+
+    // The plan as text: H2 returns one row of SQL with comments, MySQL one row per table
+    private static String explain(Connection conn, String sql, Object[] params) throws Exception {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                pstmt.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    for (int c = 1; c <= meta.getColumnCount(); c++) {
+                        plan.append(c == 1 ? "" : " ").append(meta.getColumnLabel(c).toLowerCase())
+                                .append('=').append(rs.getString(c));
+                    }
+                    plan.append('\n');
+                }
+                return plan.toString().trim();
+            }
+        }
+    }
+
+    private static boolean isFullScan(String plan) {
+        // H2 marks a scan of the table itself with ".tableScan"; MySQL reports access type ALL
+        return plan.contains(".tableScan") || plan.contains(" type=ALL ");
+    }
+}
@@ -0,0 +1,222 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+// Checks ReplicaRouter on two in-memory H2 databases standing in for a primary and a replica. Replication is
+// simulated by copying new rows across on demand, so the replica is exactly as far behind as the check wants:
+// reads go to the replica; a seeker who has just applied reads from the primary until the replica has the
+// application, then from the replica; a replica left behind or shut down gets no reads until it recovers.
+// Prints one line per check and exits with 1 if any fails.
+// Usage: java -cp out/bench:h2.jar ReplicaRoutingCheck
+public class ReplicaRoutingCheck {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final long CHECK_MILLIS = 100, MAX_LAG_MILLIS = 1_000;
+    private static final String RESUME_HASH = "0".repeat(64);
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        SyntheticData data = new SyntheticData(1_000);
+        ConnectionPool primary = new ConnectionPool(PRIMARY_URL, "sa", "", 4);
+        ConnectionPool replicaPool = new ConnectionPool(REPLICA_URL, "sa", "", 4);
+        try (Connection conn = primary.getConnection()) {
+            data.load(conn);
+        }
+        try (Connection conn = replicaPool.getConnection()) {
+            data.load(conn);
+        }
+        Path dir = Files.createTempDirectory("replica-check");
+        ReplicaRouter router = new ReplicaRouter(primary, List.of(replicaPool), CHECK_MILLIS, MAX_LAG_MILLIS);
+        DbExecutor db = new DbExecutor(router, 2, 100, new Metrics());
+        ApplicationIngestQueue ingest = new ApplicationIngestQueue(dir.resolve("queue"), 100, primary,
+                new LocalResumeStore(dir.resolve("resumes")));
+        try {
+            awaitReplica(router, true);
+            check("a read without a session goes to the replica",
+                    served(db, new QueryScope()).equals("replica"));
+
+            // A seeker applies; the application is saved on the primary by the ingest queue
+            int seekerId = data.seekerId(0);
+            int jobId = unappliedJob(primary, seekerId);
+            WritePosition seeker = new WritePosition();
+            QueryScope seekerScope = new QueryScope(seeker);
+            ingest.submit(jobId, seekerId, RESUME_HASH, 1_000, seeker);
+            check("a read while the application is queued goes to the primary",
+                    served(db, seekerScope).equals("primary"));
+            awaitSaved(seeker);
+            check("the applicant sees the application at once",
+                    DbExecutor.join(db.read(seekerScope, "status", conn -> hasApplied(conn, seekerId, jobId))));
+            check("the applicant reads from the primary while the replica lacks it",
+                    served(db, seekerScope).equals("primary"));
+            check("other sessions still read the lagging replica",
+                    served(db, new QueryScope(new WritePosition())).equals("replica")
+                            && !DbExecutor.join(db.read(new QueryScope(), "status",
+                            conn -> hasApplied(conn, seekerId, jobId))));
+
+            replicate(primary, replicaPool);
+            Thread.sleep(3 * CHECK_MILLIS);
+            check("once replicated the applicant reads from the replica and sees the application",
+                    served(db, seekerScope).equals("replica")
+                            && DbExecutor.join(db.read(seekerScope, "status", conn -> hasApplied(conn, seekerId, jobId))));
+
+            // A write through the executor moves the session's position past it
+            WritePosition employer = new WritePosition();
+            QueryScope employerScope = new QueryScope(employer);
+            int employerId = data.employerId(0);
+            int newJob = DbExecutor.join(db.submit(employerScope, "post", conn -> postJob(conn, employerId)));
+            check("a write moves the session's position",
+                    employer.version() > 0 && served(db, employerScope).equals("primary"));
+            check("the employer sees the posted job",
+                    DbExecutor.join(db.read(employerScope, "jobs", conn -> jobExists(conn, newJob))));
+
+            // Left unreplicated, the replica falls behind past the limit and stops taking reads
+            Thread.sleep(MAX_LAG_MILLIS + 5 * CHECK_MILLIS);
+            check("a replica too far behind gets no reads",
+                    served(db, new QueryScope()).equals("primary") && router.describe().get(1).contains(" down"));
+            replicate(primary, replicaPool);
+            awaitReplica(router, true);
+            check("it takes reads again once it catches up", served(db, new QueryScope()).equals("replica"));
+
+            // A replica that goes away
+            try (Connection conn = replicaPool.getConnection(); Statement stmt = conn.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+            awaitReplica(router, false);
+            check("a failed replica gets no reads", served(db, new QueryScope()).equals("primary"));
+            for (String line : router.describe()) {
+                System.out.println("  " + line);
+            }
+        } finally {
+            ingest.close();
+            db.close();
+            router.close();
+            primary.close();
+        }
+        System.out.println(failures == 0 ? "All checks passed" : failures + " check(s) failed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static void check(String name, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + name);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    // "primary" or "replica": the database a read-only call ran on
+    private static String served(DbExecutor db, QueryScope scope) throws Exception {
+        String url = DbExecutor.join(db.read(scope, "where", conn -> conn.getMetaData().getURL()));
+        return url.contains(":primary") ? "primary" : url.contains(":replica") ? "replica" : url;
+    }
+
+    private static void awaitReplica(ReplicaRouter router, boolean up) throws InterruptedException {
+        for (int i = 0; i < 100 && router.describe().get(1).contains(" up") != up; i++) {
+            Thread.sleep(CHECK_MILLIS);
+        }
+    }
+
+    private static void awaitSaved(WritePosition writes) throws InterruptedException {
+        for (int i = 0; i < 100 && writes.hasQueued(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static int unappliedJob(ConnectionPool pool, int seekerId) throws SQLException {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT MIN(id) FROM jobs WHERE id NOT IN " +
+                     "(SELECT jobId FROM applications WHERE jobSeekerId = ?)")) {
+            pstmt.setInt(1, seekerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static boolean hasApplied(Connection conn, int seekerId, int jobId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM applications WHERE jobSeekerId = ? AND jobId = ?")) {
+            pstmt.setInt(1, seekerId);
+            pstmt.setInt(2, jobId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean jobExists(Connection conn, int jobId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM jobs WHERE id = ?")) {
+            pstmt.setInt(1, jobId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // Inserts and logs a job in one transaction, as posting does
+    private static int postJob(Connection conn, int employerId) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO jobs (title, description, salary, employerId) VALUES ('Replica Check', 'check', 1, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, employerId);
+            pstmt.executeUpdate();
+            int id;
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                keys.next();
+                id = keys.getInt(1);
+            }
+            ChangeLog.job(conn, ChangeLog.INSERTED, id);
+            conn.commit();
+            return id;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Copies the rows the replica does not have yet, parents first
+    private static void replicate(ConnectionPool from, ConnectionPool to) throws SQLException {
+        try (Connection source = from.getConnection(); Connection target = to.getConnection()) {
+            copyNewRows(source, target, "jobs", "id");
+            copyNewRows(source, target, "applications", "id");
+            copyNewRows(source, target, "change_log", "version");
+        }
+    }
+
+    private static void copyNewRows(Connection source, Connection target, String table, String key)
+            throws SQLException {
+        long after;
+        try (Statement stmt = target.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(" + key + "), 0) FROM " + table)) {
+            rs.next();
+            after = rs.getLong(1);
+        }
+        try (PreparedStatement select = source.prepareStatement(
+                "SELECT * FROM " + table + " WHERE " + key + " > ? ORDER BY " + key)) {
+            select.setLong(1, after);
+            try (ResultSet rs = select.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                StringBuilder columns = new StringBuilder(), marks = new StringBuilder();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    columns.append(c > 1 ? ", " : "").append(meta.getColumnName(c));
+                    marks.append(c > 1 ? ", ?" : "?");
+                }
+                try (PreparedStatement insert = target.prepareStatement(
+                        "INSERT INTO " + table + " (" + columns + ") VALUES (" + marks + ")")) {
+                    while (rs.next()) {
+                        for (int c = 1; c <= meta.getColumnCount(); c++) {
+                            insert.setObject(c, rs.getObject(c));
+                        }
+                        insert.executeUpdate();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import javax.swing.SwingUtilities;
+import java.awt.GraphicsEnvironment;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Startup and soak test of the main window. Startup: how long the constructor takes to put the login screen up
+// and how long the database takes to connect behind it. Soak: signs in as seekers and employers in turn and
+// walks every screen, sampling the heap after GC; with screens built once and their rows dropped when hidden,
+// the heap stays flat however many visits are made. Prints the time to show each screen.
+// Needs a display (use xvfb-run on a server); files go to a temporary directory.
+// Usage: java -Dbench.url=... ScreenBenchmarks [10k|1m|10m] [rounds, default 500]
+// Without bench.url it runs on an in-memory H2 database in MySQL mode (H2 must be on the classpath).
+public class ScreenBenchmarks {
+    private static final String[] SEEKER_SCREENS = {"SearchJobs", "SeekerDashboard", "ViewStatus", "SeekerDashboard"};
+    private static final String[] EMPLOYER_SCREENS = {"ViewApplications", "EmployerDashboard", "Analytics",
+            "EmployerDashboard", "PostJob", "EmployerDashboard"};
+    private static final int SAMPLES = 10;
+
+    public static void main(String[] args) throws Exception {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("ScreenBenchmarks needs a display; run it under xvfb-run on a server");
+            System.exit(1);
+        }
+        SyntheticData data = SyntheticData.forScale(args.length > 0 ? args[0] : "10k");
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        long pauseMillis = Long.getLong("bench.pause", 50); // lets each visit's rows load before moving on
+
+        String url = System.getProperty("bench.url", "jdbc:h2:mem:screens;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        String user = System.getProperty("bench.user", "sa");
+        String password = System.getProperty("bench.password", "");
+        try (ConnectionPool pool = new ConnectionPool(url, user, password, 1); Connection conn = pool.getConnection()) {
+            data.load(conn);
+        }
+        Path files = Files.createTempDirectory("screen-bench");
+        System.setProperty("db.url", url);
+        System.setProperty("db.user", user);
+        System.setProperty("db.password", password);
+        System.setProperty("resume.store.dir", files.resolve("resumes").toString());
+        System.setProperty("application.queue.dir", files.resolve("queue").toString());
+        System.setProperty("metrics.dir", files.resolve("metrics").toString());
+
+        long start = System.nanoTime();
+        AtomicReference<JobRecruitmentUI> created = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> created.set(new JobRecruitmentUI()));
+        long frameNanos = System.nanoTime() - start;
+        JobRecruitmentUI ui = created.get();
+        ui.connected().get(5, TimeUnit.MINUTES);
+        long connectNanos = System.nanoTime() - start;
+        System.out.printf("Login screen up in %.1f ms (%.0f ms after JVM start), database connected after %.1f ms%n",
+                frameNanos / 1e6, ui.metrics().snapshot().get("startup.frame").maxMillis(), connectNanos / 1e6);
+
+        long[] heap = new long[SAMPLES + 1];
+        heap[0] = usedHeap();
+        int every = Math.max(1, rounds / SAMPLES), sampled = 0, visits = 0;
+        for (int round = 0; round < rounds; round++) {
+            boolean seeker = round % 2 == 0;
+            int id = seeker ? data.seekerId(round) : data.employerId(round);
+            User signedIn = new User(id, "User " + id, SyntheticData.email(id), "", seeker ? "JobSeeker" : "Employer");
+            SwingUtilities.invokeAndWait(() -> ui.startSession(signedIn));
+            for (String screen : seeker ? SEEKER_SCREENS : EMPLOYER_SCREENS) {
+                SwingUtilities.invokeAndWait(() -> ui.screens().show(screen));
+                Thread.sleep(pauseMillis);
+                visits++;
+            }
+            SwingUtilities.invokeAndWait(() -> ui.screens().show("Login"));
+            if ((round + 1) % every == 0 && sampled < SAMPLES) {
+                heap[++sampled] = usedHeap();
+            }
+        }
+
+        System.out.printf("%n%d rounds, %d screen visits, %d screens built%n", rounds, visits, ui.screens().size());
+        System.out.print("Heap after GC (MB), at start then every " + every + " rounds:");
+        for (int i = 0; i <= sampled; i++) {
+            System.out.printf(" %.1f", heap[i] / 1e6);
+        }
+        System.out.printf("%nGrowth from the first sample after warm-up: %.1f MB%n",
+                sampled == 0 ? 0 : (heap[sampled] - heap[1]) / 1e6);
+        System.out.println();
+        System.out.printf("%-22s %8s %8s %8s %8s%n", "screen", "visits", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Metrics.Snapshot> e : ui.metrics().snapshot().entrySet()) {
+            Metrics.Snapshot s = e.getValue();
+            if (e.getKey().startsWith("screen.")) {
+                System.out.printf("%-22s %8d %8.2f %8.2f %8.2f%n", e.getKey().substring("screen.".length()),
+                        s.calls(), s.percentileMillis(0.5), s.percentileMillis(0.99), s.maxMillis());
+            }
+        }
+        System.exit(0);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
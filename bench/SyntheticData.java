@@ -0,0 +1,184 @@
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Random;
+
+// Creates the application's schema (through SchemaMigrations) and fills it with a deterministic synthetic data set.
+// Sizes are driven by the number of applications; jobs and users scale with it.
+// Works on MySQL and on H2 in MySQL mode.
+class SyntheticData {
+    private static final int BATCH = 1_000;
+    private static final int COMMIT_EVERY = 20_000;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long PAIR_STRIDE = 1_000_003; // prime, so multiples of it visit every (job, seeker) pair
+
+    static final String[] TITLE_WORDS = {"Senior", "Junior", "Lead", "Java", "Backend", "Frontend", "Data", "Cloud",
+            "Mobile", "Security", "QA", "DevOps", "Product", "Support", "Sales", "Marketing", "Finance", "Analyst",
+            "Engineer", "Developer", "Manager", "Designer", "Architect", "Consultant", "Administrator"};
+    static final String[] DESCRIPTION_WORDS = {"team", "remote", "office", "customers", "platform", "database",
+            "scalable", "services", "agile", "experience", "years", "degree", "communication", "testing",
+            "deployment", "kubernetes", "spring", "react", "python", "sql", "reporting", "budget", "clients",
+            "hiring", "growth", "startup", "enterprise", "travel", "shift", "benefits", "training", "mentoring"};
+
+    final int applications, jobs, users, employers;
+
+    SyntheticData(int applications) {
+        this.applications = applications;
+        this.jobs = Math.max(100, applications / 10);
+        this.users = Math.max(100, applications / 20);
+        this.employers = Math.max(10, users / 10);
+    }
+
+    // "10k", "1m", "10m" or a plain number of applications
+    static SyntheticData forScale(String scale) {
+        String s = scale.trim().toLowerCase();
+        int multiplier = 1;
+        if (s.endsWith("k")) {
+            multiplier = 1_000;
+            s = s.substring(0, s.length() - 1);
+        } else if (s.endsWith("m")) {
+            multiplier = 1_000_000;
+            s = s.substring(0, s.length() - 1);
+        }
+        return new SyntheticData(Math.multiplyExact(Integer.parseInt(s), multiplier));
+    }
+
+    // Users 1..employers are employers, the rest job seekers
+    int seekerId(long n) {
+        return employers + 1 + (int) Math.floorMod(n, (long) (users - employers));
+    }
+
+    int employerId(long n) {
+        return 1 + (int) Math.floorMod(n, (long) employers);
+    }
+
+    static String email(int userId) {
+        return "user" + userId + "@bench.example";
+    }
+
+    static String password(int userId) {
+        return "pw" + userId;
+    }
+
+    // Migrates the schema and seeds them unless they already hold this data set
+    void load(Connection conn) throws SQLException {
+        SchemaMigrations.migrate(conn);
+        int existing = count(conn, "applications");
+        if (existing == applications && count(conn, "jobs") == jobs && count(conn, "users") == users) {
+            System.out.println("Reusing existing data set of " + applications + " applications");
+            return;
+        }
+        if (existing != 0 || count(conn, "jobs") != 0 || count(conn, "users") != 0) {
+            throw new SQLException("Database already holds other data; point bench.url at an empty database");
+        }
+
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            long start = System.nanoTime();
+            Random random = new Random(42);
+            insertUsers(conn);
+            insertJobs(conn, random);
+            insertApplications(conn, random);
+            ApplicationStats.rebuild(conn);
+            conn.commit();
+            System.out.printf("Seeded %d users, %d jobs, %d applications in %.1f s%n",
+                    users, jobs, applications, (System.nanoTime() - start) / 1e9);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static int count(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void insertUsers(Connection conn) throws SQLException {
+        String sql = "INSERT INTO users (id, name, email, password, phoneNumber, role) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= users; id++) {
+                pstmt.setInt(1, id);
+                pstmt.setString(2, "User " + id);
+                pstmt.setString(3, email(id));
+                pstmt.setString(4, password(id));
+                pstmt.setString(5, String.format("9%09d", id));
+                pstmt.setString(6, id <= employers ? "Employer" : "JobSeeker");
+                addBatch(conn, pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertJobs(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO jobs (id, employerId, title, description, salary) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= jobs; id++) {
+                pstmt.setInt(1, id);
+                pstmt.setInt(2, employerId(id));
+                pstmt.setString(3, words(random, TITLE_WORDS, 2 + random.nextInt(2)));
+                pstmt.setString(4, words(random, DESCRIPTION_WORDS, 20 + random.nextInt(40)));
+                pstmt.setDouble(5, 20_000 + random.nextInt(180) * 1_000);
+                addBatch(conn, pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private void insertApplications(Connection conn, Random random) throws SQLException {
+        String sql = "INSERT INTO applications (id, jobId, jobSeekerId, status, appliedDate, resumepath) VALUES (?, ?, ?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+        byte[] hash = new byte[ResumeStore.HASH_LENGTH];
+        long seekers = users - employers;
+        long pairs = jobs * seekers;
+        if (pairs < applications || pairs % PAIR_STRIDE == 0) {
+            throw new IllegalStateException("Cannot make " + applications + " distinct applications");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int id = 1; id <= applications; id++) {
+                pstmt.setInt(1, id);
+                // Distinct (job, seeker) pairs, as the unique index requires, scattered over all pairs
+                long pair = Math.floorMod((id - 1) * PAIR_STRIDE, pairs);
+                pstmt.setInt(2, 1 + (int) (pair / seekers));
+                pstmt.setInt(3, seekerId(pair % seekers));
+                pstmt.setString(4, random.nextInt(5) == 0 ? "Selected" : "Pending");
+                pstmt.setTimestamp(5, new Timestamp(now - (long) (random.nextDouble() * 730 * DAY_MILLIS)));
+                String hex = String.format("%064x", random.nextLong() & Long.MAX_VALUE);
+                System.arraycopy(hex.getBytes(StandardCharsets.US_ASCII), 0, hash, 0, hash.length);
+                pstmt.setBytes(6, hash);
+                addBatch(conn, pstmt, id);
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void addBatch(Connection conn, PreparedStatement pstmt, int n) throws SQLException {
+        pstmt.addBatch();
+        if (n % BATCH == 0) {
+            pstmt.executeBatch();
+        }
+        if (n % COMMIT_EVERY == 0) {
+            conn.commit();
+        }
+    }
+
+    private static String words(Random random, String[] vocabulary, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(vocabulary[random.nextInt(vocabulary.length)]);
+        }
+        return sb.toString();
+    }
+}
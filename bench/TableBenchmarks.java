@@ -0,0 +1,109 @@
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+// Memory and paint cost of the View Application Status table at a large row count: ColumnarTableModel drawn by
+// ColumnarTable, against the DefaultTableModel and JTable renderers it replaced. Prints the heap each model
+// retains, the time to load it in 200-row chunks, and the time and allocation of painting one screenful of
+// rows at a random scroll position. A screenful should paint well inside a 16 ms frame without allocating per
+// cell. Runs headless.
+// Usage: java -Xmx1g TableBenchmarks [rows, default 1000000]
+public class TableBenchmarks {
+    private static final String[] COLUMNS = {"Application ID", "Job Title", "Status", "Applied Date"};
+    private static final int CHUNK = 200;
+    private static final int ROW_HEIGHT = 25;
+    private static final int WIDTH = 800, HEIGHT = 600; // a maximised screen's worth of rows
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Bench bench = new Bench(Long.getLong("bench.warmup", 3) * 1000, Long.getLong("bench.time", 5) * 1000);
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        ColumnarTableModel columnar = new ColumnarTableModel(COLUMNS,
+                Integer.class, String.class, String.class, String.class);
+        for (int first = 0; first < rows; first += CHUNK) {
+            ColumnarTableModel.Rows chunk = columnar.newRows(CHUNK);
+            for (int i = first; i < Math.min(rows, first + CHUNK); i++) {
+                int r = chunk.add();
+                chunk.set(r, 0, i + 1);
+                chunk.set(r, 1, title(i));
+                chunk.set(r, 2, status(i));
+                chunk.set(r, 3, date(i));
+            }
+            columnar.append(chunk);
+        }
+        double columnarLoad = (System.nanoTime() - start) / 1e9;
+        long columnarHeap = usedHeap() - before;
+
+        before = usedHeap();
+        start = System.nanoTime();
+        DefaultTableModel boxed = new DefaultTableModel(COLUMNS, 0);
+        for (int i = 0; i < rows; i++) {
+            boxed.addRow(new Object[]{i + 1, title(i), status(i), date(i)});
+        }
+        double boxedLoad = (System.nanoTime() - start) / 1e9;
+        long boxedHeap = usedHeap() - before;
+
+        System.out.printf("%,d rows%n", rows);
+        System.out.printf("ColumnarTableModel: %6.1f MB retained, loaded in %.2f s%n", columnarHeap / 1e6, columnarLoad);
+        System.out.printf("DefaultTableModel:  %6.1f MB retained, loaded in %.2f s%n", boxedHeap / 1e6, boxedLoad);
+
+        Bench.Result columnarPaint = bench.measure("paint.columnar", painter(new ColumnarTable(columnar), rows));
+        Bench.Result boxedPaint = bench.measure("paint.default", painter(new JTable(boxed), rows));
+        System.out.println();
+        System.out.println(Bench.Result.header());
+        System.out.println(columnarPaint);
+        System.out.println(boxedPaint);
+        System.out.printf("%d rows per screen; allocation per cell: %d B columnar, %d B default%n",
+                HEIGHT / ROW_HEIGHT, columnarPaint.bytesPerOp / cells(), boxedPaint.bytesPerOp / cells());
+    }
+
+    // Paints the rows visible at a random scroll position, as scrolling does
+    private static Bench.Operation painter(JTable table, int rows) {
+        table.setRowHeight(ROW_HEIGHT);
+        table.setSize(WIDTH, rows * ROW_HEIGHT);
+        table.doLayout();
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+        AffineTransform scroll = new AffineTransform();
+        return i -> {
+            int top = (int) Math.floorMod(i * 7_919L, (long) Math.max(1, rows - HEIGHT / ROW_HEIGHT)) * ROW_HEIGHT;
+            scroll.setToTranslation(0, -top);
+            g.setTransform(scroll);
+            g.setClip(0, top, WIDTH, HEIGHT);
+            table.paint(g);
+        };
+    }
+
+    private static int cells() {
+        return HEIGHT / ROW_HEIGHT * COLUMNS.length;
+    }
+
+    private static String title(int i) {
+        return SyntheticData.TITLE_WORDS[i % SyntheticData.TITLE_WORDS.length] + " Engineer";
+    }
+
+    private static String status(int i) {
+        return ApplicationService.STATUSES[i % 7 == 0 ? 1 : 0];
+    }
+
+    // Dates to the second, as the screen shows them; about one distinct value in five rows
+    private static String date(int i) {
+        int n = i / 5;
+        return String.format("2024-%02d-%02d %02d:%02d:%02d", 1 + n % 12, 1 + n / 12 % 28, n / 336 % 24,
+                n / 8064 % 60, n % 60);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
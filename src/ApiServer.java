@@ -0,0 +1,654 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.SQLTimeoutException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Embedded HTTP API over the service layer, so many recruiters and seekers can use the system at once
+// without a desktop window each. Parameters are form-encoded (query string or body); answers are JSON.
+// Each request runs on its own virtual thread when the JVM has them (Java 21+), else on a bounded pool.
+class ApiServer implements AutoCloseable {
+    private static final int REQUEST_THREADS = 200;
+    private static final int MAX_RESUME_BYTES = 10 * 1024 * 1024;
+    private static final int MAX_PAGE = 500;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final int MAX_IMPORT_ERRORS = 100;
+
+    // Thrown by handlers to answer with a specific HTTP status
+    static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private interface Handler {
+        String handle(Request request) throws Exception; // JSON body of a successful answer
+    }
+
+    // One exchange with its parameters already decoded
+    private final class Request {
+        final HttpExchange exchange;
+        final Map<String, String> params;
+        int status = 200; // of a successful answer
+
+        Request(HttpExchange exchange, Map<String, String> params) {
+            this.exchange = exchange;
+            this.params = params;
+        }
+
+        String param(String name) {
+            String value = params.get(name);
+            if (value == null || value.isEmpty()) {
+                throw new HttpError(400, "Missing parameter: " + name);
+            }
+            return value;
+        }
+
+        String param(String name, String fallback) {
+            String value = params.get(name);
+            return value == null || value.isEmpty() ? fallback : value;
+        }
+
+        int intParam(String name, int fallback) {
+            String value = params.get(name);
+            try {
+                return value == null || value.isEmpty() ? fallback : Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Not a number: " + name);
+            }
+        }
+
+        double doubleParam(String name, double fallback) {
+            String value = params.get(name);
+            try {
+                return value == null || value.isEmpty() ? fallback : Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Not a number: " + name);
+            }
+        }
+
+        int[] idsParam(String name) {
+            String[] parts = param(name).split(",");
+            int[] ids = new int[parts.length];
+            try {
+                for (int i = 0; i < parts.length; i++) {
+                    ids[i] = Integer.parseInt(parts[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                throw new HttpError(400, "Not a list of ids: " + name);
+            }
+            return ids;
+        }
+
+        // Session token from "Authorization: Bearer ..." or the token parameter
+        String token() {
+            String header = exchange.getRequestHeaders().getFirst("Authorization");
+            return header != null && header.startsWith("Bearer ") ? header.substring(7) : params.get("token");
+        }
+
+        // The caller's user, who must hold the role
+        User user(String role) {
+            Session session = sessions.get(token());
+            if (session == null) {
+                throw new HttpError(401, "Not logged in");
+            }
+            if (!session.user.role.equals(role)) {
+                throw new HttpError(403, "Only for " + role + " accounts");
+            }
+            return session.user;
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ConnectionPool pool;
+    private final DbExecutor db;
+    private final UserService users;
+    private final JobService jobs;
+    private final ApplicationService applications;
+    private final JobImport importer;
+    private final SessionCache sessions = new SessionCache(10_000, 30 * 60 * 1000);
+    private final QueryScope scope = new QueryScope();
+
+    public ApiServer(int port, ConnectionPool pool, DbExecutor db, UserService users, JobService jobs,
+                     ApplicationService applications) throws IOException {
+        this.pool = pool;
+        this.db = db;
+        this.users = users;
+        this.jobs = jobs;
+        this.applications = applications;
+        this.importer = JobImport.fromSystemProperties(jobs);
+        this.executor = newRequestExecutor();
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(executor);
+        route("/api/login", "POST", this::login);
+        route("/api/logout", "POST", this::logout);
+        route("/api/register", "POST", this::register);
+        route("/api/jobs", "GET", this::searchJobs);
+        route("/api/jobs/post", "POST", this::postJob);
+        route("/api/jobs/import", "POST", this::importJobs);
+        route("/api/jobs/recommended", "GET", this::recommendJobs);
+        route("/api/applications", "GET", this::reviewApplications);
+        route("/api/applications/apply", "POST", this::apply);
+        route("/api/applications/status", "POST", this::updateStatus);
+        route("/api/applications/delete", "POST", this::deleteApplications);
+        route("/api/applications/mine", "GET", this::myApplications);
+        route("/api/applications/stats", "GET", this::applicationStats);
+        route("/api/applications/ranked", "GET", this::rankApplicants);
+        route("/api/applications/search", "GET", this::searchResumes);
+    }
+
+    public void start() {
+        jobs.ensureIndexLoaded(db, scope);
+        jobs.ensureMatcherLoaded(db, scope);
+        applications.ensureResumeIndexLoaded(db, scope);
+        server.start();
+    }
+
+    // Keeps the catalog cache, search index and review counts current with writes made by other instances
+    // and by desktop clients
+    public void follow(ChangeFeed changes) {
+        jobs.follow(changes, scope);
+        applications.follow(changes, scope);
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        scope.cancel();
+        executor.shutdown();
+        importer.close();
+    }
+
+    private String login(Request request) throws Exception {
+        String email = request.param("email");
+        String password = request.param("password");
+        String role = request.param("role");
+        User user = users.authenticate(pool, email, password, role);
+        if (user == null) {
+            throw new HttpError(401, "Invalid Credentials or Incorrect Role");
+        }
+        Session session = sessions.open(user);
+        return "{\"token\":" + quote(session.id) + ",\"userId\":" + user.userId
+                + ",\"name\":" + quote(user.name) + ",\"role\":" + quote(user.role) + "}";
+    }
+
+    private String logout(Request request) {
+        sessions.close(request.token());
+        return "{}";
+    }
+
+    private String register(Request request) throws Exception {
+        String phone = request.param("phone");
+        String role = request.param("role");
+        String hash = DbExecutor.join(users.hashForRegistration(request.param("password"), phone, role));
+        try (Connection conn = pool.getConnection()) {
+            users.register(conn, request.param("name"), request.param("email"), hash, phone, role);
+        }
+        return "{}";
+    }
+
+    // With q: ranked search within the salary range. Without: the job list by keyset (after = last id seen).
+    private String searchJobs(Request request) throws Exception {
+        String query = request.param("q", "");
+        List<JobService.Summary> rows;
+        if (query.trim().isEmpty()) {
+            int limit = Math.max(1, Math.min(MAX_PAGE, request.intParam("limit", JobTableModel.PAGE_SIZE)));
+            try (Connection conn = pool.getConnection()) {
+                rows = jobs.page(conn, request.intParam("after", 0), limit);
+            }
+        } else {
+            if (!jobs.isIndexReady()) {
+                jobs.ensureIndexLoaded(db, scope);
+                throw new HttpError(503, "Search index is still loading");
+            }
+            List<InvertedIndex.Hit> hits = jobs.search(query, request.doubleParam("min", 0),
+                    request.doubleParam("max", Double.MAX_VALUE), Math.min(100, request.intParam("k", 50)));
+            try (Connection conn = pool.getConnection()) {
+                rows = jobs.summaries(conn, new QueryScope(), hits);
+            }
+        }
+        return jobsJson(rows);
+    }
+
+    // Jobs matching the seeker's latest resume, best first
+    private String recommendJobs(Request request) throws Exception {
+        User seeker = request.user("JobSeeker");
+        if (!jobs.isMatcherReady()) {
+            jobs.ensureMatcherLoaded(db, scope);
+            throw new HttpError(503, "Recommendations are still loading");
+        }
+        List<JobService.Summary> rows;
+        try (Connection conn = pool.getConnection()) {
+            rows = jobs.summaries(conn, new QueryScope(), applications.recommendJobs(conn, seeker.userId,
+                    Math.max(1, Math.min(100, request.intParam("k", 50)))));
+        }
+        return jobsJson(rows);
+    }
+
+    private static String jobsJson(List<JobService.Summary> rows) {
+        StringBuilder json = new StringBuilder("{\"jobs\":[");
+        for (int i = 0; i < rows.size(); i++) {
+            JobService.Summary row = rows.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(row.id).append(",\"title\":")
+                    .append(quote(row.title)).append(",\"salary\":").append(row.salary).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private String postJob(Request request) throws Exception {
+        User employer = request.user("Employer");
+        double salary = request.doubleParam("salary", Double.NaN);
+        if (Double.isNaN(salary)) {
+            throw new HttpError(400, "Missing parameter: salary");
+        }
+        int jobId;
+        try (Connection conn = pool.getConnection()) {
+            jobId = jobs.post(conn, employer.userId, request.param("title"), request.param("description", ""), salary);
+        }
+        return "{\"id\":" + jobId + "}";
+    }
+
+    // The request body is the file itself, read as it arrives; format (csv or jsonl) is in the query string.
+    // Answers once the whole file is in, with the first MAX_IMPORT_ERRORS rows that were skipped.
+    private String importJobs(Request request) throws Exception {
+        User employer = request.user("Employer");
+        JobImport.Format format = JobImport.Format.of(request.param("format"));
+        if (format == null) {
+            throw new HttpError(400, "format must be csv or jsonl");
+        }
+        JobImport.Report report;
+        try (Connection conn = pool.getConnection()) {
+            report = importer.run(conn, request.exchange.getRequestBody(), format, employer.userId,
+                    (bytes, rows, imported) -> { });
+        } catch (IOException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+        StringBuilder json = new StringBuilder("{\"rows\":").append(report.rows())
+                .append(",\"imported\":").append(report.imported())
+                .append(",\"failed\":").append(report.failed())
+                .append(",\"millis\":").append(report.nanos() / 1_000_000)
+                .append(",\"rowsPerSecond\":").append(Math.round(report.rowsPerSecond()))
+                .append(",\"errors\":[");
+        List<JobImport.RowError> errors = report.errors();
+        for (int i = 0; i < Math.min(MAX_IMPORT_ERRORS, errors.size()); i++) {
+            json.append(i == 0 ? "" : ",").append("{\"line\":").append(errors.get(i).line())
+                    .append(",\"message\":").append(quote(errors.get(i).message())).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // The request body is the resume file itself; jobId is in the query string
+    private String apply(Request request) throws Exception {
+        User seeker = request.user("JobSeeker");
+        int jobId = request.intParam("jobId", -1);
+        if (jobId < 0) {
+            throw new HttpError(400, "Missing parameter: jobId");
+        }
+        try (Connection conn = pool.getConnection()) {
+            if (!jobs.exists(conn, jobId)) {
+                throw new HttpError(404, "No such job: " + jobId);
+            }
+        }
+        Path upload = Files.createTempFile("resume-", ".upload");
+        try {
+            receive(request.exchange.getRequestBody(), upload);
+            boolean queued = applications.apply(jobId, seeker.userId, upload,
+                    new ResumeTransfer(new QueryScope(), (done, total) -> { }), null);
+            request.status = 202; // saved to the database in the background
+            return "{\"queued\":" + queued + "}";
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    private String reviewApplications(Request request) throws Exception {
+        User employer = request.user("Employer");
+        ApplicationReviewQuery.Filter filter;
+        try {
+            String status = request.param("status", null);
+            String from = request.param("from", null);
+            String to = request.param("to", null);
+            filter = new ApplicationReviewQuery.Filter(employer.userId, status,
+                    from == null ? null : Date.valueOf(from), to == null ? null : Date.valueOf(to),
+                    request.intParam("sort", 4), Boolean.parseBoolean(request.param("asc", "false")));
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, e.getMessage());
+        }
+        int offset = Math.max(0, request.intParam("offset", 0));
+        int limit = Math.max(1, Math.min(MAX_PAGE, request.intParam("limit", ApplicationTableModel.PAGE_SIZE)));
+        int total;
+        ApplicationReviewQuery.Page page;
+        try (Connection conn = pool.getConnection()) {
+            total = applications.count(conn, filter);
+            page = applications.review(conn, new QueryScope(), filter, offset, limit);
+        }
+        return applicationsJson(new StringBuilder("{\"total\":").append(total).append(','), page);
+    }
+
+    // The employer's applications whose resumes match q, best first
+    private String searchResumes(Request request) throws Exception {
+        User employer = request.user("Employer");
+        String query = request.param("q");
+        if (!applications.isResumeIndexReady()) {
+            applications.ensureResumeIndexLoaded(db, scope);
+            throw new HttpError(503, "Resumes are still being indexed");
+        }
+        ApplicationReviewQuery.Page found;
+        try (Connection conn = pool.getConnection()) {
+            found = applications.searchResumes(conn, employer.userId, query,
+                    Math.max(1, Math.min(MAX_PAGE, request.intParam("k", 50))));
+        }
+        return applicationsJson(new StringBuilder("{"), found);
+    }
+
+    private static String applicationsJson(StringBuilder json, ApplicationReviewQuery.Page page) {
+        json.append("\"applications\":[");
+        for (int i = 0; i < page.size; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(page.ids[i])
+                    .append(",\"title\":").append(quote(page.titles[i]))
+                    .append(",\"applicant\":").append(quote(page.applicants[i]))
+                    .append(",\"status\":").append(quote(page.statuses[i]))
+                    .append(",\"date\":").append(quote(page.dates[i])).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private String updateStatus(Request request) throws Exception {
+        User employer = request.user("Employer");
+        int updated;
+        try (Connection conn = pool.getConnection()) {
+            updated = applications.updateStatus(conn, employer.userId, request.idsParam("ids"), request.param("status"));
+        }
+        return "{\"updated\":" + updated + "}";
+    }
+
+    private String deleteApplications(Request request) throws Exception {
+        User employer = request.user("Employer");
+        int deleted;
+        try (Connection conn = pool.getConnection()) {
+            deleted = applications.delete(conn, employer.userId, request.idsParam("ids"));
+        }
+        return "{\"deleted\":" + deleted + "}";
+    }
+
+    // archived=1 adds the applications moved to the archive; "stored" tells them apart
+    private String myApplications(Request request) throws Exception {
+        User seeker = request.user("JobSeeker");
+        List<String[]> rows;
+        try (Connection conn = pool.getConnection()) {
+            rows = applications.statusFor(conn, seeker.userId, request.intParam("archived", 0) == 1);
+        }
+        StringBuilder json = new StringBuilder("{\"applications\":[");
+        for (int i = 0; i < rows.size(); i++) {
+            String[] row = rows.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"title\":").append(quote(row[0]))
+                    .append(",\"status\":").append(quote(row[1]))
+                    .append(",\"date\":").append(quote(row[2]))
+                    .append(",\"stored\":").append(quote(row[3])).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // The employer's applicants to one job, best match first; score is the cosine similarity (0..1)
+    private String rankApplicants(Request request) throws Exception {
+        User employer = request.user("Employer");
+        int jobId = request.intParam("jobId", -1);
+        int k = Math.max(1, Math.min(MAX_PAGE, request.intParam("k", 50)));
+        List<ApplicationService.RankedApplicant> ranked;
+        try (Connection conn = pool.getConnection()) {
+            ranked = applications.rankApplicants(conn, new QueryScope(), employer.userId, jobId, k);
+        }
+        StringBuilder json = new StringBuilder("{\"applications\":[");
+        for (int i = 0; i < ranked.size(); i++) {
+            ApplicationService.RankedApplicant row = ranked.get(i);
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(row.applicationId)
+                    .append(",\"applicant\":").append(quote(row.applicant))
+                    .append(",\"status\":").append(quote(row.status))
+                    .append(",\"score\":").append(row.score).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private String applicationStats(Request request) throws Exception {
+        User employer = request.user("Employer");
+        int days = Math.max(1, Math.min(MAX_STATS_DAYS, request.intParam("days", 30)));
+        ApplicationStats.Report report;
+        try (Connection conn = pool.getConnection()) {
+            report = applications.stats(conn, employer.userId, days);
+        }
+        StringBuilder json = new StringBuilder("{\"jobs\":[");
+        for (int i = 0; i < report.jobs().size(); i++) {
+            ApplicationStats.JobRow job = report.jobs().get(i);
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(job.jobId())
+                    .append(",\"title\":").append(quote(job.title()));
+            appendByStatus(json, job.byStatus());
+            json.append(",\"total\":").append(job.total()).append('}');
+        }
+        json.append("],\"days\":[");
+        for (int i = 0; i < report.days().size(); i++) {
+            ApplicationStats.DayRow day = report.days().get(i);
+            json.append(i == 0 ? "" : ",").append("{\"date\":").append(quote(day.day().toString()));
+            appendByStatus(json, day.byStatus());
+            json.append('}');
+        }
+        json.append("],\"selectionTimes\":[");
+        for (int i = 0; i < report.selectionTimes().length; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"label\":").append(quote(ApplicationStats.SELECTION_LABELS[i]))
+                    .append(",\"count\":").append(report.selectionTimes()[i]).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    // "pending":n,"selected":n,...
+    private static void appendByStatus(StringBuilder json, int[] byStatus) {
+        for (int s = 0; s < byStatus.length; s++) {
+            json.append(",").append(quote(ApplicationService.STATUSES[s].toLowerCase(Locale.ROOT))).append(':')
+                    .append(byStatus[s]);
+        }
+    }
+
+    private void route(String path, String method, Handler handler) {
+        server.createContext(path, exchange -> {
+            try {
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    send(exchange, 404, error("Not found"));
+                    return;
+                }
+                if (!exchange.getRequestMethod().equals(method)) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    send(exchange, 405, error("Use " + method));
+                    return;
+                }
+                Request request = new Request(exchange, params(exchange));
+                String json = handler.handle(request);
+                send(exchange, request.status, json);
+            } catch (HttpError e) {
+                send(exchange, e.status, error(e.getMessage()));
+            } catch (LoginRateLimiter.TooManyAttemptsException e) {
+                exchange.getResponseHeaders().set("Retry-After", Long.toString((e.retryAfterMillis + 999) / 1000));
+                send(exchange, 429, error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+            } catch (SQLTimeoutException | RejectedExecutionException e) {
+                send(exchange, 503, error("Server busy, try again"));
+            } catch (Exception e) {
+                System.err.println("Request " + path + " failed: " + e);
+                send(exchange, 500, error(e.getMessage()));
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    // Query string plus, for form posts, the body
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        decode(exchange.getRequestURI().getRawQuery(), params);
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (type != null && type.startsWith("application/x-www-form-urlencoded")) {
+            decode(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static void decode(String encoded, Map<String, String> params) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(name, value);
+        }
+    }
+
+    // Copies the upload to a file with a fixed-size buffer, refusing anything over MAX_RESUME_BYTES
+    private static void receive(InputStream body, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[ResumeTransfer.BUFFER_SIZE];
+            long received = 0;
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                received += n;
+                if (received > MAX_RESUME_BYTES) {
+                    throw new HttpError(413, "Resume is larger than " + (MAX_RESUME_BYTES >> 20) + " MB");
+                }
+                out.write(buffer, 0, n);
+            }
+            if (received == 0) {
+                throw new HttpError(400, "Empty resume");
+            }
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message == null ? "Unknown error" : message) + "}";
+    }
+
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21: platform threads; the connection pool still bounds concurrent queries
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(REQUEST_THREADS, r -> {
+                Thread t = new Thread(r, "api-request-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // Usage: java -Dapi.port=8080 -Ddb.url=... ApiServer
+    public static void main(String[] args) throws Exception {
+        ConnectionPool pool = ConnectionPool.fromSystemProperties(Integer.getInteger("api.connections", 32));
+        try (Connection conn = pool.getConnection()) {
+            SchemaMigrations.migrate(conn);
+        }
+        DbExecutor db = new DbExecutor(pool, 1, 10); // background work such as loading the search index
+        ResumeStore resumeStore = new LocalResumeStore(LocalResumeStore.defaultDirectory());
+        ApplicationIngestQueue ingest = new ApplicationIngestQueue(ApplicationIngestQueue.defaultDirectory("api-queue"),
+                Integer.getInteger("api.queue", 100_000), pool, resumeStore);
+        PasswordHasher hasher = PasswordHasher.fromSystemProperties();
+        MatchingEngine matcher = MatchingEngine.fromSystemProperties();
+        ResumeIndex resumeIndex = ResumeIndex.fromSystemProperties(pool, resumeStore);
+        ApiServer api = new ApiServer(Integer.getInteger("api.port", 8080), pool, db,
+                new UserService(hasher, LoginRateLimiter.fromSystemProperties()),
+                new JobService(new JobSearchIndex(), JobCatalogCache.fromSystemProperties(), matcher),
+                new ApplicationService(resumeStore, ingest, matcher, resumeIndex));
+        ChangeFeed changes = ChangeFeed.fromSystemProperties(pool);
+        api.follow(changes);
+        // Moves old applications and inactive jobs to the archive tables; -Darchive.interval.minutes=0 leaves
+        // that to another instance
+        Archiver archiver = Archiver.fromSystemProperties(pool);
+        long archiveMinutes = Long.getLong("archive.interval.minutes", 60);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            archiver.close();
+            changes.close();
+            api.close();
+            ingest.close();
+            hasher.close();
+            matcher.close();
+            resumeIndex.close();
+            db.close();
+            pool.close();
+        }, "api-shutdown"));
+        api.start();
+        changes.start();
+        if (archiveMinutes > 0) {
+            archiver.start(TimeUnit.MINUTES.toMillis(archiveMinutes));
+        }
+        System.out.println("API listening on port " + api.port());
+    }
+}
@@ -0,0 +1,139 @@
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Bulk status changes and deletes for the employer's View Applications screen.
+// Each call is one transaction issuing WHERE id IN (...) statements of at most CHUNK ids, logging the rows
+// it touches to change_log and adjusting the analytics totals (ApplicationStats).
+// Only applications to the given employer's jobs are touched, whatever ids the caller passes.
+class ApplicationBatch {
+    private static final int CHUNK = 500;
+    private static final String OWNED = " AND jobId IN (SELECT id FROM jobs WHERE employerId = ?)";
+
+    private ApplicationBatch() {
+    }
+
+    // Returns the number of applications updated
+    public static int updateStatus(Connection conn, int employerId, int[] ids, String status) throws SQLException {
+        return inTransaction(conn, () -> {
+            int updated = 0;
+            ApplicationStats.Delta stats = new ApplicationStats.Delta();
+            long now = System.currentTimeMillis();
+            for (int start = 0; start < ids.length; start += CHUNK) {
+                int[] chunk = Arrays.copyOfRange(ids, start, Math.min(ids.length, start + CHUNK));
+                // The statuses being replaced, locked until commit so the totals move from the right one
+                String select = "SELECT jobId, status, appliedDate FROM applications WHERE id IN ("
+                        + placeholders(chunk.length) + ")" + OWNED + " FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(select)) {
+                    bindIds(pstmt, 1, chunk);
+                    pstmt.setInt(1 + chunk.length, employerId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            stats.statusChanged(rs.getInt(1), employerId, rs.getString(2), status, rs.getTimestamp(3), now);
+                        }
+                    }
+                }
+                String sql = "UPDATE applications SET status = ? WHERE id IN (" + placeholders(chunk.length) + ")" + OWNED;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setString(1, status);
+                    bindIds(pstmt, 2, chunk);
+                    pstmt.setInt(2 + chunk.length, employerId);
+                    updated += pstmt.executeUpdate();
+                }
+                logChanges(conn, ChangeLog.UPDATED, employerId, chunk);
+            }
+            stats.write(conn);
+            return updated;
+        });
+    }
+
+    // Deletes the applications and then releases their resumes in the store. Returns the number deleted.
+    public static int delete(Connection conn, int employerId, int[] ids, ResumeStore resumeStore)
+            throws SQLException, IOException {
+        List<String> hashes = new ArrayList<>();
+        int deleted = inTransaction(conn, () -> {
+            int count = 0;
+            ApplicationStats.Delta stats = new ApplicationStats.Delta();
+            for (int start = 0; start < ids.length; start += CHUNK) {
+                int[] chunk = Arrays.copyOfRange(ids, start, Math.min(ids.length, start + CHUNK));
+                String in = placeholders(chunk.length);
+                // Only rows holding a store hash need a release; legacy rows carry the file inline
+                String select = "SELECT CASE WHEN LENGTH(resumepath) = " + ResumeStore.HASH_LENGTH
+                        + " THEN resumepath END AS resumeHash, jobId, status, appliedDate FROM applications WHERE id IN (" + in + ")" + OWNED + " FOR UPDATE";
+                try (PreparedStatement pstmt = conn.prepareStatement(select)) {
+                    bindIds(pstmt, 1, chunk);
+                    pstmt.setInt(1 + chunk.length, employerId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            String hash = ResumeStore.hashIn(rs.getBytes(1));
+                            if (hash != null) {
+                                hashes.add(hash);
+                            }
+                            stats.removed(rs.getInt(2), employerId, rs.getString(3), rs.getTimestamp(4));
+                        }
+                    }
+                }
+                logChanges(conn, ChangeLog.DELETED, employerId, chunk);
+                try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM applications WHERE id IN (" + in + ")" + OWNED)) {
+                    bindIds(pstmt, 1, chunk);
+                    pstmt.setInt(1 + chunk.length, employerId);
+                    count += pstmt.executeUpdate();
+                }
+            }
+            stats.write(conn);
+            return count;
+        });
+        // After commit: a crash here only leaves an extra reference, never a missing resume
+        for (String hash : hashes) {
+            resumeStore.release(hash);
+        }
+        return deleted;
+    }
+
+    private static void logChanges(Connection conn, char op, int employerId, int[] ids) throws SQLException {
+        try (PreparedStatement pstmt = ChangeLog.prepareApplications(conn, op,
+                "a.id IN (" + placeholders(ids.length) + ") AND j.employerId = ?")) {
+            bindIds(pstmt, 1, ids);
+            pstmt.setInt(1 + ids.length, employerId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    interface Work {
+        int run() throws SQLException;
+    }
+
+    static int inTransaction(Connection conn, Work work) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            int result = work.run();
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 2);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+
+    static void bindIds(PreparedStatement pstmt, int firstIndex, int[] ids) throws SQLException {
+        for (int i = 0; i < ids.length; i++) {
+            pstmt.setInt(firstIndex + i, ids[i]);
+        }
+    }
+}
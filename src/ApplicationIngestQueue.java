@@ -0,0 +1,596 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLNonTransientException;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// Write-behind queue for new applications. A submission is appended to a local log and fsynced, then
+// acknowledged; a background committer inserts queued applications in batches, one transaction per batch.
+// Layout: <dir>/applications.log holds one line per submission, <dir>/applications.checkpoint the log offset
+// up to which everything is in the database. Unfinished work is replayed from the log on the next start.
+// Inserts skip a (jobId, jobSeekerId) pair that already exists, so replays and double clicks are harmless, and
+// an application to a job that no longer exists (archived or never posted), which would be an orphan row.
+// A skipped submission gives back its resume reference unless the row in its way is the submission itself,
+// saved by an earlier attempt whose outcome was lost (a crash or failure between commit and checkpoint).
+class ApplicationIngestQueue implements AutoCloseable {
+    private static final int BATCH_SIZE = 200;
+    private static final long LINGER_MILLIS = 10;          // wait this long for a batch to fill up
+    private static final long MAX_BACKOFF_MILLIS = 10_000;
+    private static final long COMPACT_AFTER_BYTES = 1 << 20;
+    private static final String INSERT_SQL =
+            "INSERT INTO applications (jobId, jobSeekerId, status, appliedDate, resumepath) " +
+            "SELECT ?, ?, 'Pending', ?, ? FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM applications WHERE jobId = ? AND jobSeekerId = ?) " +
+            "AND EXISTS (SELECT 1 FROM jobs WHERE id = ?)";
+
+    // What became of a submission in its transaction
+    private static final int SKIPPED = 0, INSERTED = 1, SAVED_BEFORE = 2;
+
+    // The application row already saved for a (jobId, jobSeekerId) pair
+    private record Saved(long appliedAt, byte[] resumeHash) {
+        // DATETIME columns may drop the milliseconds
+        boolean isFrom(Submission s) {
+            return Math.abs(appliedAt - s.submittedAt) < 1_000
+                    && Arrays.equals(resumeHash, s.resumeHash.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private static final class Submission {
+        final int jobId, seekerId;
+        final long submittedAt;
+        final String resumeHash;
+        final long end; // log offset just past this submission's line
+        final WritePosition writes; // of the submitting session; null after a replay
+
+        Submission(int jobId, int seekerId, long submittedAt, String resumeHash, long end, WritePosition writes) {
+            this.jobId = jobId;
+            this.seekerId = seekerId;
+            this.submittedAt = submittedAt;
+            this.resumeHash = resumeHash;
+            this.end = end;
+            this.writes = writes;
+        }
+
+        long key() {
+            return key(jobId, seekerId);
+        }
+
+        static long key(int jobId, int seekerId) {
+            return ((long) jobId << 32) | (seekerId & 0xffffffffL);
+        }
+    }
+
+    private final Path checkpoint;
+    private final Path checkpointTemp;
+    private final FileChannel log;
+    private final ConnectionPool pool;
+    private final ResumeStore resumeStore;
+    private final Semaphore capacity;
+    private final Thread committer;
+
+    // Guarded by this
+    private final Deque<Submission> pending = new ArrayDeque<>();
+    private final Set<Long> pendingKeys = new HashSet<>();
+    private long written;
+    private boolean closed;
+
+    // Guarded by syncLock, which is always taken before this
+    private final Object syncLock = new Object();
+    private long synced;
+
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ApplicationIngestQueue(Path dir, int maxPending, ConnectionPool pool, ResumeStore resumeStore)
+            throws IOException {
+        this.pool = pool;
+        this.resumeStore = resumeStore;
+        Files.createDirectories(dir);
+        checkpoint = dir.resolve("applications.checkpoint");
+        checkpointTemp = dir.resolve("applications.checkpoint.tmp");
+        log = FileChannel.open(dir.resolve("applications.log"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.tryLock() == null) {
+            log.close();
+            throw new IOException("Application queue " + dir + " is in use by another process");
+        }
+        replay(readCheckpoint());
+        capacity = new Semaphore(maxPending - pending.size()); // may start negative after a long outage
+        committer = new Thread(this::commitLoop, "application-ingest");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // -Dapplication.queue.dir, or ~/.job-recruitment/<name>. The queue is locked by one process, so the desktop app
+    // ("queue", as before) and the API server ("api-queue") default to different directories on a shared host.
+    static Path defaultDirectory(String name) {
+        String home = System.getProperty("user.home");
+        return Paths.get(System.getProperty("application.queue.dir",
+                Paths.get(home, ".job-recruitment", name).toString()));
+    }
+
+    // Durably queues an application and returns once it is on disk. Returns false if the same seeker's application
+    // to the same job is already queued. Waits up to timeoutMillis for room when the queue is full.
+    // `writes`, if given, is the session's position; it is moved past the application once it is saved.
+    public boolean submit(int jobId, int seekerId, String resumeHash, long timeoutMillis, WritePosition writes)
+            throws IOException, InterruptedException {
+        if (!capacity.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            rejected.incrementAndGet();
+            throw new RejectedExecutionException("Too many applications are waiting to be saved, please try again");
+        }
+        long end;
+        synchronized (this) {
+            if (closed) {
+                capacity.release();
+                throw new IllegalStateException("Application queue is closed");
+            }
+            if (!pendingKeys.add(Submission.key(jobId, seekerId))) {
+                capacity.release();
+                return false; // double submit
+            }
+            long submittedAt = System.currentTimeMillis();
+            byte[] line = encode(jobId, seekerId, submittedAt, resumeHash);
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    log.write(buffer, written + buffer.position());
+                }
+            } catch (IOException e) {
+                pendingKeys.remove(Submission.key(jobId, seekerId));
+                capacity.release();
+                throw e;
+            }
+            written += line.length;
+            end = written;
+            if (writes != null) {
+                writes.queued();
+            }
+            pending.addLast(new Submission(jobId, seekerId, submittedAt, resumeHash, end, writes));
+            notifyAll();
+        }
+        sync(end);
+        return true;
+    }
+
+    public synchronized int pending() {
+        return pending.size();
+    }
+
+    public long committed() {
+        return committed.get();
+    }
+
+    public long duplicates() {
+        return duplicates.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    // Stops the committer; anything not yet in the database stays in the log for the next start
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        // Not interrupted: an interrupt would close the log channel under a concurrent submit
+        try {
+            committer.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            System.err.println("Closing the application log failed: " + e.getMessage());
+        }
+    }
+
+    // Group fsync: whoever gets the lock forces everything written so far, covering the submissions behind it
+    private void sync(long end) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= end) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                target = written;
+            }
+            log.force(false);
+            synced = target;
+        }
+    }
+
+    private void commitLoop() {
+        long backoff = 100;
+        while (true) {
+            List<Submission> batch;
+            try {
+                batch = nextBatch();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (batch == null) {
+                return;
+            }
+            try {
+                commit(batch);
+                backoff = 100;
+            } catch (SQLException | RuntimeException e) {
+                if (isClosed()) {
+                    return;
+                }
+                System.err.println("Saving " + batch.size() + " queued applications failed, retrying in "
+                        + backoff + " ms: " + e.getMessage());
+                try {
+                    synchronized (this) {
+                        if (!closed) {
+                            wait(backoff); // close() wakes us
+                        }
+                    }
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = Math.min(MAX_BACKOFF_MILLIS, backoff * 2);
+                continue;
+            }
+            done(batch);
+        }
+    }
+
+    // The oldest queued submissions, left in place until they are committed; null once closed
+    private synchronized List<Submission> nextBatch() throws InterruptedException {
+        while (pending.isEmpty() && !closed) {
+            wait();
+        }
+        if (closed) {
+            return null;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MILLIS);
+        while (pending.size() < BATCH_SIZE && !closed) {
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, left);
+        }
+        if (closed) {
+            return null;
+        }
+        List<Submission> batch = new ArrayList<>(Math.min(BATCH_SIZE, pending.size()));
+        for (Submission s : pending) {
+            if (batch.size() == BATCH_SIZE) {
+                break;
+            }
+            batch.add(s);
+        }
+        return batch;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void commit(List<Submission> batch) throws SQLException {
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int[] outcomes = insert(conn, batch);
+                long version = savedVersion(conn, batch); // before the commit, so nothing after it can fail
+                conn.commit();
+                settle(batch, outcomes, version);
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!isBadData(e)) {
+                    throw e;
+                }
+                commitOneByOne(conn, batch); // a bad row must not hold up the rest
+            } catch (RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void commitOneByOne(Connection conn, List<Submission> batch) throws SQLException {
+        for (Submission s : batch) {
+            try {
+                int[] outcomes = insert(conn, List.of(s));
+                long version = savedVersion(conn, List.of(s));
+                conn.commit();
+                settle(List.of(s), outcomes, version);
+            } catch (SQLException e) {
+                conn.rollback();
+                if (!isBadData(e)) {
+                    throw e;
+                }
+                System.err.println("Dropping application of user " + s.seekerId + " to job " + s.jobId + ": "
+                        + e.getMessage());
+                releaseResume(s);
+                if (s.writes != null) {
+                    s.writes.dropped();
+                }
+            }
+        }
+    }
+
+    // Errors that retrying cannot fix, e.g. a constraint violation; batch drivers wrap them
+    private static boolean isBadData(SQLException e) {
+        Throwable cause = e instanceof BatchUpdateException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof SQLNonTransientException && !(cause instanceof SQLNonTransientConnectionException);
+    }
+
+    // Inserts the batch and returns the outcome of each submission, logging and counting the rows inserted.
+    // The outcome comes from the rows before and after the insert, not from the update counts: a driver may
+    // answer Statement.SUCCESS_NO_INFO for every row of a batch (MySQL with rewriteBatchedStatements).
+    private static int[] insert(Connection conn, List<Submission> batch) throws SQLException {
+        Map<Long, Saved> before = savedRows(conn, batch);
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+            for (Submission s : batch) {
+                pstmt.setInt(1, s.jobId);
+                pstmt.setInt(2, s.seekerId);
+                pstmt.setTimestamp(3, new Timestamp(s.submittedAt));
+                pstmt.setBytes(4, s.resumeHash.getBytes(StandardCharsets.US_ASCII));
+                pstmt.setInt(5, s.jobId);
+                pstmt.setInt(6, s.seekerId);
+                pstmt.setInt(7, s.jobId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            Map<Long, Saved> after = savedRows(conn, batch);
+            int[] outcomes = new int[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                Submission s = batch.get(i);
+                Saved old = before.get(s.key()), now = after.get(s.key());
+                outcomes[i] = old != null ? (old.isFrom(s) ? SAVED_BEFORE : SKIPPED)
+                        : now != null && now.isFrom(s) ? INSERTED : SKIPPED;
+            }
+            logInserts(conn, batch, outcomes);
+            countInserts(conn, batch, outcomes);
+            return outcomes;
+        }
+    }
+
+    // The rows in applications for the batch's (jobId, jobSeekerId) pairs, by Submission.key
+    private static Map<Long, Saved> savedRows(Connection conn, List<Submission> batch) throws SQLException {
+        int[] seekerIds = batch.stream().mapToInt(s -> s.seekerId).distinct().toArray();
+        int[] jobIds = batch.stream().mapToInt(s -> s.jobId).distinct().toArray();
+        Map<Long, Saved> rows = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT jobId, jobSeekerId, appliedDate, resumepath " +
+                "FROM applications WHERE jobSeekerId IN (" + ApplicationBatch.placeholders(seekerIds.length) +
+                ") AND jobId IN (" + ApplicationBatch.placeholders(jobIds.length) + ")")) {
+            ApplicationBatch.bindIds(pstmt, 1, seekerIds);
+            ApplicationBatch.bindIds(pstmt, 1 + seekerIds.length, jobIds);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp appliedDate = rs.getTimestamp(3);
+                    rows.put(Submission.key(rs.getInt(1), rs.getInt(2)), new Saved(
+                            appliedDate == null ? 0 : appliedDate.getTime(), rs.getBytes(4)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Adds the inserted applications to the analytics totals, in the same transaction
+    private static void countInserts(Connection conn, List<Submission> batch, int[] outcomes) throws SQLException {
+        Set<Integer> jobIds = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (outcomes[i] == INSERTED) {
+                jobIds.add(batch.get(i).jobId);
+            }
+        }
+        Map<Integer, Integer> employers = ApplicationStats.employersOf(conn, jobIds);
+        ApplicationStats.Delta stats = new ApplicationStats.Delta();
+        for (int i = 0; i < batch.size(); i++) {
+            Submission s = batch.get(i);
+            if (outcomes[i] == INSERTED) {
+                stats.added(s.jobId, employers.getOrDefault(s.jobId, 0), "Pending", new Timestamp(s.submittedAt));
+            }
+        }
+        stats.write(conn);
+    }
+
+    // In the same transaction as the inserts; only rows inserted by it are logged
+    private static void logInserts(Connection conn, List<Submission> batch, int[] outcomes) throws SQLException {
+        try (PreparedStatement pstmt = ChangeLog.prepareApplications(conn, ChangeLog.INSERTED,
+                "a.jobId = ? AND a.jobSeekerId = ?")) {
+            boolean any = false;
+            for (int i = 0; i < batch.size(); i++) {
+                if (outcomes[i] == INSERTED) {
+                    pstmt.setInt(1, batch.get(i).jobId);
+                    pstmt.setInt(2, batch.get(i).seekerId);
+                    pstmt.addBatch();
+                    any = true;
+                }
+            }
+            if (any) {
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    // The change_log version the batch's sessions have to wait for, read only if one of them is waiting
+    private static long savedVersion(Connection conn, List<Submission> batch) throws SQLException {
+        for (Submission s : batch) {
+            if (s.writes != null) {
+                return ChangeLog.latestVersion(conn);
+            }
+        }
+        return 0;
+    }
+
+    // Counts the outcome of committed rows; a skipped row (duplicate or job gone) gives back its resume reference,
+    // one saved before keeps it for the row
+    private void settle(List<Submission> batch, int[] outcomes, long version) {
+        for (int i = 0; i < batch.size(); i++) {
+            Submission s = batch.get(i);
+            if (outcomes[i] == SKIPPED) {
+                duplicates.incrementAndGet();
+                releaseResume(s);
+            } else {
+                committed.incrementAndGet();
+            }
+            if (s.writes != null) {
+                s.writes.saved(version);
+            }
+        }
+        ApplicationReviewQuery.invalidateCounts();
+    }
+
+    private void releaseResume(Submission s) {
+        try {
+            resumeStore.release(s.resumeHash);
+        } catch (IOException e) {
+            System.err.println("Releasing resume " + s.resumeHash + " failed: " + e.getMessage());
+        }
+    }
+
+    // Drops the committed submissions from memory and moves the checkpoint past them
+    private void done(List<Submission> batch) {
+        long end = batch.get(batch.size() - 1).end;
+        synchronized (syncLock) {
+            synchronized (this) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pendingKeys.remove(pending.removeFirst().key());
+                }
+                try {
+                    if (pending.isEmpty() && written >= COMPACT_AFTER_BYTES) {
+                        // Nothing left to replay: start the log over. The checkpoint goes first; if it cannot be
+                        // written the log is left as it is, since an old offset would skip new submissions
+                        // appended from 0. A log not truncated after it is only replayed as already saved.
+                        writeCheckpoint(0);
+                        log.truncate(0);
+                        log.force(false);
+                        written = 0;
+                        synced = 0;
+                    } else {
+                        writeCheckpoint(end);
+                    }
+                } catch (IOException e) {
+                    // The checkpoint only limits replay; committed rows are recognized as saved if replayed
+                    System.err.println("Writing the application checkpoint failed: " + e.getMessage());
+                }
+            }
+        }
+        capacity.release(batch.size());
+    }
+
+    private long readCheckpoint() throws IOException {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(checkpoint), StandardCharsets.US_ASCII).trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (NumberFormatException e) {
+            return 0; // replay everything; already-saved applications are skipped
+        }
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Files.write(checkpointTemp, Long.toString(offset).getBytes(StandardCharsets.US_ASCII));
+        Files.move(checkpointTemp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Reloads submissions after the checkpoint; a torn last line from a crash is cut off
+    private void replay(long from) throws IOException {
+        long size = log.size();
+        long position = Math.min(from, size);
+        byte[] data = new byte[(int) (size - position)];
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        int start = 0;
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != '\n') {
+                continue;
+            }
+            Submission s = decode(new String(data, start, i - start, StandardCharsets.US_ASCII), position + i + 1);
+            if (s == null) {
+                break;
+            }
+            if (pendingKeys.add(s.key())) {
+                pending.addLast(s);
+            } else {
+                releaseResume(s); // logged twice; the first one wins
+            }
+            start = i + 1;
+        }
+        written = position + start;
+        if (written < size) {
+            System.err.println("Discarding " + (size - written) + " bytes of incomplete application log");
+            log.truncate(written);
+        }
+        synced = written;
+        if (!pending.isEmpty()) {
+            System.err.println("Replaying " + pending.size() + " queued applications");
+        }
+    }
+
+    // Line format: jobId seekerId submittedAtMillis resumeHash crc32
+    private static byte[] encode(int jobId, int seekerId, long submittedAt, String resumeHash) {
+        String body = jobId + " " + seekerId + " " + submittedAt + " " + resumeHash;
+        return (body + " " + Long.toHexString(crc(body)) + "\n").getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static Submission decode(String line, long end) {
+        int lastSpace = line.lastIndexOf(' ');
+        if (lastSpace < 0) {
+            return null;
+        }
+        String body = line.substring(0, lastSpace);
+        try {
+            if (Long.parseLong(line.substring(lastSpace + 1), 16) != crc(body)) {
+                return null;
+            }
+            String[] fields = body.split(" ");
+            if (fields.length != 4 || ResumeStore.hashIn(fields[3].getBytes(StandardCharsets.US_ASCII)) == null) {
+                return null;
+            }
+            return new Submission(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                    fields[3], end, null);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.US_ASCII));
+        return crc.getValue();
+    }
+}
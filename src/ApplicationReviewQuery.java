@@ -0,0 +1,202 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// SQL for the employer's View Applications screen. Scoping to the employer, status and date filters,
+// sorting and paging all happen in the database; total counts are cached per filter.
+class ApplicationReviewQuery {
+    static final String[] COLUMNS = {"AppID", "Job Title", "Applicant", "Status", "Date"};
+    // ORDER BY expression for each column; never built from user input
+    private static final String[] SORT_EXPRESSIONS = {"a.id", "j.title", "u.name", "a.status", "a.appliedDate"};
+    private static final long COUNT_TTL_MILLIS = 30_000;
+
+    // Immutable search criteria; null fields are not filtered on
+    static final class Filter {
+        final int employerId;
+        final String status;
+        final Date from, to; // inclusive
+        final int sortColumn;
+        final boolean ascending;
+
+        Filter(int employerId, String status, Date from, Date to, int sortColumn, boolean ascending) {
+            if (sortColumn < 0 || sortColumn >= SORT_EXPRESSIONS.length) {
+                throw new IllegalArgumentException("Unknown sort column: " + sortColumn);
+            }
+            this.employerId = employerId;
+            this.status = status;
+            this.from = from;
+            this.to = to;
+            this.sortColumn = sortColumn;
+            this.ascending = ascending;
+        }
+
+        // The same test as the WHERE clause, for a row fetched on its own; appliedDate is "yyyy-mm-dd ..."
+        boolean matches(String rowStatus, String appliedDate) {
+            if (status != null && !status.equals(rowStatus)) {
+                return false;
+            }
+            String day = appliedDate == null ? "" : appliedDate.substring(0, Math.min(10, appliedDate.length()));
+            return (from == null || day.compareTo(from.toString()) >= 0)
+                    && (to == null || day.compareTo(to.toString()) <= 0);
+        }
+
+        // Newest first: rows added now belong at the top
+        boolean isNewestFirst() {
+            return !ascending && (sortColumn == 0 || sortColumn == 4);
+        }
+
+        Filter withSort(int column, boolean asc) {
+            return new Filter(employerId, status, from, to, column, asc);
+        }
+
+        // Sorting does not change the count, so it is not part of the key
+        String countKey() {
+            return employerId + "|" + status + "|" + from + "|" + to;
+        }
+    }
+
+    // One page of rows, stored column-wise
+    static final class Page {
+        final int[] ids;
+        final String[] titles, applicants, statuses, dates;
+        int size;
+
+        Page(int capacity) {
+            ids = new int[capacity];
+            titles = new String[capacity];
+            applicants = new String[capacity];
+            statuses = new String[capacity];
+            dates = new String[capacity];
+        }
+    }
+
+    private static final class CachedCount {
+        final int count;
+        final long at;
+
+        CachedCount(int count, long at) {
+            this.count = count;
+            this.at = at;
+        }
+    }
+
+    private static final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    private ApplicationReviewQuery() {
+    }
+
+    public static int count(Connection conn, Filter filter) throws SQLException {
+        CachedCount cached = counts.get(filter.countKey());
+        long now = System.currentTimeMillis();
+        if (cached != null && now - cached.at < COUNT_TTL_MILLIS) {
+            return cached.count;
+        }
+        List<Object> params = new ArrayList<>();
+        String sql = countSql(filter, params);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                int count = rs.getInt(1);
+                counts.put(filter.countKey(), new CachedCount(count, now));
+                return count;
+            }
+        }
+    }
+
+    public static Page page(Connection conn, QueryScope scope, Filter filter, int offset, int limit) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        String sql = pageSql(filter, offset, limit, params);
+        try (PreparedStatement pstmt = scope.track(conn.prepareStatement(sql))) {
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return read(rs, limit);
+            }
+        }
+    }
+
+    // The employer's applications among these ids as they are now, whatever the filter; for the change feed
+    public static Page rows(Connection conn, int employerId, int[] ids) throws SQLException {
+        String sql = "SELECT a.id, j.title, u.name AS applicant, a.status, a.appliedDate " +
+                "FROM applications a " +
+                "JOIN jobs j ON a.jobId = j.id " +
+                "JOIN users u ON a.jobSeekerId = u.id " +
+                "WHERE j.employerId = ? AND a.id IN (" + ApplicationBatch.placeholders(ids.length) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, employerId);
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 2, ids[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return read(rs, ids.length);
+            }
+        }
+    }
+
+    private static Page read(ResultSet rs, int capacity) throws SQLException {
+        Page page = new Page(capacity);
+        while (rs.next()) {
+            int n = page.size++;
+            page.ids[n] = rs.getInt("id");
+            page.titles[n] = rs.getString("title");
+            page.applicants[n] = rs.getString("applicant");
+            page.statuses[n] = rs.getString("status");
+            page.dates[n] = rs.getString("appliedDate");
+        }
+        return page;
+    }
+
+    // The statements with their parameters appended to params; also used by the query plan check
+    static String countSql(Filter filter, List<Object> params) {
+        return "SELECT COUNT(*) FROM applications a JOIN jobs j ON a.jobId = j.id" + where(filter, params);
+    }
+
+    static String pageSql(Filter filter, int offset, int limit, List<Object> params) {
+        String sql = "SELECT a.id, j.title, u.name AS applicant, a.status, a.appliedDate " +
+                "FROM applications a " +
+                "JOIN jobs j ON a.jobId = j.id " +
+                "JOIN users u ON a.jobSeekerId = u.id" +
+                where(filter, params) +
+                " ORDER BY " + SORT_EXPRESSIONS[filter.sortColumn] + (filter.ascending ? " ASC" : " DESC") +
+                (filter.sortColumn == 0 ? "" : ", a.id") + // stable order across pages
+                " LIMIT ? OFFSET ?";
+        params.add(limit);
+        params.add(offset);
+        return sql;
+    }
+
+    // Counts are stale after any insert, status change or delete
+    public static void invalidateCounts() {
+        counts.clear();
+    }
+
+    private static String where(Filter filter, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE j.employerId = ?");
+        params.add(filter.employerId);
+        if (filter.status != null) {
+            where.append(" AND a.status = ?");
+            params.add(filter.status);
+        }
+        if (filter.from != null) {
+            where.append(" AND a.appliedDate >= ?");
+            params.add(filter.from);
+        }
+        if (filter.to != null) {
+            where.append(" AND a.appliedDate < ?"); // exclusive next day keeps DATETIME values on 'to' included
+            params.add(Date.valueOf(filter.to.toLocalDate().plusDays(1)));
+        }
+        return where.toString();
+    }
+
+    static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+}
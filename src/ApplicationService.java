@@ -0,0 +1,333 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Applying, reviewing and managing applications, independent of any screen.
+// Callers pass a connection borrowed from the pool; employer actions are limited to the employer's own jobs.
+class ApplicationService {
+    static final String[] STATUSES = {"Pending", "Selected"};
+    static final String STATUS_SQL = "SELECT a.id, j.title, a.status, a.appliedDate, 'Current' AS stored " +
+            "FROM applications a " +
+            "JOIN jobs j ON a.jobId = j.id " +
+            "WHERE a.jobSeekerId = ?";
+    // Applications moved out by Archiver; the title was copied in, so there is no join
+    static final String ARCHIVED_STATUS_SQL = "SELECT id, title, status, appliedDate, 'Archive' AS stored " +
+            "FROM applications_archive WHERE jobSeekerId = ?";
+    // Both, current first; binds the seeker twice
+    static final String HISTORY_SQL = STATUS_SQL + " UNION ALL " + ARCHIVED_STATUS_SQL;
+
+    private static final long QUEUE_WAIT_MILLIS = 5_000;
+
+    // One applicant in a ranking by match with the job
+    static final class RankedApplicant {
+        final int applicationId;
+        final String applicant;
+        final String status;
+        final double score; // cosine similarity, 0..1
+
+        RankedApplicant(int applicationId, String applicant, String status, double score) {
+            this.applicationId = applicationId;
+            this.applicant = applicant;
+            this.status = status;
+            this.score = score;
+        }
+    }
+
+    private final ResumeStore resumeStore;
+    private final ApplicationIngestQueue ingest;
+    private final MatchingEngine matcher;
+    private final ResumeIndex resumes;
+
+    public ApplicationService(ResumeStore resumeStore, ApplicationIngestQueue ingest, MatchingEngine matcher,
+                              ResumeIndex resumes) {
+        this.resumeStore = resumeStore;
+        this.ingest = ingest;
+        this.matcher = matcher;
+        this.resumes = resumes;
+    }
+
+    // Stores the resume and queues the application; it reaches the database shortly after this returns.
+    // Returns false if the same application is already waiting to be saved. Needs no connection.
+    // `writes` is the applicant's session position, or null.
+    public boolean apply(int jobId, int seekerId, Path resume, ResumeTransfer transfer, WritePosition writes)
+            throws IOException, InterruptedException {
+        // Store the file once by content; the application row only keeps its hash
+        String hash = resumeStore.put(resume, transfer);
+        boolean queued = false;
+        try {
+            queued = ingest.submit(jobId, seekerId, hash, QUEUE_WAIT_MILLIS, writes);
+            return queued;
+        } finally {
+            if (!queued) {
+                resumeStore.release(hash);
+            }
+        }
+    }
+
+    public int count(Connection conn, ApplicationReviewQuery.Filter filter) throws SQLException {
+        return ApplicationReviewQuery.count(conn, filter);
+    }
+
+    public ApplicationReviewQuery.Page review(Connection conn, QueryScope scope, ApplicationReviewQuery.Filter filter,
+                                              int offset, int limit) throws SQLException {
+        return ApplicationReviewQuery.page(conn, scope, filter, offset, limit);
+    }
+
+    // Returns the number of applications changed
+    public int updateStatus(Connection conn, int employerId, int[] ids, String status) throws SQLException {
+        if (!isStatus(status)) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+        int updated = ApplicationBatch.updateStatus(conn, employerId, ids, status);
+        ApplicationReviewQuery.invalidateCounts();
+        return updated;
+    }
+
+    // Returns the number of applications deleted
+    public int delete(Connection conn, int employerId, int[] ids) throws SQLException, IOException {
+        int deleted = ApplicationBatch.delete(conn, employerId, ids, resumeStore);
+        ApplicationReviewQuery.invalidateCounts();
+        return deleted;
+    }
+
+    // Per-job, per-day and time-to-selection figures for the employer's jobs, read from running totals
+    public ApplicationStats.Report stats(Connection conn, int employerId, int days) throws SQLException {
+        return ApplicationStats.report(conn, employerId, days);
+    }
+
+    // Title, status, date and tier ("Current" or "Archive") of each of the seeker's applications; archived ones
+    // only if asked for
+    public List<String[]> statusFor(Connection conn, int seekerId, boolean withArchive) throws SQLException {
+        List<String[]> rows = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(withArchive ? HISTORY_SQL : STATUS_SQL)) {
+            pstmt.setInt(1, seekerId);
+            if (withArchive) {
+                pstmt.setInt(2, seekerId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new String[]{rs.getString("title"), rs.getString("status"), rs.getString("appliedDate"),
+                            rs.getString("stored")});
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Id, title, status, date and tier of the seeker's applications among these ids, from applications or
+    // the archive; for the change feed
+    public List<Object[]> statusRows(Connection conn, int seekerId, int[] ids, boolean archived) throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        String sql = (archived ? ARCHIVED_STATUS_SQL + " AND id" : STATUS_SQL + " AND a.id")
+                + " IN (" + ApplicationBatch.placeholders(ids.length) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, seekerId);
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 2, ids[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new Object[]{rs.getInt("id"), rs.getString("title"), rs.getString("status"),
+                            rs.getString("appliedDate"), rs.getString("stored")});
+                }
+            }
+        }
+        return rows;
+    }
+
+    // Review counts are cached; any change to applications, from any app or API server, makes them stale
+    public void follow(ChangeFeed feed, QueryScope scope) {
+        feed.subscribe(scope, (conn, changes) -> {
+            if (changes.stream().anyMatch(c -> c.table.equals(ChangeLog.APPLICATIONS))) {
+                ApplicationReviewQuery.invalidateCounts();
+            }
+        });
+        resumes.follow(feed, scope);
+    }
+
+    // Starts loading the resume search index in the background; completes with the number of resumes indexed
+    public CompletableFuture<Integer> ensureResumeIndexLoaded(DbExecutor db, QueryScope scope) {
+        return resumes.ensureLoaded(db, scope);
+    }
+
+    public boolean isResumeIndexReady() {
+        return resumes.isReady();
+    }
+
+    // The employer's applications whose resumes best match the query, best first; resumes of applications
+    // saved in the last few seconds may not be searchable yet
+    public ApplicationReviewQuery.Page searchResumes(Connection conn, int employerId, String query, int k)
+            throws SQLException {
+        List<InvertedIndex.Hit> hits = resumes.search(employerId, query, k);
+        if (hits.isEmpty()) {
+            return new ApplicationReviewQuery.Page(0);
+        }
+        int[] ids = new int[hits.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = hits.get(i).docId;
+        }
+        // Back in rank order; applications deleted since they were indexed are left out
+        ApplicationReviewQuery.Page found = ApplicationReviewQuery.rows(conn, employerId, ids);
+        Map<Integer, Integer> rowById = new HashMap<>();
+        for (int i = 0; i < found.size; i++) {
+            rowById.put(found.ids[i], i);
+        }
+        ApplicationReviewQuery.Page ranked = new ApplicationReviewQuery.Page(found.size);
+        for (int id : ids) {
+            Integer row = rowById.get(id);
+            if (row != null) {
+                int n = ranked.size++;
+                ranked.ids[n] = id;
+                ranked.titles[n] = found.titles[row];
+                ranked.applicants[n] = found.applicants[row];
+                ranked.statuses[n] = found.statuses[row];
+                ranked.dates[n] = found.dates[row];
+            }
+        }
+        return ranked;
+    }
+
+    // The k applicants to the employer's job whose resumes best match its description, best first
+    public List<RankedApplicant> rankApplicants(Connection conn, QueryScope scope, int employerId, int jobId, int k)
+            throws SQLException {
+        String sql = "SELECT a.id, u.name, a.status, " + RESUME_KEY_COLUMNS + ", j.title, j.description " +
+                "FROM applications a JOIN jobs j ON a.jobId = j.id JOIN users u ON a.jobSeekerId = u.id " +
+                "WHERE a.jobId = ? AND j.employerId = ?";
+        List<RankedApplicant> rows = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        String title = null, description = null;
+        try (PreparedStatement pstmt = scope.track(conn.prepareStatement(sql))) {
+            pstmt.setInt(1, jobId);
+            pstmt.setInt(2, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new RankedApplicant(rs.getInt(1), rs.getString(2), rs.getString(3), 0));
+                    keys.add(resumeKey(rs.getInt(1), rs.getBytes(4), rs.getBoolean(5)));
+                    title = rs.getString(6);
+                    description = rs.getString(7);
+                }
+            }
+        }
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        matcher.putJob(jobId, title, description); // no-op unless the engine has not loaded it yet
+        MatchingEngine.ResumeSource source = resumeSource(conn, keys);
+        List<RankedApplicant> ranked = new ArrayList<>();
+        for (InvertedIndex.Hit hit : matcher.rankResumes(jobId, keys.toArray(new String[0]), source, k)) {
+            RankedApplicant row = rows.get(hit.docId);
+            ranked.add(new RankedApplicant(row.applicationId, row.applicant, row.status, hit.score));
+        }
+        return ranked;
+    }
+
+    // Jobs best matching the seeker's most recent resume, best first, leaving out jobs they applied to.
+    // Needs the engine's job vectors (JobService.ensureMatcherLoaded).
+    public List<InvertedIndex.Hit> recommendJobs(Connection conn, int seekerId, int k) throws SQLException, IOException {
+        String sql = "SELECT a.jobId, a.id, " + RESUME_KEY_COLUMNS + " FROM applications a " +
+                "WHERE a.jobSeekerId = ? ORDER BY a.id DESC";
+        Set<Integer> applied = new HashSet<>();
+        String latest = null;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, seekerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    applied.add(rs.getInt(1));
+                    if (latest == null) {
+                        latest = resumeKey(rs.getInt(2), rs.getBytes(3), rs.getBoolean(4));
+                    }
+                }
+            }
+        }
+        if (latest == null) {
+            return List.of();
+        }
+        MatchingEngine.TermVector resume = matcher.resume(latest, resumeSource(conn, List.of(latest)));
+        return resume == null ? List.of() : matcher.rankJobs(resume, k, applied::contains);
+    }
+
+    // The stored hash, and a flag for rows that still hold the file itself, without reading such files
+    private static final String RESUME_KEY_COLUMNS =
+            "CASE WHEN LENGTH(a.resumepath) = " + ResumeStore.HASH_LENGTH + " THEN a.resumepath END AS resumeHash, " +
+            "CASE WHEN a.resumepath IS NOT NULL AND LENGTH(a.resumepath) <> " + ResumeStore.HASH_LENGTH +
+            " THEN 1 ELSE 0 END AS inlineResume";
+    private static final String INLINE_KEY = "application-";
+
+    // The matching engine's cache key for an application's resume, or null if it has none
+    private static String resumeKey(int appId, byte[] hash, boolean inline) {
+        String stored = ResumeStore.hashIn(hash);
+        return stored != null ? stored : inline ? INLINE_KEY + appId : null;
+    }
+
+    // Resumes by key: from the store, or for legacy rows from the application row, read here on the
+    // caller's connection because the engine reads in parallel
+    private MatchingEngine.ResumeSource resumeSource(Connection conn, List<String> keys) throws SQLException {
+        Map<String, byte[]> inline = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT resumepath FROM applications WHERE id = ?")) {
+            for (String key : keys) {
+                if (key != null && key.startsWith(INLINE_KEY) && !matcher.hasResume(key)) {
+                    pstmt.setInt(1, Integer.parseInt(key.substring(INLINE_KEY.length())));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next() && rs.getBytes(1) != null) {
+                            inline.put(key, rs.getBytes(1));
+                        }
+                    }
+                }
+            }
+        }
+        return key -> {
+            if (key.startsWith(INLINE_KEY)) {
+                byte[] data = inline.get(key);
+                return data == null ? null : new ByteArrayInputStream(data);
+            }
+            return resumeStore.open(key);
+        };
+    }
+
+    // Writes the application's resume to target; returns the bytes written, or -1 if there is none
+    public long downloadResume(Connection conn, QueryScope scope, int employerId, int appId, Path target,
+                               ResumeTransfer transfer) throws SQLException, IOException {
+        // Stream the BLOB straight to disk in fixed-size chunks
+        String sql = "SELECT a.resumepath FROM applications a JOIN jobs j ON a.jobId = j.id " +
+                "WHERE a.id = ? AND j.employerId = ?";
+        try (PreparedStatement pstmt = scope.track(ResumeTransfer.prepareStreaming(conn, sql))) {
+            pstmt.setInt(1, appId);
+            pstmt.setInt(2, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return -1L;
+                }
+                // New rows hold a store hash; older rows still hold the file itself
+                Blob resume = rs.getBlob("resumepath");
+                if (resume == null) {
+                    return -1L;
+                }
+                String hash = ResumeStore.hashIn(resume);
+                return hash != null
+                        ? resumeStore.copyTo(hash, target, transfer)
+                        : transfer.download(resume, target);
+            }
+        }
+    }
+
+    static boolean isStatus(String status) {
+        for (String s : STATUSES) {
+            if (s.equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Recruiting analytics kept as running totals next to the applications table, so a report reads a few rows
+// per job and per day instead of counting applications:
+//   stats_job_status      applications per job and status
+//   stats_daily           applications per employer, applied day and status
+//   stats_selection_time  selections per employer by days from applying to being selected
+// Every write to applications adds a Delta in the same transaction. The selection histogram counts the moment
+// of selection, so it keeps a selection after the application is deleted and has no history from before it
+// existed; rebuild() recomputes the other two from applications.
+final class ApplicationStats {
+    static final String SELECTED = "Selected";
+    // Upper bounds in days of each selection-time bucket; the last bucket has none
+    static final int[] SELECTION_DAYS = {1, 2, 3, 7, 14, 30, 60};
+    static final String[] SELECTION_LABELS = {"Same day", "1 day", "2 days", "3-6 days", "7-13 days",
+            "14-29 days", "30-59 days", "60+ days"};
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    static final String JOBS_SQL = "SELECT j.id, j.title, s.status, s.applications FROM jobs j " +
+            "LEFT JOIN stats_job_status s ON s.jobId = j.id WHERE j.employerId = ? ORDER BY j.id";
+    static final String DAYS_SQL = "SELECT appliedOn, status, applications FROM stats_daily " +
+            "WHERE employerId = ? AND appliedOn >= ? ORDER BY appliedOn";
+    static final String SELECTION_SQL = "SELECT bucket, selections FROM stats_selection_time WHERE employerId = ?";
+
+    private ApplicationStats() {
+    }
+
+    // Changes to the totals from one transaction. Rows are written in key order so concurrent transactions
+    // lock the shared counters in the same order.
+    static final class Delta {
+        private record JobStatus(int jobId, String status) {
+        }
+
+        private record Day(int employerId, LocalDate day, String status) {
+        }
+
+        private record Bucket(int employerId, int bucket) {
+        }
+
+        private final Map<JobStatus, Integer> jobs = new TreeMap<>(
+                Comparator.comparingInt(JobStatus::jobId).thenComparing(JobStatus::status));
+        private final Map<Day, Integer> days = new TreeMap<>(Comparator.comparingInt(Day::employerId)
+                .thenComparing(Day::day).thenComparing(Day::status));
+        private final Map<Bucket, Integer> selections = new TreeMap<>(
+                Comparator.comparingInt(Bucket::employerId).thenComparingInt(Bucket::bucket));
+
+        void added(int jobId, int employerId, String status, Timestamp appliedDate) {
+            count(jobId, employerId, status, appliedDate, 1);
+        }
+
+        void removed(int jobId, int employerId, String status, Timestamp appliedDate) {
+            count(jobId, employerId, status, appliedDate, -1);
+        }
+
+        void statusChanged(int jobId, int employerId, String from, String to, Timestamp appliedDate, long now) {
+            if (to.equals(from)) {
+                return;
+            }
+            count(jobId, employerId, from, appliedDate, -1);
+            count(jobId, employerId, to, appliedDate, 1);
+            if (SELECTED.equals(to) && appliedDate != null) {
+                selections.merge(new Bucket(employerId, bucket(now - appliedDate.getTime())), 1, Integer::sum);
+            }
+        }
+
+        boolean isEmpty() {
+            return jobs.isEmpty() && days.isEmpty() && selections.isEmpty();
+        }
+
+        private void count(int jobId, int employerId, String status, Timestamp appliedDate, int n) {
+            if (status == null) {
+                return;
+            }
+            jobs.merge(new JobStatus(jobId, status), n, Integer::sum);
+            if (appliedDate != null) {
+                days.merge(new Day(employerId, appliedDate.toLocalDateTime().toLocalDate(), status), n, Integer::sum);
+            }
+        }
+
+        // Adds the changes to the stored totals; call inside the transaction that made them
+        void write(Connection conn) throws SQLException {
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO stats_job_status (jobId, status, applications) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE applications = applications + ?")) {
+                for (Map.Entry<JobStatus, Integer> e : jobs.entrySet()) {
+                    if (e.getValue() != 0) {
+                        pstmt.setInt(1, e.getKey().jobId());
+                        pstmt.setString(2, e.getKey().status());
+                        pstmt.setInt(3, e.getValue());
+                        pstmt.setInt(4, e.getValue());
+                        pstmt.addBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO stats_daily (employerId, appliedOn, status, applications) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE applications = applications + ?")) {
+                for (Map.Entry<Day, Integer> e : days.entrySet()) {
+                    if (e.getValue() != 0) {
+                        pstmt.setInt(1, e.getKey().employerId());
+                        pstmt.setDate(2, Date.valueOf(e.getKey().day()));
+                        pstmt.setString(3, e.getKey().status());
+                        pstmt.setInt(4, e.getValue());
+                        pstmt.setInt(5, e.getValue());
+                        pstmt.addBatch();
+                    }
+                }
+                pstmt.executeBatch();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO stats_selection_time (employerId, bucket, selections) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE selections = selections + ?")) {
+                for (Map.Entry<Bucket, Integer> e : selections.entrySet()) {
+                    pstmt.setInt(1, e.getKey().employerId());
+                    pstmt.setInt(2, e.getKey().bucket());
+                    pstmt.setInt(3, e.getValue());
+                    pstmt.setInt(4, e.getValue());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+            }
+        }
+    }
+
+    // Index into SELECTION_DAYS / SELECTION_LABELS for a time from applying to selection
+    static int bucket(long millis) {
+        long days = Math.max(0, millis / DAY_MILLIS);
+        for (int i = 0; i < SELECTION_DAYS.length; i++) {
+            if (days < SELECTION_DAYS[i]) {
+                return i;
+            }
+        }
+        return SELECTION_DAYS.length;
+    }
+
+    // The employer of each job; jobs without one count as employer 0
+    static Map<Integer, Integer> employersOf(Connection conn, Set<Integer> jobIds) throws SQLException {
+        Map<Integer, Integer> employers = new HashMap<>();
+        if (jobIds.isEmpty()) {
+            return employers;
+        }
+        String sql = "SELECT id, employerId FROM jobs WHERE id IN (" + ApplicationBatch.placeholders(jobIds.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (int jobId : jobIds) {
+                pstmt.setInt(i++, jobId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    employers.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return employers;
+    }
+
+    // Recomputes the per-job and per-day totals from applications; a migration step, and a repair if the
+    // totals were ever changed by hand
+    static void rebuild(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM stats_job_status");
+            stmt.executeUpdate("INSERT INTO stats_job_status (jobId, status, applications) " +
+                    "SELECT jobId, status, COUNT(*) FROM applications " +
+                    "WHERE jobId IS NOT NULL AND status IS NOT NULL GROUP BY jobId, status");
+            stmt.executeUpdate("DELETE FROM stats_daily");
+            stmt.executeUpdate("INSERT INTO stats_daily (employerId, appliedOn, status, applications) " +
+                    "SELECT COALESCE(j.employerId, 0), CAST(a.appliedDate AS DATE), a.status, COUNT(*) " +
+                    "FROM applications a LEFT JOIN jobs j ON a.jobId = j.id " +
+                    "WHERE a.jobId IS NOT NULL AND a.status IS NOT NULL AND a.appliedDate IS NOT NULL " +
+                    "GROUP BY COALESCE(j.employerId, 0), CAST(a.appliedDate AS DATE), a.status");
+        }
+    }
+
+    record JobRow(int jobId, String title, int[] byStatus, int total) {
+    }
+
+    record DayRow(LocalDate day, int[] byStatus) {
+    }
+
+    // One employer's analytics; byStatus arrays follow ApplicationService.STATUSES
+    record Report(List<JobRow> jobs, List<DayRow> days, int[] selectionTimes) {
+    }
+
+    // Reads the employer's totals: one row per job, per day of the last `days` days and per histogram bucket
+    public static Report report(Connection conn, int employerId, int days) throws SQLException {
+        List<JobRow> jobs = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(JOBS_SQL)) {
+            pstmt.setInt(1, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int jobId = 0, total = 0;
+                String title = null;
+                int[] counts = null;
+                while (rs.next()) {
+                    if (counts == null || rs.getInt(1) != jobId) {
+                        if (counts != null) {
+                            jobs.add(new JobRow(jobId, title, counts, total));
+                        }
+                        jobId = rs.getInt(1);
+                        title = rs.getString(2);
+                        counts = new int[ApplicationService.STATUSES.length];
+                        total = 0;
+                    }
+                    addTo(counts, rs.getString(3), rs.getInt(4)); // no stats row: null status, 0
+                    total += rs.getInt(4);
+                }
+                if (counts != null) {
+                    jobs.add(new JobRow(jobId, title, counts, total));
+                }
+            }
+        }
+
+        Map<LocalDate, int[]> byDay = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(DAYS_SQL)) {
+            pstmt.setInt(1, employerId);
+            pstmt.setDate(2, Date.valueOf(LocalDate.now().minusDays(days - 1)));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int[] counts = byDay.computeIfAbsent(rs.getDate(1).toLocalDate(),
+                            d -> new int[ApplicationService.STATUSES.length]);
+                    addTo(counts, rs.getString(2), rs.getInt(3));
+                }
+            }
+        }
+        List<DayRow> dayRows = new ArrayList<>();
+        byDay.forEach((day, counts) -> dayRows.add(new DayRow(day, counts)));
+
+        int[] selectionTimes = new int[SELECTION_LABELS.length];
+        try (PreparedStatement pstmt = conn.prepareStatement(SELECTION_SQL)) {
+            pstmt.setInt(1, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int bucket = rs.getInt(1);
+                    if (bucket >= 0 && bucket < selectionTimes.length) {
+                        selectionTimes[bucket] = rs.getInt(2);
+                    }
+                }
+            }
+        }
+        return new Report(jobs, dayRows, selectionTimes);
+    }
+
+    // Statuses outside ApplicationService.STATUSES only count towards the job's total
+    private static void addTo(int[] counts, String status, int n) {
+        for (int i = 0; i < ApplicationService.STATUSES.length; i++) {
+            if (ApplicationService.STATUSES[i].equals(status)) {
+                counts[i] += n;
+                return;
+            }
+        }
+    }
+}
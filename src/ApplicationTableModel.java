@@ -0,0 +1,443 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+// Paged table model for the employer's View Applications screen.
+// The row count comes from a (cached) COUNT query; pages are fetched on demand as rows become visible,
+// and only a bounded window of pages is kept. Changing the filter or sort starts over.
+class ApplicationTableModel extends AbstractTableModel implements ColumnarModel {
+    private static final long serialVersionUID = 1L;
+    static final int PAGE_SIZE = 100;
+    static final int MAX_CACHED_PAGES = 20;
+
+    private final DbExecutor db;
+    private final QueryScope scope;
+    private final Consumer<Throwable> onError;
+
+    // All state below is only touched on the EDT
+    private final Map<Integer, ApplicationReviewQuery.Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, ApplicationReviewQuery.Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+
+        @Override
+        public ApplicationReviewQuery.Page put(Integer key, ApplicationReviewQuery.Page value) {
+            lastPageIndex = -1;
+            return super.put(key, value);
+        }
+
+        @Override
+        public void clear() {
+            lastPageIndex = -1;
+            super.clear();
+        }
+    };
+    // The page of the last cell read: painting reads a row's cells in turn without a map lookup (and boxing)
+    private int lastPageIndex = -1;
+    private ApplicationReviewQuery.Page lastPage;
+    private final Set<Integer> loading = new HashSet<>();
+    private final Set<Integer> removedHere = new HashSet<>(); // deletes already applied, reported again by the feed
+    private ApplicationReviewQuery.Filter filter;
+    private int rowCount;
+    private int generation;
+
+    public ApplicationTableModel(DbExecutor db, QueryScope scope, Consumer<Throwable> onError) {
+        this.db = db;
+        this.scope = scope;
+        this.onError = onError;
+    }
+
+    public ApplicationReviewQuery.Filter getFilter() {
+        return filter;
+    }
+
+    public void setFilter(ApplicationReviewQuery.Filter filter) {
+        this.filter = filter;
+        reload();
+    }
+
+    // Clicking the same column again flips the direction
+    public void sortBy(int column) {
+        if (filter == null) {
+            return;
+        }
+        boolean ascending = filter.sortColumn != column || !filter.ascending;
+        setFilter(filter.withSort(column, ascending));
+    }
+
+    public void reload() {
+        generation++;
+        pages.clear();
+        loading.clear();
+        removedHere.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+        if (filter == null) {
+            return;
+        }
+        ApplicationReviewQuery.Filter current = filter;
+        int requestGeneration = generation;
+        DbExecutor.onEdt(db.submitLatest(scope, "review.count",
+                conn -> ApplicationReviewQuery.count(conn, current)), count -> {
+            if (requestGeneration == generation) {
+                rowCount = count;
+                fireTableDataChanged();
+            }
+        }, onError);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return ApplicationReviewQuery.COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return ApplicationReviewQuery.COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        ApplicationReviewQuery.Page page = pageFor(row);
+        int offset = row % PAGE_SIZE;
+        if (page == null || offset >= page.size) {
+            return null;
+        }
+        switch (column) {
+            case 0:
+                return page.ids[offset];
+            case 1:
+                return page.titles[offset];
+            case 2:
+                return page.applicants[offset];
+            case 3:
+                return page.statuses[offset];
+            default:
+                return page.dates[offset];
+        }
+    }
+
+    @Override
+    public boolean isRowLoaded(int row) {
+        ApplicationReviewQuery.Page page = pageFor(row);
+        return page != null && row % PAGE_SIZE < page.size;
+    }
+
+    @Override
+    public int intAt(int row, int column) {
+        return pageFor(row).ids[row % PAGE_SIZE];
+    }
+
+    @Override
+    public double doubleAt(int row, int column) {
+        throw new IllegalArgumentException("No decimal columns");
+    }
+
+    @Override
+    public String stringAt(int row, int column) {
+        ApplicationReviewQuery.Page page = pageFor(row);
+        int offset = row % PAGE_SIZE;
+        switch (column) {
+            case 1:
+                return page.titles[offset];
+            case 2:
+                return page.applicants[offset];
+            case 3:
+                return page.statuses[offset];
+            default:
+                return page.dates[offset];
+        }
+    }
+
+    // Application id for a view row, or -1 if that page is not loaded yet
+    public int getApplicationId(int row) {
+        ApplicationReviewQuery.Page page = pages.get(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        return page == null || offset >= page.size ? -1 : page.ids[offset];
+    }
+
+    // Application ids of the given view rows that are loaded
+    public int[] getApplicationIds(int[] rows) {
+        int[] ids = new int[rows.length];
+        int n = 0;
+        for (int row : rows) {
+            int id = getApplicationId(row);
+            if (id != -1) {
+                ids[n++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+
+    // Applies a committed status change to the loaded rows instead of reloading
+    public void patchStatus(int[] ids, String status) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.status != null && !filter.status.equals(status)) {
+            removeRows(ids); // no longer matches the status filter
+            return;
+        }
+        if (filter.sortColumn == 3) {
+            reload(); // the rows move within the sort order
+            return;
+        }
+        Set<Integer> changed = idSet(ids);
+        for (Map.Entry<Integer, ApplicationReviewQuery.Page> entry : pages.entrySet()) {
+            ApplicationReviewQuery.Page page = entry.getValue();
+            for (int i = 0; i < page.size; i++) {
+                if (changed.contains(page.ids[i])) {
+                    page.statuses[i] = status;
+                    int row = entry.getKey() * PAGE_SIZE + i;
+                    fireTableRowsUpdated(row, row);
+                }
+            }
+        }
+    }
+
+    // Removes committed deletes from the loaded rows
+    public void removeRows(int[] ids) {
+        Set<Integer> removed = idSet(ids);
+        removedHere.addAll(removed);
+        List<Integer> removedOffsets = new ArrayList<>();
+        for (Map.Entry<Integer, ApplicationReviewQuery.Page> entry : pages.entrySet()) {
+            ApplicationReviewQuery.Page page = entry.getValue();
+            for (int i = 0; i < page.size; i++) {
+                if (removed.contains(page.ids[i])) {
+                    removedOffsets.add(entry.getKey() * PAGE_SIZE + i);
+                }
+            }
+        }
+        if (removedOffsets.isEmpty()) {
+            return;
+        }
+        Collections.sort(removedOffsets);
+        int oldRowCount = rowCount;
+        rebucket(Math.max(0, rowCount - removedOffsets.size()), null, oldOffset -> {
+            int shift = Collections.binarySearch(removedOffsets, oldOffset);
+            return shift >= 0 ? -1 : oldOffset - (-shift - 1);
+        });
+        for (int i = removedOffsets.size() - 1; i >= 0; i--) {
+            int row = removedOffsets.get(i);
+            if (row < oldRowCount) {
+                fireTableRowsDeleted(row, row);
+            }
+        }
+    }
+
+    // Applies changes made elsewhere, reported by the change feed. current holds the changed rows as they are
+    // now (ApplicationReviewQuery.rows) and inserted says which of them are new. Loaded rows are patched in
+    // place and new rows are put on top of a newest-first list; a change whose effect on the row positions
+    // cannot be worked out from the loaded pages reloads instead.
+    public void applyChanges(int[] inserted, int[] deleted, ApplicationReviewQuery.Page current) {
+        if (filter == null) {
+            return;
+        }
+        Set<Integer> isNew = idSet(inserted);
+        Map<Integer, Integer> loaded = new HashMap<>(); // id -> view row
+        for (Map.Entry<Integer, ApplicationReviewQuery.Page> entry : pages.entrySet()) {
+            ApplicationReviewQuery.Page page = entry.getValue();
+            for (int i = 0; i < page.size; i++) {
+                loaded.put(page.ids[i], entry.getKey() * PAGE_SIZE + i);
+            }
+        }
+
+        List<Integer> gone = new ArrayList<>();
+        boolean reload = false;
+        for (int id : deleted) {
+            if (loaded.containsKey(id)) {
+                gone.add(id);
+            } else if (!removedHere.contains(id) && !isNew.contains(id)) {
+                reload = true; // it may or may not have been counted in this view
+            }
+        }
+        Map<Integer, Integer> patched = new HashMap<>(); // view row -> index in current
+        List<Integer> added = new ArrayList<>();          // indexes in current
+        for (int i = 0; i < current.size; i++) {
+            int id = current.ids[i];
+            boolean matches = filter.matches(current.statuses[i], current.dates[i]);
+            Integer row = loaded.get(id);
+            if (row != null) {
+                if (!matches) {
+                    gone.add(id);
+                } else if (filter.sortColumn == 3 && !current.statuses[i].equals(statusAt(row))) {
+                    reload = true; // the row moves within the sort order
+                } else {
+                    patched.put(row, i);
+                }
+            } else if (isNew.contains(id)) {
+                if (matches) {
+                    added.add(i);
+                }
+            } else if (filter.status != null) {
+                reload = true; // a status change may have moved it into or out of this view
+            }
+        }
+        if (!added.isEmpty() && !filter.isNewestFirst()) {
+            reload = true;
+        }
+        if (reload) {
+            ApplicationReviewQuery.invalidateCounts();
+            reload();
+            return;
+        }
+
+        for (Map.Entry<Integer, Integer> patch : patched.entrySet()) {
+            int row = patch.getKey();
+            ApplicationReviewQuery.Page page = pages.get(row / PAGE_SIZE);
+            page.statuses[row % PAGE_SIZE] = current.statuses[patch.getValue()];
+            fireTableRowsUpdated(row, row);
+        }
+        if (!gone.isEmpty()) {
+            removeRows(gone.stream().mapToInt(Integer::intValue).toArray());
+        }
+        if (!added.isEmpty()) {
+            insertAtTop(current, added);
+        }
+    }
+
+    // New rows of a newest-first list: everything loaded moves down by their number
+    private void insertAtTop(ApplicationReviewQuery.Page current, List<Integer> added) {
+        // Same order as the query: newest first, ties by id
+        added.sort((a, b) -> {
+            int byKey = filter.sortColumn == 4 ? current.dates[b].compareTo(current.dates[a])
+                    : Integer.compare(current.ids[b], current.ids[a]);
+            return byKey != 0 ? byKey : Integer.compare(current.ids[a], current.ids[b]);
+        });
+        ApplicationReviewQuery.Page top = new ApplicationReviewQuery.Page(added.size());
+        for (int i : added) {
+            int n = top.size++;
+            top.ids[n] = current.ids[i];
+            top.titles[n] = current.titles[i];
+            top.applicants[n] = current.applicants[i];
+            top.statuses[n] = current.statuses[i];
+            top.dates[n] = current.dates[i];
+        }
+        int k = top.size;
+        rebucket(rowCount + k, top, oldOffset -> oldOffset + k);
+        fireTableRowsInserted(0, k - 1);
+    }
+
+    // Moves the loaded rows to new offsets after rows were removed or inserted before them. newOffset maps an
+    // old offset to its new one, or -1 for a removed row; extra rows go first. Pages left incomplete are
+    // dropped and fetched again on demand.
+    private void rebucket(int newRowCount, ApplicationReviewQuery.Page extra, IntUnaryOperator newOffset) {
+        Map<Integer, ApplicationReviewQuery.Page> rebuilt = new HashMap<>();
+        if (extra != null) {
+            for (int i = 0; i < extra.size; i++) {
+                copyRow(extra, i, rebuilt, i);
+            }
+        }
+        for (Map.Entry<Integer, ApplicationReviewQuery.Page> entry : pages.entrySet()) {
+            ApplicationReviewQuery.Page page = entry.getValue();
+            for (int i = 0; i < page.size; i++) {
+                int offset = newOffset.applyAsInt(entry.getKey() * PAGE_SIZE + i);
+                if (offset >= 0) {
+                    copyRow(page, i, rebuilt, offset);
+                }
+            }
+        }
+        pages.clear();
+        loading.clear();
+        generation++; // in-flight page loads used the old offsets
+        for (Map.Entry<Integer, ApplicationReviewQuery.Page> entry : rebuilt.entrySet()) {
+            int expected = Math.min(PAGE_SIZE, newRowCount - entry.getKey() * PAGE_SIZE);
+            if (entry.getValue().size == expected) {
+                pages.put(entry.getKey(), entry.getValue());
+            }
+        }
+        rowCount = newRowCount;
+    }
+
+    private static void copyRow(ApplicationReviewQuery.Page from, int i, Map<Integer, ApplicationReviewQuery.Page> to,
+                                int offset) {
+        ApplicationReviewQuery.Page target = to.computeIfAbsent(offset / PAGE_SIZE,
+                k -> new ApplicationReviewQuery.Page(PAGE_SIZE));
+        int slot = offset % PAGE_SIZE;
+        target.ids[slot] = from.ids[i];
+        target.titles[slot] = from.titles[i];
+        target.applicants[slot] = from.applicants[i];
+        target.statuses[slot] = from.statuses[i];
+        target.dates[slot] = from.dates[i];
+        target.size++; // counts filled slots until the page is checked
+    }
+
+    private String statusAt(int row) {
+        ApplicationReviewQuery.Page page = pages.get(row / PAGE_SIZE);
+        return page.statuses[row % PAGE_SIZE];
+    }
+
+    private static Set<Integer> idSet(int[] ids) {
+        Set<Integer> set = new HashSet<>();
+        for (int id : ids) {
+            set.add(id);
+        }
+        return set;
+    }
+
+    private ApplicationReviewQuery.Page pageFor(int row) {
+        int pageIndex = row / PAGE_SIZE;
+        if (pageIndex == lastPageIndex) {
+            return lastPage;
+        }
+        ApplicationReviewQuery.Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        lastPageIndex = pageIndex;
+        lastPage = page;
+        return page;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (filter == null || !loading.add(pageIndex)) {
+            return;
+        }
+        ApplicationReviewQuery.Filter current = filter;
+        int requestGeneration = generation;
+        DbExecutor.onEdt(db.read(scope, "review", conn -> ApplicationReviewQuery.page(conn, scope, current,
+                pageIndex * PAGE_SIZE, PAGE_SIZE)), page -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading.remove(pageIndex);
+            pages.put(pageIndex, page);
+            int first = pageIndex * PAGE_SIZE;
+            int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+        }, error -> {
+            if (requestGeneration == generation) {
+                loading.remove(pageIndex);
+                onError.accept(error);
+            }
+        });
+    }
+}
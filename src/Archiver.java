@@ -0,0 +1,172 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Moves cold rows out of jobs and applications so the tables every screen joins stay small enough to keep in
+// memory. Applications older than applicationDays go to applications_archive with their job's title and
+// employer; jobs posted more than jobDays ago with no application left in applications go to jobs_archive,
+// description Deflate-compressed. The seeker's status screen and the API read the archive on request.
+//
+// Each transaction moves at most CHUNK rows, locking them first, and logs them to change_log as ARCHIVED so
+// screens, caches and indexes drop them as they would deleted rows. Archived applications keep their resume
+// reference and their place in the analytics totals; nothing is ever deleted from the archive.
+class Archiver implements AutoCloseable {
+    private static final int CHUNK = 500;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    // Rows moved by one run
+    record Result(int applications, int jobs) {
+    }
+
+    private final ConnectionPool pool;
+    private final int applicationDays;
+    private final int jobDays;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "archiver");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public Archiver(ConnectionPool pool, int applicationDays, int jobDays) {
+        this.pool = pool;
+        this.applicationDays = applicationDays;
+        this.jobDays = jobDays;
+    }
+
+    // -Darchive.application.days (default 365), -Darchive.job.days (default 180)
+    static Archiver fromSystemProperties(ConnectionPool pool) {
+        return new Archiver(pool, Integer.getInteger("archive.application.days", 365),
+                Integer.getInteger("archive.job.days", 180));
+    }
+
+    // Runs now and then every intervalMillis after the previous run ends
+    public void start(long intervalMillis) {
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                Result result = runOnce();
+                if (result.applications() > 0 || result.jobs() > 0) {
+                    System.err.println("Archiver: moved " + result.applications() + " applications and "
+                            + result.jobs() + " jobs to the archive");
+                }
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Archiver: run failed: " + e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Applications first, so a job whose last applications move out this run can follow them
+    public Result runOnce() throws SQLException {
+        long now = System.currentTimeMillis();
+        try (Connection conn = pool.getConnection()) {
+            int applications = 0, jobs = 0, moved;
+            do {
+                moved = archiveApplications(conn, new Timestamp(now - applicationDays * DAY_MILLIS));
+                applications += moved;
+            } while (moved == CHUNK);
+            do {
+                moved = archiveJobs(conn, new Timestamp(now - jobDays * DAY_MILLIS));
+                jobs += moved;
+            } while (moved == CHUNK);
+            return new Result(applications, jobs);
+        }
+    }
+
+    // One chunk of applications made before the cutoff; returns how many moved
+    private static int archiveApplications(Connection conn, Timestamp cutoff) throws SQLException {
+        return ApplicationBatch.inTransaction(conn, () -> {
+            int[] ids = lockIds(conn, "SELECT id FROM applications WHERE appliedDate < ? LIMIT ? FOR UPDATE",
+                    cutoff);
+            if (ids.length == 0) {
+                return 0;
+            }
+            String in = " IN (" + ApplicationBatch.placeholders(ids.length) + ")";
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO applications_archive (id, jobId, jobSeekerId, employerId, title, status, " +
+                    "appliedDate, resumepath) SELECT a.id, a.jobId, a.jobSeekerId, j.employerId, j.title, " +
+                    "a.status, a.appliedDate, a.resumepath FROM applications a LEFT JOIN jobs j ON a.jobId = j.id " +
+                    "WHERE a.id" + in)) {
+                ApplicationBatch.bindIds(pstmt, 1, ids);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = ChangeLog.prepareApplications(conn, ChangeLog.ARCHIVED, "a.id" + in)) {
+                ApplicationBatch.bindIds(pstmt, 1, ids);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM applications WHERE id" + in)) {
+                ApplicationBatch.bindIds(pstmt, 1, ids);
+                return pstmt.executeUpdate();
+            }
+        });
+    }
+
+    // One chunk of jobs posted before the cutoff that no application in applications refers to
+    private static int archiveJobs(Connection conn, Timestamp cutoff) throws SQLException {
+        return ApplicationBatch.inTransaction(conn, () -> {
+            int[] ids = lockIds(conn, "SELECT id FROM jobs j WHERE postedAt < ? AND NOT EXISTS " +
+                    "(SELECT 1 FROM applications a WHERE a.jobId = j.id) LIMIT ? FOR UPDATE", cutoff);
+            if (ids.length == 0) {
+                return 0;
+            }
+            String in = " IN (" + ApplicationBatch.placeholders(ids.length) + ")";
+            try (PreparedStatement select = conn.prepareStatement(
+                    "SELECT id, employerId, title, salary, description, postedAt FROM jobs WHERE id" + in);
+                 PreparedStatement insert = conn.prepareStatement("INSERT INTO jobs_archive " +
+                         "(id, employerId, title, salary, description, postedAt) VALUES (?, ?, ?, ?, ?, ?)")) {
+                ApplicationBatch.bindIds(select, 1, ids);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        String description = rs.getString(5);
+                        insert.setInt(1, rs.getInt(1));
+                        insert.setObject(2, rs.getObject(2));
+                        insert.setString(3, rs.getString(3));
+                        insert.setBigDecimal(4, rs.getBigDecimal(4));
+                        insert.setBytes(5, description == null ? null : ResumeTexts.compress(description));
+                        insert.setTimestamp(6, rs.getTimestamp(6));
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            for (int id : ids) {
+                ChangeLog.job(conn, ChangeLog.ARCHIVED, id);
+            }
+            // An application saved since the lock was taken keeps its job in place
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM jobs WHERE id" + in +
+                    " AND NOT EXISTS (SELECT 1 FROM applications a WHERE a.jobId = jobs.id)")) {
+                ApplicationBatch.bindIds(pstmt, 1, ids);
+                int deleted = pstmt.executeUpdate();
+                if (deleted != ids.length) {
+                    throw new SQLException("Jobs received applications while being archived; will retry");
+                }
+                return deleted;
+            }
+        });
+    }
+
+    // The ids the query selects, locked until commit; it binds the cutoff and CHUNK
+    private static int[] lockIds(Connection conn, String sql, Timestamp cutoff) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, cutoff);
+            pstmt.setInt(2, CHUNK);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+// Polls change_log for rows written since the last poll and hands them to the open screens and caches, so
+// they can patch themselves instead of reloading. Listeners run one after another on the feed's own thread,
+// with a connection borrowed for the poll, so a cache patched by an earlier listener is current for later ones.
+//
+// Versions are allocated when a transaction inserts its log row, not when it commits, so a version can become
+// visible after higher ones. A gap is therefore waited on for up to GAP_WAIT_MILLIS before the cursor moves
+// past it (it may also be a rolled-back insert that never appears); rows beyond it are delivered only once.
+class ChangeFeed implements AutoCloseable {
+    private static final int MAX_ROWS_PER_POLL = 1_000;
+    private static final long GAP_WAIT_MILLIS = 10_000;
+    private static final long RETENTION_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long TRIM_EVERY_MILLIS = 60L * 60 * 1000;
+
+    // One logged change
+    static final class Change {
+        final long version;
+        final String table;
+        final char op;
+        final int rowId;
+        final int employerId;  // 0 if unknown
+        final int jobSeekerId; // 0 for jobs
+
+        Change(long version, String table, char op, int rowId, int employerId, int jobSeekerId) {
+            this.version = version;
+            this.table = table;
+            this.op = op;
+            this.rowId = rowId;
+            this.employerId = employerId;
+            this.jobSeekerId = jobSeekerId;
+        }
+    }
+
+    interface Listener {
+        void onChanges(Connection conn, List<Change> changes) throws Exception;
+    }
+
+    private static final class Subscription {
+        final QueryScope scope;
+        final Listener listener;
+
+        Subscription(QueryScope scope, Listener listener) {
+            this.scope = scope;
+            this.listener = listener;
+        }
+    }
+
+    private final ConnectionPool pool;
+    private final long pollMillis;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "change-feed");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Only touched on the feed thread
+    private long cursor = -1;                                // every version up to here has been settled
+    private final Set<Long> deliveredAhead = new HashSet<>(); // delivered versions beyond a pending gap
+    private long gapStart;                                   // first missing version being waited on, or 0
+    private long gapSeenAt;
+    private long lastTrim;
+
+    public ChangeFeed(ConnectionPool pool, long pollMillis) {
+        this.pool = pool;
+        this.pollMillis = pollMillis;
+    }
+
+    // -Dchange.poll.millis (default 2000)
+    static ChangeFeed fromSystemProperties(ConnectionPool pool) {
+        return new ChangeFeed(pool, Long.getLong("change.poll.millis", 2_000));
+    }
+
+    // Starts from the current end of the log; earlier changes are already in whatever the screens load
+    public void start() {
+        timer.scheduleWithFixedDelay(this::poll, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // The listener gets every batch of changes until the scope is cancelled (its screen is left)
+    public void subscribe(QueryScope scope, Listener listener) {
+        subscriptions.add(new Subscription(scope, listener));
+    }
+
+    // Ids of the changes that satisfy the condition, in log order
+    static int[] rowIds(List<Change> changes, Predicate<Change> condition) {
+        return changes.stream().filter(condition).mapToInt(c -> c.rowId).distinct().toArray();
+    }
+
+    private void poll() {
+        try (Connection conn = pool.getConnection()) {
+            if (cursor < 0) {
+                cursor = ChangeLog.latestVersion(conn);
+                lastTrim = System.currentTimeMillis();
+                return;
+            }
+            List<Change> changes = read(conn);
+            if (!changes.isEmpty()) {
+                deliver(conn, changes);
+            }
+            if (System.currentTimeMillis() - lastTrim > TRIM_EVERY_MILLIS) {
+                trim(conn);
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Change feed poll failed: " + e.getMessage()); // retried at the next poll
+        }
+    }
+
+    // New changes since the cursor, advancing it as far as no gap is still being waited on
+    private List<Change> read(Connection conn) throws SQLException {
+        List<Change> fresh = new ArrayList<>();
+        String sql = "SELECT version, tableName, op, rowId, employerId, jobSeekerId FROM change_log " +
+                "WHERE version > ? ORDER BY version LIMIT " + MAX_ROWS_PER_POLL;
+        long now = System.currentTimeMillis();
+        boolean blocked = false;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setLong(1, cursor);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                long expected = cursor + 1;
+                while (rs.next()) {
+                    long version = rs.getLong(1);
+                    if (!blocked && version != expected) {
+                        if (gapStart != expected) {
+                            gapStart = expected;
+                            gapSeenAt = now;
+                        }
+                        blocked = now - gapSeenAt < GAP_WAIT_MILLIS; // else give up on the missing versions
+                    }
+                    if (!blocked) {
+                        cursor = version;
+                        gapStart = 0;
+                    }
+                    expected = version + 1;
+                    if (deliveredAhead.contains(version)) {
+                        continue;
+                    }
+                    if (blocked) {
+                        deliveredAhead.add(version);
+                    }
+                    fresh.add(new Change(version, rs.getString(2), rs.getString(3).charAt(0), rs.getInt(4),
+                            rs.getInt(5), rs.getInt(6)));
+                }
+            }
+        }
+        deliveredAhead.removeIf(v -> v <= cursor);
+        return fresh;
+    }
+
+    private void deliver(Connection conn, List<Change> changes) {
+        List<Change> view = Collections.unmodifiableList(changes);
+        for (Subscription subscription : subscriptions) {
+            if (subscription.scope.isCancelled()) {
+                subscriptions.remove(subscription);
+                continue;
+            }
+            try {
+                subscription.listener.onChanges(conn, view);
+            } catch (Exception e) {
+                System.err.println("Change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Every running app trims; the deletes are idempotent
+    private void trim(Connection conn) throws SQLException {
+        lastTrim = System.currentTimeMillis();
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM change_log WHERE changedAt < ?")) {
+            pstmt.setTimestamp(1, new Timestamp(lastTrim - RETENTION_MILLIS));
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Writes the change_log rows that ChangeFeed polls. Every write to jobs or applications logs its rows in the
+// same transaction, so the log never mentions a change that was rolled back and never misses one that committed.
+final class ChangeLog {
+    static final String JOBS = "jobs";
+    static final String APPLICATIONS = "applications";
+    static final String RESUME_TEXTS = "resume_texts"; // rowId is an application whose resume text was stored
+    static final char INSERTED = 'I';
+    static final char UPDATED = 'U';
+    static final char DELETED = 'D';
+    static final char ARCHIVED = 'A'; // moved to the archive tables by Archiver; gone from jobs or applications
+
+    private ChangeLog() {
+    }
+
+    // Whether the row has left the hot table, deleted or archived
+    static boolean removes(char op) {
+        return op == DELETED || op == ARCHIVED;
+    }
+
+    // The newest version logged, 0 if none; the position of a write after it commits
+    public static long latestVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM change_log")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    // Logs the job with this id; call after inserting or updating it and before deleting or archiving it
+    public static void job(Connection conn, char op, int jobId) throws SQLException {
+        String sql = "INSERT INTO change_log (tableName, op, rowId, employerId) " +
+                "SELECT '" + JOBS + "', '" + op + "', id, employerId FROM jobs WHERE id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, jobId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Logs jobs of one employer in one batch, for inserts too many to log one statement at a time
+    public static void jobs(Connection conn, char op, int employerId, int[] jobIds) throws SQLException {
+        String sql = "INSERT INTO change_log (tableName, op, rowId, employerId) VALUES ('" + JOBS + "', '" + op
+                + "', ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int jobId : jobIds) {
+                pstmt.setInt(1, jobId);
+                pstmt.setInt(2, employerId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    // Logs that the resume of the application with this id now has its text in resume_texts
+    public static void resumeText(Connection conn, int applicationId) throws SQLException {
+        String sql = "INSERT INTO change_log (tableName, op, rowId, employerId, jobSeekerId) " +
+                "SELECT '" + RESUME_TEXTS + "', '" + INSERTED + "', a.id, j.employerId, a.jobSeekerId " +
+                "FROM applications a JOIN jobs j ON a.jobId = j.id WHERE a.id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, applicationId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // A statement logging every application matching the condition on "applications a JOIN jobs j";
+    // the caller binds the condition's parameters and executes it, or batches it
+    public static PreparedStatement prepareApplications(Connection conn, char op, String condition)
+            throws SQLException {
+        return conn.prepareStatement("INSERT INTO change_log (tableName, op, rowId, employerId, jobSeekerId) " +
+                "SELECT '" + APPLICATIONS + "', '" + op + "', a.id, j.employerId, a.jobSeekerId " +
+                "FROM applications a JOIN jobs j ON a.jobId = j.id WHERE " + condition);
+    }
+}
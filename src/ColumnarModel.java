@@ -0,0 +1,15 @@
+import javax.swing.table.TableModel;
+
+// A table model whose columns are kept as primitive arrays. ColumnarTable paints cells through these accessors
+// instead of getValueAt, so drawing a row boxes nothing. getColumnClass says which accessor a column uses:
+// Integer.class intAt, Double.class doubleAt, anything else stringAt.
+interface ColumnarModel extends TableModel {
+    // False while the row's data is still being fetched; it paints blank
+    boolean isRowLoaded(int row);
+
+    int intAt(int row, int column);
+
+    double doubleAt(int row, int column);
+
+    String stringAt(int row, int column);
+}
@@ -0,0 +1,257 @@
+import javax.swing.JComponent;
+import javax.swing.JTable;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.text.DecimalFormatSymbols;
+
+// JTable for a ColumnarModel. The visible cells are drawn straight from the model's arrays into the table's
+// Graphics, without the per-cell Graphics copy of the standard painting and without boxing values or building
+// strings, so scrolling through a large result allocates close to nothing. Numbers are formatted like JTable's
+// own renderers (integers plain, decimals grouped with up to three fraction digits) and right-aligned. Rows are
+// assumed to share one height. Any other model, and a column being dragged, get the standard painting.
+class ColumnarTable extends JTable {
+    private static final long serialVersionUID = 1L;
+    private final CellRenderer cells = new CellRenderer();
+    private final Rectangle clip = new Rectangle();
+
+    ColumnarTable(ColumnarModel model) {
+        super(model);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (!(getModel() instanceof ColumnarModel)
+                || (getTableHeader() != null && getTableHeader().getDraggedColumn() != null)) {
+            super.paintComponent(g);
+            return;
+        }
+        g.getClipBounds(clip);
+        g.setColor(getBackground());
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+        int rowHeight = getRowHeight();
+        int rows = getRowCount();
+        if (rows == 0 || getColumnCount() == 0) {
+            return;
+        }
+        int firstRow = Math.max(0, clip.y / rowHeight);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height - 1) / rowHeight);
+        TableColumnModel columns = getColumnModel();
+        int margin = columns.getColumnMargin();
+        int rowMargin = getRowMargin();
+        ColumnarModel model = (ColumnarModel) getModel();
+        Color grid = getGridColor();
+        int x = 0;
+        for (int column = 0; column < columns.getColumnCount() && x < clip.x + clip.width; column++) {
+            int width = columns.getColumn(column).getWidth();
+            if (x + width > clip.x) {
+                int modelColumn = convertColumnIndexToModel(column);
+                for (int row = firstRow; row <= lastRow; row++) {
+                    int y = row * rowHeight;
+                    cells.show(this, model, convertRowIndexToModel(row), modelColumn, isCellSelected(row, column));
+                    g.translate(x + margin / 2, y + rowMargin / 2);
+                    cells.draw(g, width - margin, rowHeight - rowMargin);
+                    g.translate(-(x + margin / 2), -(y + rowMargin / 2));
+                }
+                if (getShowVerticalLines()) {
+                    g.setColor(grid);
+                    g.drawLine(x + width - 1, firstRow * rowHeight, x + width - 1, (lastRow + 1) * rowHeight - 1);
+                }
+            }
+            x += width;
+        }
+        if (getShowHorizontalLines()) {
+            g.setColor(grid);
+            for (int row = firstRow; row <= lastRow; row++) {
+                int y = (row + 1) * rowHeight - 1;
+                g.drawLine(clip.x, y, Math.min(x, clip.x + clip.width) - 1, y);
+            }
+        }
+    }
+
+    @Override
+    public TableCellRenderer getCellRenderer(int row, int column) {
+        return cells != null && getModel() instanceof ColumnarModel ? cells : super.getCellRenderer(row, column);
+    }
+
+    // Skips JTable's getValueAt: the renderer reads the cell itself
+    @Override
+    public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+        if (renderer != cells) {
+            return super.prepareRenderer(renderer, row, column);
+        }
+        cells.show(this, (ColumnarModel) getModel(), convertRowIndexToModel(row), convertColumnIndexToModel(column),
+                isCellSelected(row, column));
+        return cells;
+    }
+
+    private static final class CellRenderer extends JComponent implements TableCellRenderer {
+        private static final long serialVersionUID = 1L;
+        private static final int PADDING = 2;
+        private static final char ELLIPSIS = '\u2026';
+
+        private final char[] chars = new char[256]; // text; digits are written backwards from the end
+        private final char grouping;
+        private final char decimal;
+        private JTable table;
+        private ColumnarModel model;
+        private int row, column;
+        private boolean selected;
+        private Font metricsFont;
+        private FontMetrics metrics;
+
+        CellRenderer() {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance();
+            grouping = symbols.getGroupingSeparator();
+            decimal = symbols.getDecimalSeparator();
+            setOpaque(true);
+        }
+
+        void show(JTable table, ColumnarModel model, int row, int column, boolean selected) {
+            this.table = table;
+            this.model = model;
+            this.row = row;
+            this.column = column;
+            this.selected = selected;
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                       boolean hasFocus, int row, int column) {
+            show(table, (ColumnarModel) table.getModel(), table.convertRowIndexToModel(row),
+                    table.convertColumnIndexToModel(column), isSelected);
+            return this;
+        }
+
+        // Stamped by JTable's standard paths (tooltips, printing); skips JComponent's Graphics copy
+        @Override
+        public void paint(Graphics g) {
+            draw(g, getWidth(), getHeight());
+        }
+
+        // Draws the cell set by show() with its top left corner at the origin
+        void draw(Graphics g, int width, int height) {
+            g.setColor(selected ? table.getSelectionBackground() : table.getBackground());
+            g.fillRect(0, 0, width, height);
+            if (row >= model.getRowCount() || !model.isRowLoaded(row)) {
+                return;
+            }
+            Font font = table.getFont();
+            if (font != metricsFont) {
+                metrics = table.getFontMetrics(font);
+                metricsFont = font;
+            }
+            g.setFont(font);
+            g.setColor(selected ? table.getSelectionForeground() : table.getForeground());
+            int baseline = (height - metrics.getHeight()) / 2 + metrics.getAscent();
+            Class<?> type = model.getColumnClass(column);
+            if (type == Integer.class) {
+                drawRight(g, formatInt(model.intAt(row, column)), width, baseline);
+            } else if (type == Double.class) {
+                drawRight(g, formatDouble(model.doubleAt(row, column)), width, baseline);
+            } else {
+                String text = model.stringAt(row, column);
+                if (text != null) {
+                    drawLeft(g, text, width, baseline);
+                }
+            }
+        }
+
+        private void drawRight(Graphics g, int start, int width, int baseline) {
+            int length = chars.length - start;
+            g.drawChars(chars, start, length, width - PADDING - metrics.charsWidth(chars, start, length), baseline);
+        }
+
+        // Text too wide for the cell is cut to what fits and ends in an ellipsis, as JLabel does
+        private void drawLeft(Graphics g, String text, int width, int baseline) {
+            int length = Math.min(text.length(), chars.length - 1);
+            text.getChars(0, length, chars, 0);
+            int available = width - 2 * PADDING;
+            if (length < text.length() || metrics.charsWidth(chars, 0, length) > available) {
+                available -= metrics.charWidth(ELLIPSIS);
+                while (length > 0 && metrics.charsWidth(chars, 0, length) > available) {
+                    length--;
+                }
+                chars[length++] = ELLIPSIS;
+            }
+            g.drawChars(chars, 0, length, PADDING, baseline);
+        }
+
+        // Writes the value at the end of chars; returns where it starts
+        private int formatInt(int value) {
+            int at = chars.length;
+            long n = Math.abs((long) value);
+            do {
+                chars[--at] = (char) ('0' + n % 10);
+                n /= 10;
+            } while (n > 0);
+            if (value < 0) {
+                chars[--at] = '-';
+            }
+            return at;
+        }
+
+        private int formatDouble(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15) {
+                String text = Double.toString(value); // never a salary; allocating here is fine
+                text.getChars(0, text.length(), chars, chars.length - text.length());
+                return chars.length - text.length();
+            }
+            long thousandths = Math.round(Math.abs(value) * 1000);
+            long whole = thousandths / 1000;
+            int fraction = (int) (thousandths % 1000);
+            int at = chars.length;
+            if (fraction != 0) {
+                int digits = 3;
+                while (fraction % 10 == 0) {
+                    fraction /= 10;
+                    digits--;
+                }
+                for (int i = 0; i < digits; i++) {
+                    chars[--at] = (char) ('0' + fraction % 10);
+                    fraction /= 10;
+                }
+                chars[--at] = decimal;
+            }
+            int group = 0;
+            do {
+                if (group++ == 3) {
+                    chars[--at] = grouping;
+                    group = 1;
+                }
+                chars[--at] = (char) ('0' + whole % 10);
+                whole /= 10;
+            } while (whole > 0);
+            if (value < 0 && thousandths != 0) {
+                chars[--at] = '-';
+            }
+            return at;
+        }
+
+        // A renderer is only stamped onto the table; as in DefaultTableCellRenderer these are not needed
+        @Override
+        public void invalidate() {
+        }
+
+        @Override
+        public void validate() {
+        }
+
+        @Override
+        public void revalidate() {
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+        }
+
+        @Override
+        protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+        }
+    }
+}
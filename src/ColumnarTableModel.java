@@ -0,0 +1,295 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Read-only table model held in memory column by column: int[] and double[] columns, and String[] columns
+// whose repeated values (statuses, job titles) share one instance. Rows are added in batches, collected off
+// the EDT into a Rows buffer and appended with a single table event.
+class ColumnarTableModel extends AbstractTableModel implements ColumnarModel {
+    private static final long serialVersionUID = 1L;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int MAX_INTERNED = 100_000; // beyond this, new strings are stored as they are
+
+    private final String[] names;
+    private final Class<?>[] types;
+
+    // Only touched on the EDT
+    private final int[][] ints;       // per column; null unless it is an Integer column
+    private final double[][] doubles; // Double columns
+    private final String[][] strings; // String columns
+    private final Map<String, String> interned = new HashMap<>();
+    private int capacity;
+    private int rowCount;
+
+    // Rows waiting to be appended, in the same column layout. Filled by one thread, then handed to the EDT.
+    static final class Rows {
+        private final Class<?>[] types;
+        final int[][] ints;
+        final double[][] doubles;
+        final String[][] strings;
+        private int capacity;
+        private int size;
+
+        private Rows(Class<?>[] types, int capacity) {
+            this.types = types;
+            this.capacity = capacity;
+            ints = new int[types.length][];
+            doubles = new double[types.length][];
+            strings = new String[types.length][];
+            for (int c = 0; c < types.length; c++) {
+                if (types[c] == Integer.class) {
+                    ints[c] = new int[capacity];
+                } else if (types[c] == Double.class) {
+                    doubles[c] = new double[capacity];
+                } else {
+                    strings[c] = new String[capacity];
+                }
+            }
+        }
+
+        // Starts a row and returns its index, for the setters
+        int add() {
+            if (size == capacity) {
+                int grown = Math.max(16, size * 2);
+                for (int c = 0; c < types.length; c++) {
+                    if (ints[c] != null) {
+                        ints[c] = Arrays.copyOf(ints[c], grown);
+                    } else if (doubles[c] != null) {
+                        doubles[c] = Arrays.copyOf(doubles[c], grown);
+                    } else {
+                        strings[c] = Arrays.copyOf(strings[c], grown);
+                    }
+                }
+                capacity = grown;
+            }
+            return size++;
+        }
+
+        void set(int row, int column, int value) {
+            ints[column][row] = value;
+        }
+
+        void set(int row, int column, double value) {
+            doubles[column][row] = value;
+        }
+
+        void set(int row, int column, String value) {
+            strings[column][row] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    // types[c] is Integer.class, Double.class or String.class
+    public ColumnarTableModel(String[] names, Class<?>... types) {
+        if (names.length != types.length) {
+            throw new IllegalArgumentException("One type per column");
+        }
+        this.names = names.clone();
+        this.types = types.clone();
+        ints = new int[types.length][];
+        doubles = new double[types.length][];
+        strings = new String[types.length][];
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // An empty buffer for rows of this model; may be filled on any thread
+    public Rows newRows(int capacity) {
+        return new Rows(types, capacity);
+    }
+
+    // Appends the rows with one rowsInserted event
+    public void append(Rows rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        ensureCapacity(rowCount + rows.size);
+        for (int c = 0; c < types.length; c++) {
+            if (ints[c] != null) {
+                System.arraycopy(rows.ints[c], 0, ints[c], rowCount, rows.size);
+            } else if (doubles[c] != null) {
+                System.arraycopy(rows.doubles[c], 0, doubles[c], rowCount, rows.size);
+            } else {
+                for (int r = 0; r < rows.size; r++) {
+                    strings[c][rowCount + r] = intern(rows.strings[c][r]);
+                }
+            }
+        }
+        int first = rowCount;
+        rowCount += rows.size;
+        fireTableRowsInserted(first, rowCount - 1);
+    }
+
+    // Replaces every row with these
+    public void setRows(Rows rows) {
+        clear();
+        append(rows);
+    }
+
+    public void clear() {
+        if (rowCount == 0 && capacity == INITIAL_CAPACITY) {
+            return;
+        }
+        int removed = rowCount;
+        rowCount = 0;
+        interned.clear();
+        allocate(INITIAL_CAPACITY); // let a large result be collected
+        if (removed > 0) {
+            fireTableRowsDeleted(0, removed - 1);
+        }
+    }
+
+    // Overwrites a row with row `source` of the buffer
+    public void update(int row, Rows rows, int source) {
+        copyRow(rows, source, row);
+        fireTableRowsUpdated(row, row);
+    }
+
+    // Appends row `source` of the buffer on its own, for the odd row added after a load
+    public void appendRow(Rows rows, int source) {
+        ensureCapacity(rowCount + 1);
+        copyRow(rows, source, rowCount);
+        rowCount++;
+        fireTableRowsInserted(rowCount - 1, rowCount - 1);
+    }
+
+    private void copyRow(Rows rows, int source, int row) {
+        for (int c = 0; c < types.length; c++) {
+            if (ints[c] != null) {
+                ints[c][row] = rows.ints[c][source];
+            } else if (doubles[c] != null) {
+                doubles[c][row] = rows.doubles[c][source];
+            } else {
+                strings[c][row] = intern(rows.strings[c][source]);
+            }
+        }
+    }
+
+    public void removeRow(int row) {
+        int tail = rowCount - row - 1;
+        for (int c = 0; c < types.length; c++) {
+            if (ints[c] != null) {
+                System.arraycopy(ints[c], row + 1, ints[c], row, tail);
+            } else if (doubles[c] != null) {
+                System.arraycopy(doubles[c], row + 1, doubles[c], row, tail);
+            } else {
+                System.arraycopy(strings[c], row + 1, strings[c], row, tail);
+                strings[c][rowCount - 1] = null;
+            }
+        }
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    // First row whose Integer column holds the value, or -1
+    public int indexOf(int column, int value) {
+        int[] values = ints[column];
+        for (int r = 0; r < rowCount; r++) {
+            if (values[r] == value) {
+                return r;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return types[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    // Boxes; ColumnarTable does not call it to paint
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (ints[column] != null) {
+            return ints[column][row];
+        }
+        return doubles[column] != null ? (Object) doubles[column][row] : strings[column][row];
+    }
+
+    @Override
+    public boolean isRowLoaded(int row) {
+        return true;
+    }
+
+    @Override
+    public int intAt(int row, int column) {
+        return ints[column][row];
+    }
+
+    @Override
+    public double doubleAt(int row, int column) {
+        return doubles[column][row];
+    }
+
+    @Override
+    public String stringAt(int row, int column) {
+        return strings[column][row];
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String shared = interned.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (interned.size() < MAX_INTERNED) {
+            interned.put(value, value);
+        }
+        return value;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity) {
+            return;
+        }
+        int grown = Math.max(needed, capacity + (capacity >> 1));
+        for (int c = 0; c < types.length; c++) {
+            if (ints[c] != null) {
+                ints[c] = Arrays.copyOf(ints[c], grown);
+            } else if (doubles[c] != null) {
+                doubles[c] = Arrays.copyOf(doubles[c], grown);
+            } else {
+                strings[c] = Arrays.copyOf(strings[c], grown);
+            }
+        }
+        capacity = grown;
+    }
+
+    private void allocate(int size) {
+        for (int c = 0; c < types.length; c++) {
+            ints[c] = types[c] == Integer.class ? new int[size] : null;
+            doubles[c] = types[c] == Double.class ? new double[size] : null;
+            strings[c] = types[c] != Integer.class && types[c] != Double.class ? new String[size] : null;
+        }
+        capacity = size;
+    }
+}
@@ -0,0 +1,340 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded JDBC connection pool shared by every screen.
+// Connections handed out are proxies: close() returns them to the pool instead of closing the socket.
+class ConnectionPool implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 5_000;
+    private static final long HOUSEKEEPING_INTERVAL_MILLIS = 30_000;
+    // Stack traces cost microseconds per borrow, so leaks report where the connection was taken only on request
+    private static final boolean TRACE_BORROWS = Boolean.getBoolean("db.pool.leak.trace");
+
+    private final String url, user, password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis, idleTimeoutMillis, leakThresholdMillis;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>(); // guarded by this
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // Metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize) {
+        this(url, user, password, maxSize, 10_000, 300_000, 60_000);
+    }
+
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                HOUSEKEEPING_INTERVAL_MILLIS, HOUSEKEEPING_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Pool for the application database; -Ddb.url, -Ddb.user and -Ddb.password override the defaults
+    static ConnectionPool fromSystemProperties(int maxSize) {
+        return new ConnectionPool(System.getProperty("db.url", "jdbc:mysql://localhost:3306/job_recruitment"),
+                System.getProperty("db.user", "root"), System.getProperty("db.password", "HSSDataBase22"), maxSize);
+    }
+
+    // Borrow a connection; the caller must close() it (try-with-resources) to hand it back
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                        + " ms waiting for a database connection (" + stats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+                createdCount.incrementAndGet();
+            }
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = TRACE_BORROWS ? new Throwable("Connection borrowed here") : null;
+            pooled.leakReported = false;
+            borrowed.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (this) {
+                candidate = idle.pollFirst(); // LIFO keeps the warmest connections busy
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isUsable(candidate)) {
+                return candidate;
+            }
+            candidate.closeQuietly();
+            evictedCount.incrementAndGet();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            // Skip the round trip for connections that were handed back moments ago
+            if (System.currentTimeMillis() - pooled.returnedAt < VALIDATE_AFTER_IDLE_MILLIS) {
+                return true;
+            }
+            return pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        boolean reusable = !closed && pooled.reset();
+        if (reusable) {
+            pooled.returnedAt = System.currentTimeMillis();
+            synchronized (this) {
+                idle.addFirst(pooled);
+            }
+        } else {
+            pooled.closeQuietly();
+        }
+        permits.release();
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    // Evict connections idle for too long and report connections held past the leak threshold
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.returnedAt > idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(pooled);
+                }
+            }
+        }
+        for (PooledConnection pooled : expired) {
+            pooled.closeQuietly();
+            evictedCount.incrementAndGet();
+        }
+
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakThresholdMillis) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                System.err.println("Possible connection leak: held for " + (now - pooled.borrowedAt) + " ms"
+                        + (pooled.borrowSite == null ? " (run with -Ddb.pool.leak.trace=true to see where)" : ""));
+                if (pooled.borrowSite != null) {
+                    pooled.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public Stats stats() {
+        int idleNow;
+        synchronized (this) {
+            idleNow = idle.size();
+        }
+        long borrows = borrowCount.get();
+        return new Stats(borrowed.size(), idleNow, maxSize, permits.getQueueLength(), borrows,
+                borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1_000, maxWaitNanos.get() / 1_000,
+                timeouts.get(), createdCount.get(), evictedCount.get(), leakCount.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (this) {
+            for (PooledConnection pooled : idle) {
+                pooled.closeQuietly();
+            }
+            idle.clear();
+        }
+    }
+
+    // Point-in-time pool metrics; wait times are in microseconds
+    record Stats(int active, int idle, int maxSize, int waiting, long borrows,
+                 long avgWaitMicros, long maxWaitMicros, long timeouts,
+                 long created, long evicted, long leaks) {
+        @Override
+        public String toString() {
+            return "active=" + active + ", idle=" + idle + ", max=" + maxSize + ", waiting=" + waiting
+                    + ", borrows=" + borrows + ", avgWait=" + avgWaitMicros + "us, maxWait=" + maxWaitMicros
+                    + "us, timeouts=" + timeouts + ", created=" + created + ", evicted=" + evicted
+                    + ", leaks=" + leaks;
+        }
+    }
+
+    // A physical connection plus the bookkeeping the pool needs for it
+    private final class PooledConnection {
+        final Connection physical;
+        final List<Statement> openStatements = new ArrayList<>();
+        volatile long borrowedAt, returnedAt;
+        volatile Throwable borrowSite; // only with TRACE_BORROWS
+        volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Handle(this));
+        }
+
+        // Close statements the borrower forgot and undo any transaction state before reuse
+        boolean reset() {
+            try {
+                synchronized (openStatements) {
+                    for (Statement stmt : openStatements) {
+                        try {
+                            stmt.close();
+                        } catch (SQLException ignored) {
+                        }
+                    }
+                    openStatements.clear();
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return !physical.isClosed();
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    // Per-borrow view of a pooled connection; becomes unusable once closed
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement) {
+                    synchronized (pooled.openStatements) {
+                        pooled.openStatements.removeIf(ConnectionPool::isClosedQuietly);
+                        pooled.openStatements.add((Statement) result);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static boolean isClosedQuietly(Statement stmt) {
+        try {
+            return stmt.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
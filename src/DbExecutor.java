@@ -0,0 +1,228 @@
+import javax.swing.SwingUtilities;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Runs JDBC work on a bounded background pool so the Swing event dispatch thread never blocks on the database.
+// Results come back as CompletableFutures; table rows are published to the EDT in chunks.
+// Every call is named by an operation ("login", "search", ...) under which Metrics records where its time went.
+// submit() runs on the primary; read(), submitLatest() and loadTable() are read-only and may go to a replica
+// (see ReplicaRouter), seeing every write made under the scope's WritePosition.
+class DbExecutor implements AutoCloseable {
+    private static final int CHUNK_SIZE = 200;
+
+    // A unit of database work; the connection is borrowed from the pool and returned afterwards
+    interface SqlWork<T> {
+        T run(Connection conn) throws Exception;
+    }
+
+    // Fills the parameters of a prepared statement
+    interface Binder {
+        void bind(PreparedStatement pstmt) throws SQLException;
+    }
+
+    // Copies the current result set row into row `row` of the buffer
+    interface RowMapper {
+        void map(ResultSet rs, ColumnarTableModel.Rows rows, int row) throws SQLException;
+    }
+
+    private final ReplicaRouter router;
+    private final ThreadPoolExecutor workers;
+    private final Metrics metrics;
+
+    public DbExecutor(ConnectionPool pool, int threads, int queueCapacity) {
+        this(pool, threads, queueCapacity, new Metrics());
+    }
+
+    public DbExecutor(ConnectionPool pool, int threads, int queueCapacity, Metrics metrics) {
+        this(new ReplicaRouter(pool), threads, queueCapacity, metrics);
+    }
+
+    public DbExecutor(ReplicaRouter router, int threads, int queueCapacity, Metrics metrics) {
+        this.router = router;
+        this.metrics = metrics;
+        AtomicInteger counter = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "db-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    public Metrics metrics() {
+        return metrics;
+    }
+
+    // Work that writes, or must read the latest committed data. Once it succeeds the scope's WritePosition moves
+    // past it, so later reads under the same position see what it wrote.
+    public <T> CompletableFuture<T> submit(QueryScope scope, String operation, SqlWork<T> work) {
+        Metrics.Trace trace = metrics.start(operation);
+        WritePosition writes = router.hasReplicas() ? scope.writes() : null;
+        return execute(scope, trace, () -> {
+            try (Connection conn = router.write()) {
+                trace.connected();
+                T result = work.run(MeteredJdbc.wrap(conn, trace));
+                if (writes != null) {
+                    writes.advance(ChangeLog.latestVersion(conn));
+                }
+                return result;
+            }
+        });
+    }
+
+    // Read-only work; it may run on a replica that has every write made under the scope's WritePosition
+    public <T> CompletableFuture<T> read(QueryScope scope, String operation, SqlWork<T> work) {
+        Metrics.Trace trace = metrics.start(operation);
+        return execute(scope, trace, () -> {
+            try (Connection conn = router.read(scope.writes())) {
+                trace.connected();
+                return work.run(MeteredJdbc.wrap(conn, trace));
+            }
+        });
+    }
+
+    // Background work that needs no connection, such as file transfers; the pool stays free for queries
+    public <T> CompletableFuture<T> submitLocal(QueryScope scope, String operation, Callable<T> work) {
+        return execute(scope, metrics.start(operation), work);
+    }
+
+    // Calls cut short because their screen closed are not recorded
+    private <T> CompletableFuture<T> execute(QueryScope scope, Metrics.Trace trace, Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (scope.isCancelled()) {
+            future.completeExceptionally(new CancellationException("Screen closed"));
+            return future;
+        }
+        scope.register(future);
+        try {
+            workers.execute(() -> {
+                if (future.isDone()) {
+                    return; // cancelled while queued
+                }
+                trace.started();
+                try {
+                    T result = work.call();
+                    metrics.record(trace, false);
+                    future.complete(result);
+                } catch (Throwable t) {
+                    if (!scope.isCancelled() && !future.isCancelled()) {
+                        metrics.record(trace, true);
+                    }
+                    future.completeExceptionally(scope.isCancelled() ? new CancellationException("Screen closed") : t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new SQLException("Database is busy, please try again", e));
+        }
+        return future;
+    }
+
+    // Same as read, but a newer submission under the same key cancels the older one (e.g. repeated Refresh clicks).
+    // The key is also the operation name.
+    public <T> CompletableFuture<T> submitLatest(QueryScope scope, String key, SqlWork<T> work) {
+        CompletableFuture<T> future = read(scope, key, work);
+        scope.replace(key, future);
+        return future;
+    }
+
+    // Runs the query in the background and streams rows into the model in chunks, replacing its current contents.
+    // Completes with the number of rows loaded. The key is also the operation name.
+    public CompletableFuture<Integer> loadTable(QueryScope scope, String key, ColumnarTableModel model,
+                                                String sql, Binder binder, RowMapper mapper) {
+        SwingUtilities.invokeLater(model::clear);
+        // Chunks are applied on the EDT, after this call has stored the future, so a superseded load can be detected
+        AtomicReference<CompletableFuture<Integer>> self = new AtomicReference<>();
+        CompletableFuture<Integer> future = submitLatest(scope, key, conn -> {
+            int total = 0;
+            try (PreparedStatement pstmt = scope.track(conn.prepareStatement(sql))) {
+                binder.bind(pstmt);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    ColumnarTableModel.Rows chunk = model.newRows(CHUNK_SIZE);
+                    while (rs.next()) {
+                        CompletableFuture<Integer> current = self.get();
+                        if (scope.isCancelled() || (current != null && current.isCancelled())) {
+                            throw new CancellationException("Load superseded or screen closed");
+                        }
+                        mapper.map(rs, chunk, chunk.add());
+                        total++;
+                        if (chunk.size() == CHUNK_SIZE) {
+                            publish(key, self, model, chunk);
+                            chunk = model.newRows(CHUNK_SIZE);
+                        }
+                    }
+                    publish(key, self, model, chunk);
+                }
+            }
+            return total;
+        });
+        self.set(future);
+        return future;
+    }
+
+    // Appends a chunk with a single table event instead of one event per row
+    private void publish(String operation, AtomicReference<CompletableFuture<Integer>> load,
+                         ColumnarTableModel model, ColumnarTableModel.Rows chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            CompletableFuture<Integer> future = load.get();
+            if (future != null && future.isCancelled()) {
+                return;
+            }
+            long start = System.nanoTime();
+            model.append(chunk);
+            metrics.recordEdt(operation, System.nanoTime() - start);
+        });
+    }
+
+    // Delivers the outcome on the EDT; cancellations are silently dropped
+    public static <T> void onEdt(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        future.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (error == null) {
+                onSuccess.accept(result);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (!(cause instanceof CancellationException)) {
+                onError.accept(cause);
+            }
+        }));
+    }
+
+    // Waits for the future on a thread that may block, rethrowing its own exception rather than a wrapper
+    static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,126 @@
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTextArea;
+import javax.swing.Timer;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Live view of Metrics: per operation, the call count, latency percentiles and where the average call spent
+// its time (queued for a worker, waiting for a connection, executing, fetching rows, on the EDT), then the
+// connection pool, the replicas and the latest UI stalls. Counts run from start or from the last Reset;
+// refreshed every second while shown.
+class DiagnosticsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Operation", "Calls", "Errors", "p50 ms", "p90 ms", "p99 ms",
+            "Max ms", "Rows", "KB Read", "Queue ms", "Connect ms", "Execute ms", "Fetch ms", "EDT ms"};
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final Metrics metrics;
+    private final Supplier<ReplicaRouter> router; // null until the database is connected
+    private final ColumnarTableModel operations = new ColumnarTableModel(COLUMNS, String.class, Integer.class,
+            Integer.class, Double.class, Double.class, Double.class, Double.class, Integer.class, Double.class,
+            Double.class, Double.class, Double.class, Double.class, Double.class);
+    private final JLabel poolLabel = new JLabel(" ");
+    private final JTextArea stallText = new JTextArea(6, 60);
+    private final Timer refresh = new Timer(1000, e -> refresh());
+    private Map<String, Metrics.Snapshot> baseline = Map.of();
+    private long baselineStalls;
+
+    DiagnosticsPanel(Metrics metrics, Supplier<ReplicaRouter> router) {
+        super(new BorderLayout(5, 5));
+        this.metrics = metrics;
+        this.router = router;
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        stallText.setEditable(false);
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(new ColumnarTable(operations)), new JScrollPane(stallText));
+        split.setResizeWeight(0.7);
+
+        JButton resetButton = new JButton("Reset");
+        resetButton.addActionListener(e -> {
+            baseline = metrics.snapshot();
+            baselineStalls = metrics.stallCount();
+            refresh();
+        });
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(poolLabel, BorderLayout.CENTER);
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttons.add(resetButton);
+        south.add(buttons, BorderLayout.EAST);
+
+        add(split, BorderLayout.CENTER);
+        add(south, BorderLayout.SOUTH);
+    }
+
+    void start() {
+        refresh();
+        refresh.start();
+    }
+
+    void stop() {
+        refresh.stop();
+    }
+
+    private void refresh() {
+        ColumnarTableModel.Rows rows = operations.newRows(16);
+        for (Metrics.Snapshot total : metrics.snapshot().values()) {
+            Metrics.Snapshot s = total.minus(baseline.get(total.operation()));
+            if (s.calls() == 0) {
+                continue;
+            }
+            int r = rows.add();
+            rows.set(r, 0, s.operation());
+            rows.set(r, 1, (int) Math.min(Integer.MAX_VALUE, s.calls()));
+            rows.set(r, 2, (int) Math.min(Integer.MAX_VALUE, s.errors()));
+            rows.set(r, 3, s.percentileMillis(0.5));
+            rows.set(r, 4, s.percentileMillis(0.9));
+            rows.set(r, 5, s.percentileMillis(0.99));
+            rows.set(r, 6, s.maxMillis());
+            rows.set(r, 7, (int) Math.min(Integer.MAX_VALUE, s.rows()));
+            rows.set(r, 8, s.bytes() / 1024.0);
+            rows.set(r, 9, s.averageMillis(s.queueNanos()));
+            rows.set(r, 10, s.averageMillis(s.connectNanos()));
+            rows.set(r, 11, s.averageMillis(s.executeNanos()));
+            rows.set(r, 12, s.averageMillis(s.fetchNanos()));
+            rows.set(r, 13, s.averageMillis(s.edtNanos()));
+        }
+        operations.setRows(rows);
+
+        ReplicaRouter connected = router.get();
+        if (connected == null) {
+            poolLabel.setText("No database connection");
+        } else if (!connected.hasReplicas()) {
+            poolLabel.setText("Connection pool: " + connected.primary().stats());
+        } else {
+            poolLabel.setText("<html>Connection pool: " + connected.primary().stats() + "<br>"
+                    + String.join("<br>", connected.describe()) + "</html>");
+        }
+
+        long stalls = metrics.stallCount() - baselineStalls;
+        StringBuilder text = new StringBuilder(stalls + " UI stalls over "
+                + Long.getLong("edt.stall.millis", 100) + " ms\n");
+        List<Metrics.Stall> recent = metrics.recentStalls();
+        for (Metrics.Stall stall : recent) {
+            if (stall.sequence() > baselineStalls) {
+                text.append(TIME.format(Instant.ofEpochMilli(stall.atMillis()))).append("  ").append(stall.millis())
+                        .append(" ms  ").append(stall.event()).append("  at ").append(stall.where()).append('\n');
+            }
+        }
+        if (!text.toString().equals(stallText.getText())) {
+            stallText.setText(text.toString());
+            stallText.setCaretPosition(0);
+        }
+    }
+}
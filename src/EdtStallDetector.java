@@ -0,0 +1,88 @@
+import javax.swing.AbstractButton;
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+
+// Reports UI events that hold the event dispatch thread for longer than a threshold (100 ms by default) to
+// Metrics. A pushed EventQueue times each event; a watchdog thread takes the EDT's stack while an event is still
+// running past the threshold, so a report says what the EDT was doing rather than only that it was late.
+// An event that opens a modal dialog dispatches others while it waits for the user; it is not reported itself.
+class EdtStallDetector extends EventQueue implements AutoCloseable {
+    private final Metrics metrics;
+    private final long thresholdNanos;
+    private final Thread watchdog;
+    private int dispatched;               // EDT only; changes under an event that runs a nested loop
+    private volatile Thread edt;
+    private volatile long runningSince;   // start of the event being dispatched, 0 between events
+    private volatile Sample sample;
+    private volatile boolean closed;
+
+    // The EDT's stack, taken while the event started at `start` was running long
+    private record Sample(long start, StackTraceElement[] stack) {
+    }
+
+    private EdtStallDetector(Metrics metrics, long thresholdMillis) {
+        this.metrics = metrics;
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        watchdog = new Thread(this::watch, "edt-stall-watchdog");
+        watchdog.setDaemon(true);
+    }
+
+    // -Dedt.stall.millis (default 100)
+    static EdtStallDetector install(Metrics metrics) {
+        EdtStallDetector detector = new EdtStallDetector(metrics, Long.getLong("edt.stall.millis", 100));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(detector);
+        detector.watchdog.start();
+        return detector;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        int before = ++dispatched;
+        edt = Thread.currentThread();
+        long start = System.nanoTime();
+        runningSince = start;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long nanos = System.nanoTime() - start;
+            runningSince = 0;
+            if (nanos >= thresholdNanos && dispatched == before) {
+                Sample taken = sample;
+                metrics.stall(nanos, describe(event), taken != null && taken.start == start ? taken.stack : null);
+            }
+        }
+    }
+
+    private void watch() {
+        long period = Math.max(1, thresholdNanos / 2_000_000);
+        while (!closed) {
+            try {
+                Thread.sleep(period);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long start = runningSince;
+            Sample taken = sample;
+            Thread thread = edt;
+            if (start != 0 && thread != null && System.nanoTime() - start >= thresholdNanos
+                    && (taken == null || taken.start != start)) {
+                sample = new Sample(start, thread.getStackTrace());
+            }
+        }
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        String text = source instanceof AbstractButton button && button.getText() != null
+                ? " \"" + button.getText() + "\"" : "";
+        return event.getClass().getSimpleName() + " on " + source.getClass().getSimpleName() + text;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        watchdog.interrupt();
+        pop();
+    }
+}
@@ -0,0 +1,390 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index with BM25 ranking over weighted fields.
+// Documents are identified by an external int id and carry one numeric value that searches can filter on.
+// Postings are primitive arrays; replacing a document tombstones its old entry. Once tombstones outnumber live
+// documents (and COMPACT_AFTER), ordinals are renumbered and the postings rewritten without them.
+class InvertedIndex {
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+    private static final int COMPACT_AFTER = 1_024;
+
+    // Decides whether a matching document may appear in the results
+    interface DocFilter {
+        boolean accept(int docId, double value);
+    }
+
+    static final class Hit {
+        final int docId;
+        final double score;
+
+        Hit(int docId, double score) {
+            this.docId = docId;
+            this.score = score;
+        }
+    }
+
+    private static final class Postings {
+        int[] ords = new int[4];
+        int[] freqs = new int[4];
+        int size;
+        int liveDocs; // document frequency excluding tombstoned entries
+
+        void add(int ord, int freq) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            ords[size] = ord;
+            freqs[size] = freq;
+            size++;
+            liveDocs++;
+        }
+    }
+
+    private final int[] fieldWeights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final IntIntMap ordByDocId = new IntIntMap();
+    private int[] docIds = new int[1024];
+    private int[] docLengths = new int[1024];
+    private double[] values = new double[1024];
+    private final BitSet deleted = new BitSet();
+    private final List<String[]> termsByOrd = new ArrayList<>();
+    private int ordCount;
+    private int liveCount;
+    private int tombstones;
+    private long totalLength;
+
+    // Weight per field, e.g. {3, 1} to count title terms three times as much as description terms
+    public InvertedIndex(int... fieldWeights) {
+        this.fieldWeights = fieldWeights.clone();
+    }
+
+    public void put(int docId, double value, String... fields) {
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = 0;
+        for (int f = 0; f < fields.length && f < fieldWeights.length; f++) {
+            for (String term : TextAnalyzer.terms(fields[f])) {
+                freqs.merge(term, fieldWeights[f], Integer::sum);
+                length += fieldWeights[f];
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            int ord = ordCount++;
+            ensureCapacity(ord + 1);
+            docIds[ord] = docId;
+            docLengths[ord] = length;
+            values[ord] = value;
+            String[] terms = freqs.keySet().toArray(new String[0]);
+            termsByOrd.add(terms);
+            for (Map.Entry<String, Integer> e : freqs.entrySet()) {
+                dictionary.computeIfAbsent(e.getKey(), k -> new Postings()).add(ord, e.getValue());
+            }
+            ordByDocId.put(docId, ord);
+            liveCount++;
+            totalLength += length;
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(int docId) {
+        int ord = ordByDocId.get(docId);
+        if (ord < 0) {
+            return;
+        }
+        deleted.set(ord);
+        ordByDocId.remove(docId);
+        liveCount--;
+        tombstones++;
+        totalLength -= docLengths[ord];
+        for (String term : termsByOrd.get(ord)) {
+            Postings postings = dictionary.get(term);
+            if (postings != null) {
+                postings.liveDocs--;
+            }
+        }
+        termsByOrd.set(ord, new String[0]);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Top-k documents for the query. When prefixLastTerm is set, the final query word also matches
+    // any indexed term starting with it (typeahead).
+    public List<Hit> search(String query, boolean prefixLastTerm, int k, DocFilter filter) {
+        List<String> tokens = TextAnalyzer.tokens(query);
+        List<Hit> results = new ArrayList<>();
+        if (tokens.isEmpty() || k <= 0) {
+            return results;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<String> queryTerms = new LinkedHashSet<>();
+            int exactCount = prefixLastTerm ? tokens.size() - 1 : tokens.size();
+            queryTerms.addAll(TextAnalyzer.terms(String.join(" ", tokens.subList(0, exactCount))));
+            if (prefixLastTerm) {
+                String last = tokens.get(tokens.size() - 1);
+                expandPrefix(last, queryTerms);
+                expandPrefix(TextAnalyzer.stem(last), queryTerms);
+            }
+            if (liveCount == 0 || queryTerms.isEmpty()) {
+                return results;
+            }
+
+            double avgLength = Math.max(1.0, (double) totalLength / liveCount);
+            long matched = 0;
+            for (String term : queryTerms) {
+                Postings postings = dictionary.get(term);
+                matched += postings == null ? 0 : postings.size;
+            }
+            Scores scores = new Scores((int) Math.min(matched, ordCount));
+            for (String term : queryTerms) {
+                Postings postings = dictionary.get(term);
+                if (postings == null || postings.liveDocs == 0) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveCount - postings.liveDocs + 0.5) / (postings.liveDocs + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int ord = postings.ords[i];
+                    if (deleted.get(ord) || !filter.accept(docIds[ord], values[ord])) {
+                        continue;
+                    }
+                    double tf = postings.freqs[i];
+                    double norm = K1 * (1 - B + B * docLengths[ord] / avgLength);
+                    scores.add(ord, (float) (idf * tf * (K1 + 1) / (tf + norm)));
+                }
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(a.score, b.score));
+            for (int i = 0; i < scores.ords.length; i++) {
+                int ord = scores.ords[i];
+                if (ord < 0) {
+                    continue;
+                }
+                double score = scores.sums[i];
+                if (top.size() < k) {
+                    top.add(new Hit(docIds[ord], score));
+                } else if (score > top.peek().score) {
+                    top.poll();
+                    top.add(new Hit(docIds[ord], score));
+                }
+            }
+            while (!top.isEmpty()) {
+                results.add(top.poll());
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void expandPrefix(String prefix, Set<String> into) {
+        int added = 0;
+        for (Map.Entry<String, Postings> e : dictionary.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            if (added++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            if (e.getValue().liveDocs > 0) {
+                into.add(e.getKey());
+            }
+        }
+    }
+
+    // Renumbers the live documents in order and drops tombstoned entries, and terms left without any, from the
+    // postings; runs under the write lock once tombstones outnumber live documents, so its cost is amortized
+    private void compactIfSparse() {
+        if (tombstones < COMPACT_AFTER || tombstones <= liveCount) {
+            return;
+        }
+        int[] newOrd = new int[ordCount];
+        List<String[]> terms = new ArrayList<>(liveCount);
+        int next = 0;
+        for (int ord = 0; ord < ordCount; ord++) {
+            if (deleted.get(ord)) {
+                newOrd[ord] = -1;
+                continue;
+            }
+            newOrd[ord] = next;
+            docIds[next] = docIds[ord];
+            docLengths[next] = docLengths[ord];
+            values[next] = values[ord];
+            terms.add(termsByOrd.get(ord));
+            ordByDocId.put(docIds[next], next);
+            next++;
+        }
+        Iterator<Postings> it = dictionary.values().iterator();
+        while (it.hasNext()) {
+            Postings postings = it.next();
+            int size = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int ord = newOrd[postings.ords[i]];
+                if (ord >= 0) {
+                    postings.ords[size] = ord;
+                    postings.freqs[size] = postings.freqs[i];
+                    size++;
+                }
+            }
+            if (size == 0) {
+                it.remove();
+            } else if (size * 4 < postings.ords.length) {
+                postings.ords = Arrays.copyOf(postings.ords, size * 2);
+                postings.freqs = Arrays.copyOf(postings.freqs, size * 2);
+            }
+            postings.size = size;
+        }
+        termsByOrd.clear();
+        termsByOrd.addAll(terms);
+        deleted.clear();
+        ordCount = next;
+        tombstones = 0;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= docIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, docIds.length * 2);
+        docIds = Arrays.copyOf(docIds, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    // Score per ordinal for one query: open addressing sized by the postings the query reads, so its cost
+    // follows the matches rather than the size of the index. Free slots hold -1.
+    private static final class Scores {
+        final int[] ords;
+        final float[] sums;
+        private final int mask;
+
+        Scores(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(8, expected) * 2 - 1) << 1; // at most half full
+            ords = new int[capacity];
+            Arrays.fill(ords, -1);
+            sums = new float[capacity];
+            mask = capacity - 1;
+        }
+
+        void add(int ord, float score) {
+            int i = (ord * 0x9E3779B9) >>> 1 & mask;
+            while (ords[i] != -1 && ords[i] != ord) {
+                i = (i + 1) & mask;
+            }
+            ords[i] = ord;
+            sums[i] += score;
+        }
+    }
+
+    // Open-addressing int -> int map so a million documents do not cost a million boxed entries
+    private static final class IntIntMap {
+        private static final int EMPTY = Integer.MIN_VALUE;
+        private int[] keys = newKeys(1024);
+        private int[] vals = new int[1024];
+        private int size;
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, EMPTY);
+            return keys;
+        }
+
+        private int slot(int key, int[] table) {
+            int mask = table.length - 1;
+            int i = (key * 0x9E3779B9) >>> 1 & mask;
+            while (table[i] != EMPTY && table[i] != key) {
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        int get(int key) {
+            int i = slot(key, keys);
+            return keys[i] == key ? vals[i] : -1;
+        }
+
+        void put(int key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int i = slot(key, keys);
+            if (keys[i] != key) {
+                keys[i] = key;
+                size++;
+            }
+            vals[i] = value;
+        }
+
+        void remove(int key) {
+            int i = slot(key, keys);
+            if (keys[i] != key) {
+                return;
+            }
+            keys[i] = EMPTY;
+            size--;
+            // Re-insert the rest of the probe run so lookups past the hole still succeed
+            int mask = keys.length - 1;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int k = keys[j];
+                int v = vals[j];
+                keys[j] = EMPTY;
+                int target = slot(k, keys);
+                keys[target] = k;
+                vals[target] = v;
+            }
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            int[] oldVals = vals;
+            keys = newKeys(capacity);
+            vals = new int[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    int target = slot(oldKeys[i], keys);
+                    keys[target] = oldKeys[i];
+                    vals[target] = oldVals[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Read-through cache of job list pages, shared by every Search Jobs screen and the API.
+// Pages are immutable keyset snapshots (jobs with id > afterId, in id order); the cache keeps at most maxPages,
+// evicting the least recently used, and reloads a page older than the TTL. New jobs are patched into the tail
+// page so a post does not empty the cache.
+class JobCatalogCache {
+    // One page of the job list, stored column-wise; never modified after construction
+    static final class Page {
+        final int afterId;
+        final int limit;
+        final int[] ids;
+        final String[] titles;
+        final double[] salaries;
+        final int size;
+        final long loadedAt;
+
+        Page(int afterId, int limit, int[] ids, String[] titles, double[] salaries, int size, long loadedAt) {
+            this.afterId = afterId;
+            this.limit = limit;
+            this.ids = ids;
+            this.titles = titles;
+            this.salaries = salaries;
+            this.size = size;
+            this.loadedAt = loadedAt;
+        }
+
+        // The last page of the list: new jobs are appended here
+        boolean isTail() {
+            return size < limit;
+        }
+
+        int lastId() {
+            return size == 0 ? afterId : ids[size - 1];
+        }
+    }
+
+    record Stats(long hits, long misses, long evictions, long expirations, long patches, long invalidations,
+                 int size) {
+        double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+    }
+
+    private final int maxPages;
+    private final long ttlMillis;
+    // Access-ordered for LRU eviction; guarded by this
+    private final LinkedHashMap<Long, Page> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private long version; // guarded by this; bumped by every change so stale loads are not cached
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong patches = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public JobCatalogCache(int maxPages, long ttlMillis) {
+        this.maxPages = maxPages;
+        this.ttlMillis = ttlMillis;
+    }
+
+    // -Djob.cache.pages (default 200) and -Djob.cache.ttl in seconds (default 60)
+    static JobCatalogCache fromSystemProperties() {
+        return new JobCatalogCache(Integer.getInteger("job.cache.pages", 200),
+                Long.getLong("job.cache.ttl", 60) * 1000);
+    }
+
+    // The cached page, or null on a miss; never touches the database
+    public synchronized Page getIfPresent(int afterId, int limit) {
+        Long key = key(afterId, limit);
+        Page page = pages.get(key);
+        if (page != null && System.currentTimeMillis() - page.loadedAt > ttlMillis) {
+            pages.remove(key);
+            expirations.incrementAndGet();
+            page = null;
+        }
+        (page == null ? misses : hits).incrementAndGet();
+        return page;
+    }
+
+    // The page from the cache, or loaded with the caller's connection and cached; scope may be null
+    public Page get(Connection conn, QueryScope scope, int afterId, int limit) throws SQLException {
+        Page page = getIfPresent(afterId, limit);
+        if (page != null) {
+            return page;
+        }
+        long loadVersion;
+        synchronized (this) {
+            loadVersion = version;
+        }
+        page = load(conn, scope, afterId, limit);
+        synchronized (this) {
+            if (version == loadVersion) { // a job posted meanwhile may be missing from what we read
+                pages.put(key(afterId, limit), page);
+                evict();
+            }
+        }
+        return page;
+    }
+
+    // Called after a job is inserted, here or (through the change feed) in another process. Jobs get increasing
+    // ids, so only the tail page changes; the rare job inserted below the tail invalidates everything.
+    public synchronized void jobAdded(int jobId, String title, double salary) {
+        version++;
+        for (Map.Entry<Long, Page> entry : pages.entrySet()) {
+            Page page = entry.getValue();
+            if (jobId <= page.afterId || (!page.isTail() && jobId > page.lastId())) {
+                continue; // belongs to another page
+            }
+            if (jobId <= page.lastId()) {
+                if (Arrays.binarySearch(page.ids, 0, page.size, jobId) >= 0) {
+                    continue; // already there, e.g. reported again by the change feed
+                }
+                invalidateAll(); // lands between cached rows
+                return;
+            }
+            int[] ids = Arrays.copyOf(page.ids, page.size + 1);
+            String[] titles = Arrays.copyOf(page.titles, page.size + 1);
+            double[] salaries = Arrays.copyOf(page.salaries, page.size + 1);
+            ids[page.size] = jobId;
+            titles[page.size] = title;
+            salaries[page.size] = salary;
+            entry.setValue(new Page(page.afterId, page.limit, ids, titles, salaries, page.size + 1, page.loadedAt));
+            patches.incrementAndGet();
+        }
+    }
+
+    // For changes the cache cannot patch, such as deleted or archived jobs
+    public synchronized void invalidateAll() {
+        version++;
+        pages.clear();
+        invalidations.incrementAndGet();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), expirations.get(), patches.get(),
+                invalidations.get(), pages.size());
+    }
+
+    private void evict() {
+        Iterator<Page> it = pages.values().iterator();
+        while (pages.size() > maxPages && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static Page load(Connection conn, QueryScope scope, int afterId, int limit) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(JobTableModel.PAGE_SQL)) {
+            if (scope != null) {
+                scope.track(pstmt);
+            }
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int[] ids = new int[limit];
+                String[] titles = new String[limit];
+                double[] salaries = new double[limit];
+                int n = 0;
+                while (rs.next()) {
+                    ids[n] = rs.getInt(1);
+                    titles[n] = rs.getString(2);
+                    salaries[n] = rs.getDouble(3);
+                    n++;
+                }
+                return new Page(afterId, limit, ids, titles, salaries, n, System.currentTimeMillis());
+            }
+        }
+    }
+
+    private static Long key(int afterId, int limit) {
+        return ((long) afterId << 32) | limit;
+    }
+}
@@ -0,0 +1,615 @@
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bulk job posting from an ATS export: CSV with a header row naming the title, description and salary columns,
+// or JSON lines with fields of those names; other columns and fields are ignored. Every job goes to the
+// importing employer, whatever the file says.
+//
+// The file is read once as a stream. Records are cut into chunks of CHUNK rows, validated in parallel on the
+// worker pool and saved in file order, each chunk with one JDBC batch in its own transaction
+// (JobService.postAll), so memory holds at most a few chunks whatever the file size. A bad row is reported
+// with its line number and skipped; a database error stops the import, keeping the chunks already saved.
+class JobImport implements AutoCloseable {
+    static final int CHUNK = 1_000;
+    private static final int MAX_ERRORS = 1_000;             // reported; later ones are only counted
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+    private static final int MAX_TITLE_CHARS = 255;          // jobs.title VARCHAR(255)
+    private static final int MAX_DESCRIPTION_BYTES = 65_535; // jobs.description TEXT
+    private static final double MAX_SALARY = 1e10;           // jobs.salary DECIMAL(12,2)
+    private static final Object NESTED = new Object();       // a JSON object or array value
+
+    enum Format {
+        CSV, JSONL;
+
+        // From a file name or a format parameter: csv, or jsonl / ndjson / json; null if neither
+        static Format of(String name) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (lower.endsWith("csv")) {
+                return CSV;
+            }
+            return lower.endsWith("jsonl") || lower.endsWith("ndjson") || lower.endsWith("json") ? JSONL : null;
+        }
+    }
+
+    // A row that was not imported; line is where the row starts in the file
+    record RowError(long line, String message) {
+    }
+
+    // What one import did. rows counts every record read, header excluded; errors holds the first MAX_ERRORS.
+    record Report(long rows, long imported, long failed, List<RowError> errors, long nanos, boolean cancelled) {
+        double rowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1e9 / nanos;
+        }
+    }
+
+    // Called on the importing thread after each chunk is saved
+    interface Progress {
+        void update(long bytesRead, long rowsRead, long imported);
+
+        // Checked between chunks; the chunks saved so far stay saved
+        default boolean isCancelled() {
+            return false;
+        }
+    }
+
+    // One record as read, before validation: CSV values or a JSON line
+    private record Raw(long line, String[] values, String json, String error) {
+    }
+
+    private record Checked(List<JobService.Posting> postings, List<RowError> errors) {
+    }
+
+    private final JobService jobs;
+    private final int threads;
+    private final ThreadPoolExecutor workers;
+
+    public JobImport(JobService jobs, int threads) {
+        this.jobs = jobs;
+        this.threads = threads;
+        AtomicInteger counter = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "job-import-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    // One validation thread per core
+    static JobImport fromSystemProperties(JobService jobs) {
+        return new JobImport(jobs, Runtime.getRuntime().availableProcessors());
+    }
+
+    // Imports the file for the employer, writing through conn. Fails with an IOException if the file cannot be
+    // read as the format at all (no usable CSV header, a quote never closed); bad rows only go in the report.
+    // Reading runs on a thread of its own, so parsing, validation and inserts overlap.
+    public Report run(Connection conn, InputStream in, Format format, int employerId, Progress progress)
+            throws IOException, SQLException {
+        long start = System.nanoTime();
+        CountingInputStream counted = new CountingInputStream(in);
+        Records records = new Records(new BufferedReader(new InputStreamReader(counted, StandardCharsets.UTF_8),
+                64 * 1024));
+        int[] columns = format == Format.CSV ? header(records.nextCsv()) : null;
+
+        // Chunks in file order, each validating or validated; a null result marks the end of the file
+        BlockingQueue<CompletableFuture<Checked>> chunks = new ArrayBlockingQueue<>(2 * threads);
+        AtomicLong rows = new AtomicLong();
+        AtomicReference<IOException> readFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                while (true) {
+                    List<Raw> chunk = new ArrayList<>(CHUNK);
+                    Raw raw;
+                    while (chunk.size() < CHUNK && (raw = format == Format.CSV ? records.nextCsvRow()
+                            : records.nextJsonLine()) != null) {
+                        chunk.add(raw);
+                    }
+                    rows.addAndGet(chunk.size());
+                    if (chunk.isEmpty()) {
+                        chunks.put(CompletableFuture.completedFuture(null));
+                        return;
+                    }
+                    chunks.put(CompletableFuture.supplyAsync(() -> check(chunk, columns), workers));
+                }
+            } catch (InterruptedException e) {
+                // the import stopped
+            } catch (Throwable e) {
+                IOException failure = e instanceof IOException io ? io
+                        : new IOException("Reading the file failed: " + e, e);
+                readFailure.set(failure);
+                try {
+                    chunks.put(CompletableFuture.failedFuture(failure)); // waits for room like any chunk
+                } catch (InterruptedException stopped) {
+                    // the import stopped
+                }
+            }
+        }, "job-import-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        List<RowError> errors = new ArrayList<>();
+        List<CompletableFuture<Void>> indexing = new ArrayList<>();
+        long imported = 0, failed = 0;
+        boolean cancelled = false;
+        try {
+            Checked checked;
+            while ((checked = await(next(chunks, reader, readFailure))) != null) {
+                failed += checked.errors().size();
+                for (RowError error : checked.errors()) {
+                    if (errors.size() < MAX_ERRORS) {
+                        errors.add(error);
+                    }
+                }
+                List<JobService.Posting> postings = checked.postings();
+                if (!postings.isEmpty()) {
+                    int[] ids;
+                    try {
+                        ids = jobs.postAll(conn, employerId, postings);
+                    } catch (SQLException e) {
+                        throw new SQLException("Import stopped after " + imported + " jobs were saved: "
+                                + e.getMessage(), e);
+                    }
+                    imported += ids.length;
+                    indexing.add(CompletableFuture.runAsync(() -> jobs.indexPosted(ids, postings), workers));
+                }
+                progress.update(counted.count, rows.get(), imported);
+                if (progress.isCancelled()) {
+                    cancelled = true;
+                    break;
+                }
+            }
+            CompletableFuture.allOf(indexing.toArray(new CompletableFuture<?>[0])).join();
+            return new Report(rows.get(), imported, failed, errors, System.nanoTime() - start, cancelled);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } finally {
+            reader.interrupt();
+            for (CompletableFuture<Checked> future : chunks) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    // The next chunk in file order. Polls rather than waits so that a reader gone without handing over the end
+    // of the file or its failure ends the import instead of holding the connection forever.
+    private static CompletableFuture<Checked> next(BlockingQueue<CompletableFuture<Checked>> chunks, Thread reader,
+                                                   AtomicReference<IOException> readFailure)
+            throws IOException, InterruptedException {
+        while (true) {
+            CompletableFuture<Checked> future = chunks.poll(1, TimeUnit.SECONDS);
+            if (future != null) {
+                return future;
+            }
+            if (!reader.isAlive()) {
+                future = chunks.poll(); // handed over just before it ended
+                if (future != null) {
+                    return future;
+                }
+                IOException failure = readFailure.get();
+                throw failure != null ? failure : new IOException("Reading the file stopped unexpectedly");
+            }
+        }
+    }
+
+    private static Checked await(CompletableFuture<Checked> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Validating rows failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    // Column index of title, description (-1 if absent) and salary
+    private static int[] header(String[] names) throws IOException {
+        if (names == null) {
+            throw new IOException("The file is empty");
+        }
+        int[] columns = {-1, -1, -1};
+        String[] wanted = {"title", "description", "salary"};
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim().toLowerCase(Locale.ROOT);
+            for (int w = 0; w < wanted.length; w++) {
+                if (name.equals(wanted[w]) && columns[w] == -1) {
+                    columns[w] = i;
+                }
+            }
+        }
+        if (columns[0] == -1 || columns[2] == -1) {
+            throw new IOException("The first line must name the title and salary columns; found: "
+                    + String.join(", ", names));
+        }
+        return columns;
+    }
+
+    // Runs on the worker pool
+    private static Checked check(List<Raw> chunk, int[] columns) {
+        List<JobService.Posting> postings = new ArrayList<>(chunk.size());
+        List<RowError> errors = new ArrayList<>();
+        for (Raw raw : chunk) {
+            try {
+                if (raw.error() != null) {
+                    throw new IllegalArgumentException(raw.error());
+                }
+                postings.add(raw.json() != null ? fromJson(raw.json()) : fromCsv(raw.values(), columns));
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(raw.line(), e.getMessage()));
+            }
+        }
+        return new Checked(postings, errors);
+    }
+
+    private static JobService.Posting fromCsv(String[] values, int[] columns) {
+        int needed = Math.max(columns[0], Math.max(columns[1], columns[2])) + 1;
+        if (values.length < needed) {
+            throw new IllegalArgumentException("Expected at least " + needed + " columns, found " + values.length);
+        }
+        return posting(values[columns[0]], columns[1] == -1 ? null : values[columns[1]], values[columns[2]]);
+    }
+
+    private static JobService.Posting fromJson(String line) {
+        Map<String, Object> fields = new Json(line).object();
+        return posting(fields.get("title"), fields.get("description"), fields.get("salary"));
+    }
+
+    // The same rules as the Post Job form, plus the column sizes
+    private static JobService.Posting posting(Object title, Object description, Object salary) {
+        if (!(title instanceof String) || ((String) title).isBlank()) {
+            throw new IllegalArgumentException("title is missing or not text");
+        }
+        String t = ((String) title).trim();
+        if (t.length() > MAX_TITLE_CHARS) {
+            throw new IllegalArgumentException("title is longer than " + MAX_TITLE_CHARS + " characters");
+        }
+        if (description != null && !(description instanceof String)) {
+            throw new IllegalArgumentException("description is not text");
+        }
+        String d = description == null ? "" : (String) description;
+        if (d.length() * 3L > MAX_DESCRIPTION_BYTES
+                && d.getBytes(StandardCharsets.UTF_8).length > MAX_DESCRIPTION_BYTES) {
+            throw new IllegalArgumentException("description is longer than " + MAX_DESCRIPTION_BYTES + " bytes");
+        }
+        double s;
+        if (salary instanceof Double) {
+            s = (Double) salary;
+        } else if (salary instanceof String && !((String) salary).isBlank()) {
+            try {
+                s = Double.parseDouble(((String) salary).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("salary is not a number: " + salary);
+            }
+        } else {
+            throw new IllegalArgumentException("salary is missing");
+        }
+        if (!(s >= 0 && s < MAX_SALARY)) {
+            throw new IllegalArgumentException("salary is out of range: " + salary);
+        }
+        return new JobService.Posting(t, d, s);
+    }
+
+    // Reads one record at a time, counting lines; a record longer than MAX_RECORD_CHARS is refused rather than
+    // buffered, so a quote left open cannot pull the rest of the file into memory
+    private static final class Records {
+        private final BufferedReader in;
+        private long line = 1;
+        private int pushedBack = -2;
+
+        Records(BufferedReader in) throws IOException {
+            this.in = in;
+            int first = in.read();
+            if (first != '\uFEFF') {
+                pushedBack = first; // not a byte order mark
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack != -2) {
+                int c = pushedBack;
+                pushedBack = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        // Consumes the rest of a line break that started with c
+        private void newline(int c) throws IOException {
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    pushedBack = next;
+                }
+            }
+            if (c == '\r' || c == '\n') {
+                line++;
+            }
+        }
+
+        // The first character of the next non-blank line, or -1 at the end
+        private int skipBlankLines() throws IOException {
+            int c = read();
+            while (c == '\r' || c == '\n') {
+                newline(c);
+                c = read();
+            }
+            return c;
+        }
+
+        Raw nextCsvRow() throws IOException {
+            long start = line;
+            String[] values = nextCsv();
+            return values == null ? null : new Raw(start, values, null, null);
+        }
+
+        // RFC 4180: fields separated by commas, optionally quoted; a quoted field may hold commas, line breaks
+        // and doubled quotes. Null at the end of the file.
+        String[] nextCsv() throws IOException {
+            int c = skipBlankLines();
+            if (c == -1) {
+                return null;
+            }
+            long start = line;
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int chars = 0;
+            while (true) {
+                if (++chars > MAX_RECORD_CHARS) {
+                    throw new IOException("Line " + start + ": record longer than " + MAX_RECORD_CHARS
+                            + " characters; is a quote left open?");
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Line " + start + ": quoted field not closed");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next != '"') {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                } else if (c == ',') {
+                    values.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    newline(c);
+                    values.add(field.toString());
+                    return values.toArray(new String[0]);
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        // The next non-blank line, or null at the end of the file
+        Raw nextJsonLine() throws IOException {
+            int c = skipBlankLines();
+            if (c == -1) {
+                return null;
+            }
+            long start = line;
+            StringBuilder text = new StringBuilder();
+            boolean tooLong = false;
+            while (c != '\r' && c != '\n' && c != -1) {
+                if (text.length() < MAX_RECORD_CHARS) {
+                    text.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+                c = read();
+            }
+            newline(c);
+            return tooLong ? new Raw(start, null, null, "line longer than " + MAX_RECORD_CHARS + " characters")
+                    : new Raw(start, null, text.toString(), null);
+        }
+    }
+
+    // Just enough JSON for one object per line: strings, numbers (as Double), true, false and null at the top
+    // level; nested objects and arrays are skipped
+    private static final class Json {
+        private final String s;
+        private int pos;
+
+        Json(String s) {
+            this.s = s;
+        }
+
+        Map<String, Object> object() {
+            Map<String, Object> fields = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+            } else {
+                do {
+                    String name = string().toLowerCase(Locale.ROOT);
+                    expect(':');
+                    fields.put(name, value());
+                } while (comma());
+                expect('}');
+            }
+            if (peek() != -1) {
+                throw error("text after the object");
+            }
+            return fields;
+        }
+
+        private Object value() {
+            int c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                skipNested();
+                return NESTED;
+            }
+            if (s.startsWith("true", pos) || s.startsWith("null", pos)) {
+                pos += 4;
+                return c == 't' ? Boolean.TRUE : null;
+            }
+            if (s.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            int start = pos;
+            while (pos < s.length() && "+-0123456789.eE".indexOf(s.charAt(pos)) >= 0) {
+                pos++;
+            }
+            try {
+                return Double.parseDouble(s.substring(start, pos));
+            } catch (NumberFormatException e) {
+                throw error("expected a value");
+            }
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder out = new StringBuilder();
+            while (true) {
+                if (pos >= s.length()) {
+                    throw error("string not closed");
+                }
+                char c = s.charAt(pos++);
+                if (c == '"') {
+                    return out.toString();
+                }
+                if (c != '\\') {
+                    out.append(c);
+                    continue;
+                }
+                if (pos >= s.length()) {
+                    throw error("string not closed");
+                }
+                char e = s.charAt(pos++);
+                switch (e) {
+                    case 'n' -> out.append('\n');
+                    case 't' -> out.append('\t');
+                    case 'r' -> out.append('\r');
+                    case 'b' -> out.append('\b');
+                    case 'f' -> out.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > s.length()) {
+                            throw error("bad \\u escape");
+                        }
+                        try {
+                            out.append((char) Integer.parseInt(s.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw error("bad \\u escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> out.append(e); // \" \\ \/
+                }
+            }
+        }
+
+        private void skipNested() {
+            int depth = 0;
+            do {
+                if (pos >= s.length()) {
+                    throw error("object or array not closed");
+                }
+                char c = s.charAt(pos);
+                if (c == '"') {
+                    string();
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                pos++;
+            } while (depth > 0);
+        }
+
+        private boolean comma() {
+            if (peek() == ',') {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        // The next non-space character without consuming it, or -1 at the end
+        private int peek() {
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) {
+                pos++;
+            }
+            return pos < s.length() ? s.charAt(pos) : -1;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("not a JSON object: " + message + " at column " + (pos + 1));
+        }
+    }
+
+    // Bytes read so far, for progress against the file size
+    private static final class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
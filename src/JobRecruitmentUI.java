@@ -0,0 +1,1591 @@
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.*;
+import java.sql.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// UI + Logic
+class JobRecruitmentUI {
+    private JFrame frame;
+    private final Metrics metrics = new Metrics(); // database calls and UI stalls, see Diagnostics
+    private final Screens screens = new Screens(metrics);
+    private JTextField emailField, passwordField;
+    private JLabel connectionStatus;
+    // Completes once the fields below it are set by the startup thread; screens past Login wait for it
+    private final CompletableFuture<Void> connected = new CompletableFuture<>();
+    private ConnectionPool pool;
+    private ReplicaRouter router; // reads to replicas when -Ddb.replicas is set
+    private DbExecutor db;
+    private MetricsLog metricsLog;
+    private EdtStallDetector stallDetector;
+    private JDialog diagnostics;
+    private final QueryScope appScope = new QueryScope(); // login/registration work, never cancelled
+    private final PasswordHasher hasher = PasswordHasher.fromSystemProperties();
+    private final UserService users = new UserService(hasher, LoginRateLimiter.fromSystemProperties());
+    private final MatchingEngine matcher = MatchingEngine.fromSystemProperties();
+    private ResumeIndex resumeIndex;
+    private final JobService jobs = new JobService(new JobSearchIndex(), JobCatalogCache.fromSystemProperties(), matcher);
+    private final JobImport importer = JobImport.fromSystemProperties(jobs);
+    private ApplicationService applications;
+    private ChangeFeed changes; // rows changed by other users, for the open screens
+    private ApplicationIngestQueue ingest;
+    private ResumeStore resumeStore;
+    private final SessionCache sessions = new SessionCache(8, 30 * 60 * 1000); // kiosk use: a few users, 30 min idle
+    private String sessionId;
+
+    // Runs on the EDT. The login screen shows first; the database is opened behind it.
+    public JobRecruitmentUI() {
+        initializeUI();
+        metrics.recordTime("startup.frame", ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000);
+        connect();
+    }
+
+    private void connect() {
+        long start = System.nanoTime();
+        Thread startup = new Thread(() -> {
+            try {
+                initializeDB();
+                initializeResumeStore();
+                metrics.recordTime("startup.connect", System.nanoTime() - start);
+                connected.complete(null);
+            } catch (Exception e) {
+                connected.completeExceptionally(e);
+            }
+        }, "startup");
+        startup.setDaemon(true);
+        startup.start();
+        DbExecutor.onEdt(connected, done -> connectionStatus.setText(" "), e -> {
+            boolean storage = e instanceof IOException;
+            connectionStatus.setText(storage ? "Resume storage unavailable" : "Database unavailable");
+            JOptionPane.showMessageDialog(frame, storage ? e.getMessage()
+                    : "Database Connection Failed: " + e.getMessage());
+        });
+    }
+
+    // Package-private for ScreenBenchmarks
+    CompletableFuture<Void> connected() {
+        return connected;
+    }
+
+    Metrics metrics() {
+        return metrics;
+    }
+
+    Screens screens() {
+        return screens;
+    }
+
+    // Fails startup rather than leave screens with no application service
+    private void initializeResumeStore() throws IOException {
+        try {
+            resumeStore = new LocalResumeStore(LocalResumeStore.defaultDirectory());
+            ingest = new ApplicationIngestQueue(ApplicationIngestQueue.defaultDirectory("queue"), 10_000, pool,
+                    resumeStore);
+        } catch (IOException e) {
+            throw new IOException("Resume storage unavailable: " + e.getMessage(), e);
+        }
+        resumeIndex = ResumeIndex.fromSystemProperties(pool, resumeStore);
+        applications = new ApplicationService(resumeStore, ingest, matcher, resumeIndex);
+        if (changes != null) {
+            applications.follow(changes, appScope);
+        }
+        // Reclaim resumes whose applications were all deleted
+        Thread gc = new Thread(() -> {
+            try {
+                resumeStore.collectGarbage();
+            } catch (IOException e) {
+                System.err.println("Resume garbage collection failed: " + e.getMessage());
+            }
+        }, "resume-gc");
+        gc.setDaemon(true);
+        gc.start();
+    }
+
+    // The JDBC driver on the classpath registers itself; -Ddb.url picks the database
+    private void initializeDB() throws SQLException {
+        pool = ConnectionPool.fromSystemProperties(8);
+        router = ReplicaRouter.fromSystemProperties(pool, 8);
+        db = new DbExecutor(router, 4, 100, metrics);
+        try {
+            metricsLog = MetricsLog.fromSystemProperties(metrics, router);
+        } catch (IOException e) {
+            System.err.println("Metrics file unavailable: " + e.getMessage());
+        }
+        // Bring the schema up to date; this also reports a bad URL or password at startup
+        try (Connection conn = pool.getConnection()) {
+            SchemaMigrations.migrate(conn);
+        }
+        changes = ChangeFeed.fromSystemProperties(pool);
+        jobs.follow(changes, appScope);
+        changes.start();
+    }
+
+    private void initializeUI() {
+        stallDetector = EdtStallDetector.install(metrics);
+        frame = new JFrame("Job Recruitment System");
+        frame.setSize(800, 600);
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                stallDetector.close();
+                hasher.close();
+                matcher.close();
+                importer.close();
+                if (!connected.isDone()) {
+                    return; // still connecting: nothing to flush
+                }
+                if (changes != null) {
+                    changes.close();
+                }
+                if (ingest != null) {
+                    ingest.close(); // unsaved applications stay queued on disk
+                }
+                if (db != null) {
+                    db.close();
+                }
+                if (metricsLog != null) {
+                    metricsLog.close();
+                }
+                if (resumeIndex != null) {
+                    resumeIndex.close();
+                }
+                if (router != null) {
+                    router.close();
+                }
+                if (pool != null) {
+                    pool.close();
+                }
+            }
+        });
+        frame.getContentPane().setBackground(ThemeManager.BACKGROUND_COLOR);
+
+        JPanel mainPanel = screens.panel();
+        mainPanel.setBackground(ThemeManager.BACKGROUND_COLOR);
+        screens.register("Login", () -> screen(createLoginPanel(), () -> passwordField.setText("")));
+        screens.register("Register", this::registerScreen);
+        screens.register("EmployerDashboard", () -> dashboardScreen("Employer"));
+        screens.register("SeekerDashboard", () -> dashboardScreen("JobSeeker"));
+        screens.register("PostJob", this::postJobScreen);
+        screens.register("SearchJobs", this::searchJobsScreen);
+        screens.register("ViewApplications", this::viewApplicationsScreen);
+        screens.register("Analytics", this::analyticsScreen);
+        screens.register("ViewStatus", this::viewStatusScreen);
+        screens.show("Login");
+
+        // Ctrl+Shift+D opens Diagnostics from any screen, including Login when the database is slow
+        JRootPane root = frame.getRootPane();
+        root.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke(KeyEvent.VK_D,
+                InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        root.getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                showDiagnostics();
+            }
+        });
+
+        frame.add(mainPanel);
+        frame.setVisible(true);
+    }
+
+    // A screen whose only work on each visit is `onShown`
+    private static Screens.Screen screen(JComponent component, Runnable onShown) {
+        return new Screens.Screen() {
+            @Override
+            public JComponent component() {
+                return component;
+            }
+
+            @Override
+            public void shown() {
+                onShown.run();
+            }
+        };
+    }
+
+    private JPanel createLoginPanel() {
+        JPanel backgroundPanel = ThemeManager.createStyledPanel(false);
+        backgroundPanel.setLayout(new BorderLayout());
+
+        // ===== Combined logo + form panel =====
+        JPanel combinedPanel = new JPanel();
+        combinedPanel.setOpaque(false);
+        combinedPanel.setLayout(new BoxLayout(combinedPanel, BoxLayout.Y_AXIS));
+
+        // Logo panel (tight spacing)
+        JPanel logoPanel = new JPanel();
+        logoPanel.setOpaque(false);
+        logoPanel.setLayout(new BorderLayout());
+        logoPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, 0, 0)); // 0 gap
+
+        try {
+            ImageIcon logoIcon = new ImageIcon(getClass().getResource("resources/logo.png"));
+            Image scaledLogo = logoIcon.getImage().getScaledInstance(150, 150, Image.SCALE_SMOOTH);
+            JLabel logoLabel = new JLabel(new ImageIcon(scaledLogo));
+            logoLabel.setHorizontalAlignment(JLabel.CENTER);
+            logoPanel.add(logoLabel, BorderLayout.CENTER);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(frame, "Error loading logo: " + e.getMessage());
+        }
+
+        // Login form panel
+        JPanel formPanel = ThemeManager.createStyledPanel(true);
+        formPanel.setLayout(new BoxLayout(formPanel, BoxLayout.Y_AXIS));
+        formPanel.setBorder(BorderFactory.createEmptyBorder(10, 40, 30, 40));
+        formPanel.setMaximumSize(new Dimension(400, 500));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("LOGIN", true);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER); // Ensure center alignment visually
+
+        emailField = ThemeManager.createStyledTextField(20);
+        emailField.setMaximumSize(new Dimension(300, 30));
+        emailField.setPreferredSize(new Dimension(300, 30));
+        emailField.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        passwordField = new JPasswordField(20);
+        passwordField.setFont(ThemeManager.BODY_FONT);
+        passwordField.setMaximumSize(new Dimension(300, 30));
+        passwordField.setPreferredSize(new Dimension(300, 30));
+        passwordField.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JButton userLoginButton = ThemeManager.createStyledButton("User Login");
+        userLoginButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        userLoginButton.addActionListener(e -> authenticateUser("JobSeeker"));
+
+        JButton recruiterLoginButton = ThemeManager.createStyledButton("Recruiter Login");
+        recruiterLoginButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        recruiterLoginButton.addActionListener(e -> authenticateUser("Employer"));
+
+        JButton registerButton = ThemeManager.createStyledButton("Register");
+        registerButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        registerButton.addActionListener(e -> screens.show("Register"));
+
+        connectionStatus = ThemeManager.createStyledLabel(connected.isDone() ? " " : "Connecting to the database...",
+                false);
+        connectionStatus.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        formPanel.add(titleLabel);
+        formPanel.add(Box.createVerticalStrut(20));
+
+        // Custom layout for email
+        JPanel emailPanel = new JPanel();
+        emailPanel.setLayout(new BoxLayout(emailPanel, BoxLayout.Y_AXIS));
+        emailPanel.setOpaque(false);
+        JLabel emailLabel = new JLabel("Email:");
+        emailLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        emailPanel.add(emailLabel);
+        emailPanel.add(Box.createVerticalStrut(5));
+        emailPanel.add(emailField);
+
+        // Custom layout for password
+        JPanel passwordPanel = new JPanel();
+        passwordPanel.setLayout(new BoxLayout(passwordPanel, BoxLayout.Y_AXIS));
+        passwordPanel.setOpaque(false);
+        JLabel passwordLabel = new JLabel("Password:");
+        passwordLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        passwordPanel.add(passwordLabel);
+        passwordPanel.add(Box.createVerticalStrut(5));
+        passwordPanel.add(passwordField);
+
+        formPanel.add(emailPanel);
+        formPanel.add(Box.createVerticalStrut(20));
+        formPanel.add(passwordPanel);
+        formPanel.add(Box.createVerticalStrut(25));
+
+        formPanel.add(userLoginButton);
+        formPanel.add(Box.createVerticalStrut(10));
+        formPanel.add(recruiterLoginButton);
+        formPanel.add(Box.createVerticalStrut(10));
+        formPanel.add(registerButton);
+        formPanel.add(Box.createVerticalStrut(10));
+        formPanel.add(connectionStatus);
+
+        // Add logo and form to combined panel
+        combinedPanel.add(logoPanel);
+        combinedPanel.add(Box.createVerticalStrut(5)); // Tiny spacing
+        combinedPanel.add(formPanel);
+
+        // ===== Center combined panel on screen =====
+        JPanel centerPanel = new JPanel(new GridBagLayout());
+        centerPanel.setOpaque(false);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.gridx = gbc.gridy = 0;
+        gbc.weightx = 1;
+        gbc.weighty = 1;
+        gbc.anchor = GridBagConstraints.CENTER;
+        centerPanel.add(combinedPanel, gbc);
+
+        backgroundPanel.add(centerPanel, BorderLayout.CENTER);
+
+        return backgroundPanel;
+    }
+
+    private JPanel createLabeledField(String label, JComponent field) {
+        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        panel.setOpaque(false);
+        JLabel jLabel = ThemeManager.createStyledLabel(label, false);
+        jLabel.setPreferredSize(new Dimension(100, 20));
+        jLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        panel.add(jLabel);
+        panel.add(field);
+        return panel;
+    }
+
+    private void authenticateUser(String role) {
+        String email = emailField.getText();
+        String password = new String(((JPasswordField) passwordField).getPassword());
+        // Look up, check the password on the hasher pool, then store an upgraded hash if the row needs one.
+        // A click while the database is still connecting goes through once it is up.
+        CompletableFuture<User> login = connected.thenCompose(done ->
+                        db.submit(appScope, "login", conn -> users.findCredentials(conn, email, role)))
+                .thenCompose(candidates -> users.checkPassword(email, password, candidates))
+                .thenCompose(result -> result == null || result.upgradedHash == null
+                        ? CompletableFuture.completedFuture(result == null ? null : result.user)
+                        : db.submit(appScope, "login.rehash", conn -> {
+                            users.saveUpgradedHash(conn, result);
+                            return result.user;
+                        }));
+        DbExecutor.onEdt(login, user -> {
+            if (user != null) {
+                JOptionPane.showMessageDialog(frame, "Login Successful as " + role);
+                startSession(user);
+            } else {
+                JOptionPane.showMessageDialog(frame, "Invalid Credentials or Incorrect Role");
+            }
+        }, this::showError);
+    }
+
+    // Package-private for ScreenBenchmarks, which signs in without the login form
+    void startSession(User user) {
+        sessionId = sessions.open(user).id;
+        user.login();
+        showDashboard();
+    }
+
+    // The logged-in user, or null (after sending them back to Login) if the session has expired
+    private User currentUser() {
+        Session session = sessions.get(sessionId);
+        if (session == null) {
+            sessionId = null;
+            JOptionPane.showMessageDialog(frame, "Your session has expired. Please log in again.");
+            screens.show("Login");
+            return null;
+        }
+        return session.user;
+    }
+
+    // A scope for work done for the signed-in user: its reads see the user's own writes
+    private QueryScope sessionScope() {
+        Session session = sessions.get(sessionId);
+        return new QueryScope(session == null ? null : session.writes);
+    }
+
+    private void showDashboard() {
+        User user = currentUser();
+        if (user != null) {
+            screens.show(user.role.equals("Employer") ? "EmployerDashboard" : "SeekerDashboard");
+        }
+    }
+
+    private void logout() {
+        Session session = sessions.get(sessionId);
+        if (session != null) {
+            session.user.logout();
+        }
+        sessions.close(sessionId);
+        sessionId = null;
+        screens.show("Login");
+    }
+
+    // Non-modal, so the screens can be used while it updates
+    private void showDiagnostics() {
+        if (diagnostics == null) {
+            DiagnosticsPanel panel = new DiagnosticsPanel(metrics, () -> connected.isDone() ? router : null);
+            diagnostics = new JDialog(frame, "Diagnostics", false);
+            diagnostics.setDefaultCloseOperation(WindowConstants.HIDE_ON_CLOSE);
+            diagnostics.add(panel);
+            diagnostics.setSize(1000, 450);
+            diagnostics.setLocationRelativeTo(frame);
+            diagnostics.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowActivated(WindowEvent e) {
+                    panel.start();
+                }
+
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    panel.stop();
+                }
+            });
+        }
+        diagnostics.setVisible(true);
+        diagnostics.toFront();
+    }
+
+    private void showError(Throwable e) {
+        JOptionPane.showMessageDialog(frame, "Error: " + e.getMessage());
+    }
+
+    private Screens.Screen registerScreen() {
+        JPanel registerPanel = ThemeManager.createStyledPanel(true);
+        registerPanel.setLayout(new BoxLayout(registerPanel, BoxLayout.Y_AXIS));
+        registerPanel.setBorder(BorderFactory.createEmptyBorder(30, 40, 30, 40));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("REGISTER", true);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JTextField nameField = ThemeManager.createStyledTextField(20);
+        JTextField emailField = ThemeManager.createStyledTextField(20);
+        JPasswordField passwordField = new JPasswordField(20);
+        passwordField.setFont(ThemeManager.BODY_FONT);
+        passwordField.setMaximumSize(new Dimension(300, 30));
+
+        // Add phone number field
+        JTextField phoneField = ThemeManager.createStyledTextField(20);
+        phoneField.setFont(ThemeManager.BODY_FONT);
+
+        JComboBox<String> roleCombo = new JComboBox<>(new String[]{"JobSeeker", "Employer"});
+        roleCombo.setFont(ThemeManager.BODY_FONT);
+        roleCombo.setMaximumSize(new Dimension(300, 30));
+
+        JButton submitButton = ThemeManager.createStyledButton("Submit");
+        submitButton.addActionListener(e -> {
+            String name = nameField.getText();
+            String email = emailField.getText();
+            String password = new String(passwordField.getPassword());
+            String phone = phoneField.getText(); // Get phone number
+            String role = (String) roleCombo.getSelectedItem();
+
+            // Validate phone number (basic validation)
+            if (!UserService.isValidPhone(phone)) {
+                JOptionPane.showMessageDialog(frame, "Please enter a valid 10-digit phone number");
+                return;
+            }
+
+            submitButton.setEnabled(false);
+            DbExecutor.onEdt(connected.thenCompose(done -> users.hashForRegistration(password, phone, role))
+                    .thenCompose(hash -> db.submit(appScope, "register", conn -> {
+                        users.register(conn, name, email, hash, phone, role);
+                        return null;
+                    })), done -> {
+                submitButton.setEnabled(true);
+                JOptionPane.showMessageDialog(frame, "Registration Successful");
+                screens.show("Login");
+            }, ex -> {
+                submitButton.setEnabled(true);
+                showError(ex);
+            });
+        });
+
+        JButton cancelButton = ThemeManager.createStyledButton("Cancel");
+        cancelButton.addActionListener(e -> screens.show("Login"));
+
+        registerPanel.add(titleLabel);
+        registerPanel.add(Box.createVerticalStrut(20));
+        registerPanel.add(createLabeledField("Name:", nameField));
+        registerPanel.add(Box.createVerticalStrut(15));
+        registerPanel.add(createLabeledField("Email:", emailField));
+        registerPanel.add(Box.createVerticalStrut(15));
+        registerPanel.add(createLabeledField("Password:", passwordField));
+        registerPanel.add(Box.createVerticalStrut(15));
+        registerPanel.add(createLabeledField("Phone:", phoneField)); // Add phone field
+        registerPanel.add(Box.createVerticalStrut(15));
+        registerPanel.add(createLabeledField("Role:", roleCombo));
+        registerPanel.add(Box.createVerticalStrut(25));
+        registerPanel.add(submitButton);
+        registerPanel.add(Box.createVerticalStrut(10));
+        registerPanel.add(cancelButton);
+
+        return screen(registerPanel, () -> {
+            nameField.setText("");
+            emailField.setText("");
+            passwordField.setText("");
+            phoneField.setText("");
+            roleCombo.setSelectedIndex(0);
+        });
+    }
+
+    private Screens.Screen dashboardScreen(String role) {
+        JPanel dashboard = ThemeManager.createStyledPanel(true);
+        dashboard.setLayout(new BoxLayout(dashboard, BoxLayout.Y_AXIS));
+        dashboard.setBorder(BorderFactory.createEmptyBorder(30, 40, 30, 40));
+
+        JLabel welcomeLabel = ThemeManager.createStyledLabel("Welcome, " + role, true);
+        welcomeLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JButton backButton = ThemeManager.createStyledButton("Logout");
+        backButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        backButton.addActionListener(e -> logout());
+
+        dashboard.add(welcomeLabel);
+        dashboard.add(Box.createVerticalStrut(30));
+
+        if (role.equals("Employer")) {
+            JButton postJobButton = ThemeManager.createStyledButton("Post Job");
+            postJobButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+            postJobButton.addActionListener(e -> screens.show("PostJob"));
+
+            JButton viewApplicationsButton = ThemeManager.createStyledButton("View Applications");
+            viewApplicationsButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+            viewApplicationsButton.addActionListener(e -> screens.show("ViewApplications"));
+
+            JButton analyticsButton = ThemeManager.createStyledButton("Analytics");
+            analyticsButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+            analyticsButton.addActionListener(e -> screens.show("Analytics"));
+
+            dashboard.add(postJobButton);
+            dashboard.add(Box.createVerticalStrut(15));
+            dashboard.add(viewApplicationsButton);
+            dashboard.add(Box.createVerticalStrut(15));
+            dashboard.add(analyticsButton);
+        }
+        else if (role.equals("JobSeeker")) {
+            JButton searchJobButton = ThemeManager.createStyledButton("Search Jobs");
+            searchJobButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+            searchJobButton.addActionListener(e -> screens.show("SearchJobs"));
+
+            JButton viewStatusButton = ThemeManager.createStyledButton("View Application Status");
+            viewStatusButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+            viewStatusButton.addActionListener(e -> screens.show("ViewStatus"));
+
+            dashboard.add(searchJobButton);
+            dashboard.add(Box.createVerticalStrut(15));
+            dashboard.add(viewStatusButton);
+        }
+
+        JButton diagnosticsButton = ThemeManager.createStyledButton("Diagnostics");
+        diagnosticsButton.setAlignmentX(Component.CENTER_ALIGNMENT);
+        diagnosticsButton.addActionListener(e -> showDiagnostics());
+
+        dashboard.add(Box.createVerticalStrut(15));
+        dashboard.add(diagnosticsButton);
+        dashboard.add(Box.createVerticalStrut(30));
+        dashboard.add(backButton);
+
+        return screen(dashboard, () -> {
+        });
+    }
+
+    private Screens.Screen postJobScreen() {
+        JPanel postJobPanel = ThemeManager.createStyledPanel(true);
+        postJobPanel.setLayout(new BoxLayout(postJobPanel, BoxLayout.Y_AXIS));
+        postJobPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("Post New Job", true);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        JTextField titleField = ThemeManager.createStyledTextField(20);
+        JTextArea descArea = new JTextArea(5, 20);
+        descArea.setFont(ThemeManager.BODY_FONT);
+        descArea.setLineWrap(true);
+        JScrollPane descScroll = new JScrollPane(descArea);
+        JTextField salaryField = ThemeManager.createStyledTextField(20);
+
+        JButton submitButton = ThemeManager.createStyledButton("Submit");
+        submitButton.addActionListener(e -> {
+            String title = titleField.getText();
+            String description = descArea.getText();
+            double salary;
+            try {
+                salary = Double.parseDouble(salaryField.getText());
+            } catch (NumberFormatException ex) {
+                JOptionPane.showMessageDialog(frame, "Error: " + ex.getMessage());
+                return;
+            }
+
+            User employer = currentUser();
+            if (employer == null) {
+                return;
+            }
+
+            // Attribute the job to the logged-in employer so View Applications can be scoped to them
+            submitButton.setEnabled(false);
+            DbExecutor.onEdt(db.submit(sessionScope(), "post", conn -> jobs.post(conn, employer.userId, title, description, salary)),
+                    jobId -> {
+                submitButton.setEnabled(true);
+                JOptionPane.showMessageDialog(frame, "Job Posted Successfully");
+                showDashboard();
+            }, ex -> {
+                submitButton.setEnabled(true);
+                showError(ex);
+            });
+        });
+
+        // Many jobs at once from an ATS export, all posted for the logged-in employer
+        JButton importButton = ThemeManager.createStyledButton("Import from File...");
+        importButton.addActionListener(e -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setDialogTitle("Import Jobs (CSV or JSON lines)");
+            fileChooser.setFileFilter(new FileNameExtensionFilter("CSV or JSON lines", "csv", "jsonl", "ndjson", "json"));
+            if (fileChooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            File selectedFile = fileChooser.getSelectedFile();
+            JobImport.Format format = JobImport.Format.of(selectedFile.getName());
+            if (format == null) {
+                JOptionPane.showMessageDialog(frame, "Choose a .csv, .jsonl or .json file.");
+                return;
+            }
+            User employer = currentUser();
+            if (employer == null) {
+                return;
+            }
+            importButton.setEnabled(false);
+            long size = Math.max(1, selectedFile.length());
+            ProgressMonitor monitor = new ProgressMonitor(frame, "Importing jobs...", null, 0, 1000);
+            monitor.setMillisToDecideToPopup(300);
+            AtomicBoolean cancelled = new AtomicBoolean();
+            JobImport.Progress progress = new JobImport.Progress() {
+                @Override
+                public void update(long bytesRead, long rowsRead, long imported) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (monitor.isCanceled()) {
+                            cancelled.set(true);
+                        } else {
+                            monitor.setProgress((int) Math.min(1000, bytesRead * 1000 / size));
+                            monitor.setNote(imported + " of " + rowsRead + " jobs imported");
+                        }
+                    });
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return cancelled.get();
+                }
+            };
+            DbExecutor.onEdt(db.submit(sessionScope(), "import", conn -> {
+                try (InputStream in = Files.newInputStream(selectedFile.toPath())) {
+                    return importer.run(conn, in, format, employer.userId, progress);
+                }
+            }), report -> {
+                monitor.close();
+                importButton.setEnabled(true);
+                showImportReport(report);
+            }, ex -> {
+                monitor.close();
+                importButton.setEnabled(true);
+                showError(ex);
+            });
+        });
+
+        JButton cancelButton = ThemeManager.createStyledButton("Cancel");
+        cancelButton.addActionListener(e -> showDashboard());
+
+        postJobPanel.add(titleLabel);
+        postJobPanel.add(Box.createVerticalStrut(20));
+        postJobPanel.add(createLabeledField("Job Title:", titleField));
+        postJobPanel.add(Box.createVerticalStrut(15));
+        postJobPanel.add(createLabeledField("Description:", descScroll));
+        postJobPanel.add(Box.createVerticalStrut(15));
+        postJobPanel.add(createLabeledField("Salary:", salaryField));
+        postJobPanel.add(Box.createVerticalStrut(25));
+        postJobPanel.add(submitButton);
+        postJobPanel.add(Box.createVerticalStrut(10));
+        postJobPanel.add(importButton);
+        postJobPanel.add(Box.createVerticalStrut(10));
+        postJobPanel.add(cancelButton);
+
+        return screen(postJobPanel, () -> {
+            titleField.setText("");
+            descArea.setText("");
+            salaryField.setText("");
+        });
+    }
+
+    // Totals, then the first rows that were skipped and why
+    private void showImportReport(JobImport.Report report) {
+        StringBuilder sb = new StringBuilder(String.format("%s %d of %d jobs in %.1f s (%.0f rows/s).",
+                report.cancelled() ? "Cancelled after importing" : "Imported", report.imported(), report.rows(),
+                report.nanos() / 1e9, report.rowsPerSecond()));
+        if (report.failed() > 0) {
+            sb.append("\n").append(report.failed()).append(" rows skipped:");
+            report.errors().stream().limit(50).forEach(error ->
+                    sb.append("\nLine ").append(error.line()).append(": ").append(error.message()));
+            if (report.failed() > 50) {
+                sb.append("\n...");
+            }
+        }
+        JTextArea text = new JTextArea(sb.toString(), Math.min(15, sb.toString().split("\n").length), 60);
+        text.setEditable(false);
+        JOptionPane.showMessageDialog(frame, new JScrollPane(text), "Import Jobs", report.failed() > 0
+                ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private Screens.Screen searchJobsScreen() {
+        JPanel searchPanel = ThemeManager.createStyledPanel(true);
+        searchPanel.setLayout(new BoxLayout(searchPanel, BoxLayout.Y_AXIS));
+        searchPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("Available Jobs", true);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Non-editable table that loads pages of jobs as the user scrolls. The scope and the model last one visit.
+        AtomicReference<QueryScope> scope = new AtomicReference<>();
+        AtomicReference<JobTableModel> model = new AtomicReference<>();
+        ColumnarTableModel resultsModel = new ColumnarTableModel(new String[]{"Job ID", "Title", "Salary"},
+                Integer.class, String.class, Double.class);
+        JTable jobTable = new ColumnarTable(resultsModel);
+        jobTable.setFont(ThemeManager.BODY_FONT);
+        jobTable.setRowHeight(25);
+        jobTable.getTableHeader().setFont(ThemeManager.BODY_FONT);
+        JScrollPane scrollPane = new JScrollPane(jobTable);
+
+        // Search results replace the paged list while a query is entered
+        JTextField queryField = ThemeManager.createStyledTextField(20);
+        JTextField minSalaryField = ThemeManager.createStyledTextField(6);
+        JTextField maxSalaryField = ThemeManager.createStyledTextField(6);
+        JLabel searchStatus = ThemeManager.createStyledLabel(" ", false);
+
+        Runnable runSearch = () -> {
+            String query = queryField.getText();
+            if (query.trim().isEmpty()) {
+                if (model.get() != null) {
+                    jobTable.setModel(model.get());
+                }
+                searchStatus.setText(" ");
+                return;
+            }
+            if (!jobs.isIndexReady()) {
+                searchStatus.setText("Search index is still loading...");
+                DbExecutor.onEdt(jobs.ensureIndexLoaded(db, appScope), n -> searchStatus.setText(n + " jobs indexed"),
+                        this::showError);
+                return;
+            }
+            double minSalary, maxSalary;
+            try {
+                minSalary = minSalaryField.getText().trim().isEmpty() ? 0 : Double.parseDouble(minSalaryField.getText().trim());
+                maxSalary = maxSalaryField.getText().trim().isEmpty() ? Double.MAX_VALUE : Double.parseDouble(maxSalaryField.getText().trim());
+            } catch (NumberFormatException ex) {
+                searchStatus.setText("Salary must be a number");
+                return;
+            }
+            long start = System.nanoTime();
+            List<InvertedIndex.Hit> hits = jobs.search(query, minSalary, maxSalary, 50);
+            long micros = (System.nanoTime() - start) / 1_000;
+            searchStatus.setText(hits.size() + " matches in " + micros + " \u00b5s");
+            jobTable.setModel(resultsModel);
+            if (hits.isEmpty()) {
+                resultsModel.clear();
+                return;
+            }
+
+            // Fetch display columns for the ranked ids in one round trip, in ranking order
+            QueryScope visit = scope.get();
+            DbExecutor.onEdt(db.submitLatest(visit, "search", conn -> jobs.summaries(conn, visit, hits)),
+                    rows -> showJobs(resultsModel, rows), this::showError);
+        };
+
+        // Typeahead: search shortly after the user stops typing
+        Timer typeahead = new Timer(200, e -> runSearch.run());
+        typeahead.setRepeats(false);
+        queryField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) {
+                typeahead.restart();
+            }
+            public void removeUpdate(DocumentEvent e) {
+                typeahead.restart();
+            }
+            public void changedUpdate(DocumentEvent e) {
+                typeahead.restart();
+            }
+        });
+        JButton searchButton = ThemeManager.createStyledButton("Search");
+        searchButton.addActionListener(e -> runSearch.run());
+
+        // Jobs matching the resume the seeker last applied with
+        JButton recommendButton = ThemeManager.createStyledButton("Recommended");
+        recommendButton.addActionListener(e -> {
+            User seeker = currentUser();
+            if (seeker == null) {
+                return;
+            }
+            if (!jobs.isMatcherReady()) {
+                searchStatus.setText("Recommendations are still loading...");
+                DbExecutor.onEdt(jobs.ensureMatcherLoaded(db, appScope), n -> searchStatus.setText(n + " jobs ready to match"),
+                        this::showError);
+                return;
+            }
+            jobTable.setModel(resultsModel);
+            QueryScope visit = scope.get();
+            DbExecutor.onEdt(db.submitLatest(visit, "search", conn ->
+                    jobs.summaries(conn, visit, applications.recommendJobs(conn, seeker.userId, 50))), rows -> {
+                showJobs(resultsModel, rows);
+                searchStatus.setText(rows.isEmpty() ? "Apply with a resume to get recommendations"
+                        : rows.size() + " jobs matching your latest resume");
+            }, this::showError);
+        });
+
+        JPanel searchBar = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        searchBar.setOpaque(false);
+        searchBar.add(ThemeManager.createStyledLabel("Search:", false));
+        searchBar.add(queryField);
+        searchBar.add(ThemeManager.createStyledLabel("Salary from", false));
+        searchBar.add(minSalaryField);
+        searchBar.add(ThemeManager.createStyledLabel("to", false));
+        searchBar.add(maxSalaryField);
+        searchBar.add(searchButton);
+        searchBar.add(recommendButton);
+
+        JButton refreshButton = ThemeManager.createStyledButton("Refresh");
+        refreshButton.addActionListener(e -> {
+            model.get().reload();
+            if (!queryField.getText().trim().isEmpty()) {
+                runSearch.run();
+            }
+        });
+
+        JButton applyButton = ThemeManager.createStyledButton("Apply");
+        applyButton.addActionListener(e -> {
+            int selectedRow = jobTable.getSelectedRow();
+            if (selectedRow != -1) {
+                int jobId = jobTable.getModel() == resultsModel
+                        ? (int) resultsModel.getValueAt(selectedRow, 0)
+                        : model.get().getJobId(selectedRow); // Get Job ID
+                if (jobId == -1) {
+                    JOptionPane.showMessageDialog(frame, "Please wait for the job list to finish loading.");
+                    return;
+                }
+
+                JFileChooser fileChooser = new JFileChooser();
+                fileChooser.setDialogTitle("Upload Resume (PDF or DOC)");
+                int result = fileChooser.showOpenDialog(frame);
+
+                if (result == JFileChooser.APPROVE_OPTION) {
+                    File selectedFile = fileChooser.getSelectedFile();
+                    User applicant = currentUser();
+                    if (applicant == null) {
+                        return;
+                    }
+                    applyButton.setEnabled(false);
+                    ProgressMonitor monitor = new ProgressMonitor(frame, "Uploading resume...", null, 0, 1000);
+                    QueryScope visit = scope.get();
+                    ResumeTransfer transfer = monitoredTransfer(visit, monitor);
+
+                    // The upload needs no connection; the application is saved to the database in the background
+                    DbExecutor.onEdt(db.submitLocal(visit, "apply", () -> applications.apply(jobId, applicant.userId,
+                            selectedFile.toPath(), transfer, visit.writes())), queued -> {
+                        monitor.close();
+                        applyButton.setEnabled(true);
+                        JOptionPane.showMessageDialog(frame, queued
+                                ? "Applied Successfully with Resume!"
+                                : "Your application for this job is already being submitted.");
+                    }, ex -> {
+                        monitor.close();
+                        applyButton.setEnabled(true);
+                        if (transfer.isCancelled()) {
+                            JOptionPane.showMessageDialog(frame, "Upload cancelled.");
+                        } else {
+                            showError(ex);
+                        }
+                    });
+                }
+            } else {
+                JOptionPane.showMessageDialog(frame, "Please select a job from the table.");
+            }
+
+    });
+
+        JButton backButton = ThemeManager.createStyledButton("Back");
+        backButton.addActionListener(e -> showDashboard());
+
+        searchPanel.add(titleLabel);
+        searchPanel.add(Box.createVerticalStrut(20));
+        searchPanel.add(searchBar);
+        searchPanel.add(searchStatus);
+        searchPanel.add(Box.createVerticalStrut(10));
+        searchPanel.add(scrollPane);
+        searchPanel.add(Box.createVerticalStrut(15));
+        searchPanel.add(refreshButton);
+        searchPanel.add(Box.createVerticalStrut(5));
+        searchPanel.add(applyButton);
+        searchPanel.add(Box.createVerticalStrut(15));
+        searchPanel.add(backButton);
+
+        return new Screens.Screen() {
+            @Override
+            public JComponent component() {
+                return searchPanel;
+            }
+
+            @Override
+            public void shown() {
+                QueryScope visit = sessionScope();
+                JobTableModel jobList = new JobTableModel(db, jobs.catalog(), visit, JobRecruitmentUI.this::showError);
+                scope.set(visit);
+                model.set(jobList);
+                if (changes != null) {
+                    // New jobs appear at the end of the list once it is scrolled there
+                    changes.subscribe(visit, (conn, batch) -> {
+                        if (ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.JOBS)).length > 0) {
+                            SwingUtilities.invokeLater(jobList::refreshTail);
+                        }
+                    });
+                }
+                jobs.ensureIndexLoaded(db, appScope);
+                jobs.ensureMatcherLoaded(db, appScope);
+                queryField.setText("");
+                typeahead.stop();
+                searchStatus.setText(" ");
+                jobTable.setModel(jobList);
+                jobList.reload(); // Load jobs immediately
+            }
+
+            @Override
+            public void hidden() {
+                typeahead.stop();
+                scope.get().cancel(); // Abort any query still running for this screen
+                model.set(null);      // its pages can be collected
+                resultsModel.clear();
+                jobTable.setModel(resultsModel);
+            }
+        };
+    }
+
+    private Screens.Screen viewApplicationsScreen() {
+        JPanel viewPanel = ThemeManager.createStyledPanel(true);
+        viewPanel.setLayout(new BorderLayout(10, 10));
+        viewPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("Job Applications", true);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+
+        // Table setup: rows for this employer's jobs are paged in from the database as they scroll into view.
+        // The scope and the model last one visit.
+        AtomicReference<QueryScope> scope = new AtomicReference<>();
+        AtomicReference<ApplicationTableModel> model = new AtomicReference<>();
+        ColumnarTableModel noRows = new ColumnarTableModel(ApplicationReviewQuery.COLUMNS,
+                Integer.class, String.class, String.class, String.class, String.class);
+        JTable table = new ColumnarTable(noRows);
+        table.setFont(ThemeManager.BODY_FONT);
+        table.setRowHeight(24);
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
+        table.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION); // batch select/delete
+        // Sort on the server when a column header is clicked
+        table.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = table.columnAtPoint(e.getPoint());
+                if (column != -1 && model.get() != null) {
+                    model.get().sortBy(table.convertColumnIndexToModel(column));
+                }
+            }
+        });
+        JScrollPane scrollPane = new JScrollPane(table);
+        viewPanel.add(scrollPane, BorderLayout.CENTER);
+
+        // Filters
+        JComboBox<String> statusFilter = new JComboBox<>(new String[]{"All", "Pending", "Selected"});
+        statusFilter.setFont(ThemeManager.BODY_FONT);
+        JTextField fromField = ThemeManager.createStyledTextField(8);
+        JTextField toField = ThemeManager.createStyledTextField(8);
+        fromField.setToolTipText("yyyy-mm-dd");
+        toField.setToolTipText("yyyy-mm-dd");
+        JButton filterButton = ThemeManager.createStyledButton("Filter");
+        filterButton.addActionListener(e -> {
+            ApplicationReviewQuery.Filter current = model.get().getFilter();
+            if (current == null) {
+                return; // employer not resolved yet
+            }
+            try {
+                String status = statusFilter.getSelectedIndex() == 0 ? null : (String) statusFilter.getSelectedItem();
+                Date from = fromField.getText().trim().isEmpty() ? null : Date.valueOf(fromField.getText().trim());
+                Date to = toField.getText().trim().isEmpty() ? null : Date.valueOf(toField.getText().trim());
+                model.get().setFilter(new ApplicationReviewQuery.Filter(current.employerId, status, from, to,
+                        current.sortColumn, current.ascending));
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(frame, "Please enter dates as yyyy-mm-dd.");
+            }
+        });
+
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 8, 0));
+        filterPanel.setOpaque(false);
+        filterPanel.add(ThemeManager.createStyledLabel("Status:", false));
+        filterPanel.add(statusFilter);
+        filterPanel.add(ThemeManager.createStyledLabel("From:", false));
+        filterPanel.add(fromField);
+        filterPanel.add(ThemeManager.createStyledLabel("To:", false));
+        filterPanel.add(toField);
+        filterPanel.add(filterButton);
+
+        JPanel headerPanel = new JPanel(new BorderLayout(0, 10));
+        headerPanel.setOpaque(false);
+        headerPanel.add(titleLabel, BorderLayout.NORTH);
+        headerPanel.add(filterPanel, BorderLayout.SOUTH);
+        viewPanel.add(headerPanel, BorderLayout.NORTH);
+
+        // Refresh Button Logic
+        JButton refreshButton = ThemeManager.createStyledButton("Refresh");
+        refreshButton.addActionListener(e -> {
+            ApplicationReviewQuery.invalidateCounts();
+            model.get().reload();
+        });
+
+        // Select Candidate Logic: all selected rows in one transaction, then patch the table in place
+        JButton selectButton = ThemeManager.createStyledButton("Select Candidate");
+        selectButton.addActionListener(e -> {
+            int[] appIds = model.get().getApplicationIds(table.getSelectedRows());
+            if (appIds.length > 0) {
+                ApplicationTableModel shown = model.get();
+                int employerId = shown.getFilter().employerId;
+                DbExecutor.onEdt(db.submit(scope.get(), "review.select", conn -> applications.updateStatus(conn, employerId, appIds, "Selected")),
+                        rowsAffected -> {
+                    if (rowsAffected > 0) {
+                        shown.patchStatus(appIds, "Selected");
+                        JOptionPane.showMessageDialog(frame, rowsAffected == 1
+                                ? "Candidate Selected Successfully!"
+                                : rowsAffected + " Candidates Selected Successfully!");
+                    } else {
+                        JOptionPane.showMessageDialog(frame, "Failed to update status.");
+                    }
+                }, this::showError);
+            } else {
+                JOptionPane.showMessageDialog(frame, "Please select a row.");
+            }
+        });
+
+        // Delete Row Logic
+        JButton deleteButton = ThemeManager.createStyledButton("Delete Application");
+        deleteButton.addActionListener(e -> {
+            int[] appIds = model.get().getApplicationIds(table.getSelectedRows());
+            if (appIds.length > 0) {
+                String message = appIds.length == 1
+                        ? "Are you sure you want to delete Application ID: " + appIds[0] + "?"
+                        : "Are you sure you want to delete " + appIds.length + " applications?";
+                int confirm = JOptionPane.showConfirmDialog(frame, message,
+                        "Confirm Delete", JOptionPane.YES_NO_OPTION);
+                if (confirm == JOptionPane.YES_OPTION) {
+                    ApplicationTableModel shown = model.get();
+                    int employerId = shown.getFilter().employerId;
+                    DbExecutor.onEdt(db.submit(scope.get(), "review.delete", conn -> applications.delete(conn, employerId, appIds)),
+                            rowsAffected -> {
+                        if (rowsAffected > 0) {
+                            shown.removeRows(appIds);
+                            JOptionPane.showMessageDialog(frame, rowsAffected == 1
+                                    ? "Application Deleted Successfully!"
+                                    : rowsAffected + " Applications Deleted Successfully!");
+                        } else {
+                            JOptionPane.showMessageDialog(frame, "Failed to delete application.");
+                        }
+                    }, this::showError);
+                }
+            } else {
+                JOptionPane.showMessageDialog(frame, "Please select a row to delete.");
+            }
+        });
+        JButton matchButton = ThemeManager.createStyledButton("Best Matches");
+        matchButton.addActionListener(e -> {
+            User employer = currentUser();
+            if (employer == null) {
+                return;
+            }
+            QueryScope visit = scope.get();
+            DbExecutor.onEdt(db.read(visit, "review.jobs", conn -> jobs.postedBy(conn, employer.userId)), posted -> {
+                if (posted.isEmpty()) {
+                    JOptionPane.showMessageDialog(frame, "You have not posted any jobs yet.");
+                    return;
+                }
+                String[] choices = new String[posted.size()];
+                for (int i = 0; i < choices.length; i++) {
+                    choices[i] = posted.get(i).id + " - " + posted.get(i).title;
+                }
+                Object choice = JOptionPane.showInputDialog(frame, "Rank the applicants to:", "Best Matches",
+                        JOptionPane.QUESTION_MESSAGE, null, choices, choices[0]);
+                if (choice == null) {
+                    return;
+                }
+                JobService.Summary job = posted.get(Arrays.asList(choices).indexOf(choice));
+                DbExecutor.onEdt(db.read(visit, "review.rank", conn -> applications.rankApplicants(conn, visit, employer.userId, job.id, 50)),
+                        ranked -> showRanking(job, ranked), this::showError);
+            }, this::showError);
+        });
+        // Applicants to any of the employer's jobs whose resumes mention the skills asked for
+        JButton resumeSearchButton = ThemeManager.createStyledButton("Search Resumes");
+        resumeSearchButton.addActionListener(e -> {
+            User employer = currentUser();
+            if (employer == null) {
+                return;
+            }
+            if (!applications.isResumeIndexReady()) {
+                JOptionPane.showMessageDialog(frame, "Resumes are still being indexed. Try again in a moment.");
+                applications.ensureResumeIndexLoaded(db, appScope); // retries a load that failed
+                return;
+            }
+            String query = JOptionPane.showInputDialog(frame, "Skills or keywords:", "Search Resumes",
+                    JOptionPane.QUESTION_MESSAGE);
+            if (query == null || query.isBlank()) {
+                return;
+            }
+            DbExecutor.onEdt(db.read(scope.get(), "review.resumes", conn -> applications.searchResumes(conn, employer.userId, query, 50)),
+                    found -> showResumeMatches(query, found), this::showError);
+        });
+        JButton downloadButton = ThemeManager.createStyledButton("Download Resume");
+        downloadButton.addActionListener(e -> {
+            int selectedRow = table.getSelectedRow();
+            if (selectedRow != -1) {
+                ApplicationTableModel shown = model.get();
+                int appId = shown.getApplicationId(selectedRow);
+                if (appId == -1) {
+                    return; // row still loading
+                }
+
+                JFileChooser fileChooser = new JFileChooser();
+                fileChooser.setDialogTitle("Save Resume");
+                int userSelection = fileChooser.showSaveDialog(frame);
+                if (userSelection != JFileChooser.APPROVE_OPTION) {
+                    return;
+                }
+                File fileToSave = fileChooser.getSelectedFile();
+                ProgressMonitor monitor = new ProgressMonitor(frame, "Downloading resume...", null, 0, 1000);
+                QueryScope visit = scope.get();
+                ResumeTransfer transfer = monitoredTransfer(visit, monitor);
+
+                int employerId = shown.getFilter().employerId;
+                DbExecutor.onEdt(db.read(visit, "review.download", conn -> applications.downloadResume(conn, visit, employerId, appId,
+                        fileToSave.toPath(), transfer)), bytes -> {
+                    monitor.close();
+                    if (bytes > 0) {
+                        JOptionPane.showMessageDialog(frame, "Resume downloaded successfully!");
+                    } else {
+                        JOptionPane.showMessageDialog(frame, "No resume found for this application.");
+                    }
+                }, ex -> {
+                    monitor.close();
+                    if (transfer.isCancelled()) {
+                        JOptionPane.showMessageDialog(frame, "Download cancelled.");
+                    } else {
+                        showError(ex);
+                    }
+                });
+
+            } else {
+                JOptionPane.showMessageDialog(frame, "Please select a row to download resume.");
+            }
+        });
+
+
+
+
+        JButton backButton = ThemeManager.createStyledButton("Back");
+        backButton.addActionListener(e -> showDashboard());
+
+        // Button Panel
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(selectButton);
+        buttonPanel.add(deleteButton);
+        buttonPanel.add(matchButton);
+        buttonPanel.add(resumeSearchButton);
+        buttonPanel.add(downloadButton);
+        buttonPanel.add(backButton);
+        viewPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return new Screens.Screen() {
+            @Override
+            public JComponent component() {
+                return viewPanel;
+            }
+
+            // Load data on display: the employer's applications, newest first
+            @Override
+            public void shown() {
+                QueryScope visit = sessionScope();
+                ApplicationTableModel applicationList = new ApplicationTableModel(db, visit,
+                        JobRecruitmentUI.this::showError);
+                scope.set(visit);
+                model.set(applicationList);
+                statusFilter.setSelectedIndex(0);
+                fromField.setText("");
+                toField.setText("");
+                table.setModel(applicationList);
+                applications.ensureResumeIndexLoaded(db, appScope);
+                User employer = currentUser();
+                if (employer == null) {
+                    return;
+                }
+                applicationList.setFilter(new ApplicationReviewQuery.Filter(employer.userId, null, null, null, 4, false));
+                if (changes == null) {
+                    return;
+                }
+                // Patch the loaded rows with changes to this employer's applications made elsewhere
+                changes.subscribe(visit, (conn, batch) -> {
+                    int[] inserted = ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                            && c.employerId == employer.userId && c.op == ChangeLog.INSERTED);
+                    int[] deleted = ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                            && c.employerId == employer.userId && ChangeLog.removes(c.op));
+                    int[] changed = ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                            && c.employerId == employer.userId && !ChangeLog.removes(c.op));
+                    if (inserted.length == 0 && deleted.length == 0 && changed.length == 0) {
+                        return;
+                    }
+                    ApplicationReviewQuery.Page current = changed.length == 0 ? new ApplicationReviewQuery.Page(0)
+                            : ApplicationReviewQuery.rows(conn, employer.userId, changed);
+                    SwingUtilities.invokeLater(() -> applicationList.applyChanges(inserted, deleted, current));
+                });
+            }
+
+            @Override
+            public void hidden() {
+                scope.get().cancel(); // Abort any query still running for this screen
+                model.set(null);      // its pages can be collected
+                table.setModel(noRows);
+            }
+        };
+    }
+
+    // The applicants to one job, best match first
+    private void showRanking(JobService.Summary job, List<ApplicationService.RankedApplicant> ranked) {
+        if (ranked.isEmpty()) {
+            JOptionPane.showMessageDialog(frame, "No applications for " + job.title + " yet.");
+            return;
+        }
+        DefaultTableModel rankModel = readOnlyModel(new String[]{"Application ID", "Applicant", "Status", "Match %"});
+        for (ApplicationService.RankedApplicant row : ranked) {
+            rankModel.addRow(new Object[]{row.applicationId, row.applicant, row.status, Math.round(row.score * 100)});
+        }
+        JScrollPane scrollPane = new JScrollPane(plainTable(rankModel));
+        scrollPane.setPreferredSize(new Dimension(500, 300));
+        JOptionPane.showMessageDialog(frame, scrollPane, "Best matches for " + job.title, JOptionPane.PLAIN_MESSAGE);
+    }
+
+    // Applications whose resumes match a search, best match first
+    private void showResumeMatches(String query, ApplicationReviewQuery.Page found) {
+        if (found.size == 0) {
+            JOptionPane.showMessageDialog(frame, "No resumes mention " + query + ".");
+            return;
+        }
+        DefaultTableModel resultModel = readOnlyModel(ApplicationReviewQuery.COLUMNS);
+        for (int i = 0; i < found.size; i++) {
+            resultModel.addRow(new Object[]{found.ids[i], found.titles[i], found.applicants[i], found.statuses[i],
+                    found.dates[i]});
+        }
+        JScrollPane scrollPane = new JScrollPane(plainTable(resultModel));
+        scrollPane.setPreferredSize(new Dimension(600, 300));
+        JOptionPane.showMessageDialog(frame, scrollPane, "Resumes matching " + query, JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private Screens.Screen analyticsScreen() {
+        JPanel analyticsPanel = ThemeManager.createStyledPanel(true);
+        analyticsPanel.setLayout(new BorderLayout(10, 10));
+        analyticsPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("Recruiting Analytics", true);
+        titleLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        analyticsPanel.add(titleLabel, BorderLayout.NORTH);
+
+        // One table per view of the running totals
+        String[] statusColumns = ApplicationService.STATUSES;
+        String[] jobColumns = new String[statusColumns.length + 3];
+        jobColumns[0] = "Job ID";
+        jobColumns[1] = "Title";
+        System.arraycopy(statusColumns, 0, jobColumns, 2, statusColumns.length);
+        jobColumns[jobColumns.length - 1] = "Total";
+        String[] dayColumns = new String[statusColumns.length + 1];
+        dayColumns[0] = "Applied On";
+        System.arraycopy(statusColumns, 0, dayColumns, 1, statusColumns.length);
+        DefaultTableModel byJob = readOnlyModel(jobColumns);
+        DefaultTableModel byDay = readOnlyModel(dayColumns);
+        DefaultTableModel selectionTimes = readOnlyModel(new String[]{"Time to Selection", "Candidates"});
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.setFont(ThemeManager.BODY_FONT);
+        tabs.addTab("Per Job", new JScrollPane(plainTable(byJob)));
+        tabs.addTab("Last 30 Days", new JScrollPane(plainTable(byDay)));
+        tabs.addTab("Time to Selection", new JScrollPane(plainTable(selectionTimes)));
+        analyticsPanel.add(tabs, BorderLayout.CENTER);
+
+        // Queries of the current visit; replaced each time the screen is shown
+        AtomicReference<QueryScope> scope = new AtomicReference<>(new QueryScope());
+        Runnable load = () -> {
+            User employer = currentUser();
+            if (employer == null) {
+                return;
+            }
+            DbExecutor.onEdt(db.read(scope.get(), "analytics", conn -> applications.stats(conn, employer.userId, 30)), report -> {
+                byJob.setRowCount(0);
+                for (ApplicationStats.JobRow job : report.jobs()) {
+                    Object[] row = new Object[jobColumns.length];
+                    row[0] = job.jobId();
+                    row[1] = job.title();
+                    for (int i = 0; i < statusColumns.length; i++) {
+                        row[2 + i] = job.byStatus()[i];
+                    }
+                    row[row.length - 1] = job.total();
+                    byJob.addRow(row);
+                }
+                byDay.setRowCount(0);
+                for (ApplicationStats.DayRow day : report.days()) {
+                    Object[] row = new Object[dayColumns.length];
+                    row[0] = day.day().toString();
+                    for (int i = 0; i < statusColumns.length; i++) {
+                        row[1 + i] = day.byStatus()[i];
+                    }
+                    byDay.addRow(row);
+                }
+                selectionTimes.setRowCount(0);
+                for (int i = 0; i < report.selectionTimes().length; i++) {
+                    selectionTimes.addRow(new Object[]{ApplicationStats.SELECTION_LABELS[i], report.selectionTimes()[i]});
+                }
+            }, this::showError);
+        };
+
+        JButton refreshButton = ThemeManager.createStyledButton("Refresh");
+        refreshButton.addActionListener(e -> load.run());
+        JButton backButton = ThemeManager.createStyledButton("Back");
+        backButton.addActionListener(e -> showDashboard());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(backButton);
+        analyticsPanel.add(buttonPanel, BorderLayout.SOUTH);
+
+        return new Screens.Screen() {
+            @Override
+            public JComponent component() {
+                return analyticsPanel;
+            }
+
+            @Override
+            public void shown() {
+                QueryScope visit = sessionScope();
+                scope.set(visit);
+                User employer = currentUser();
+                if (changes != null && employer != null) {
+                    // The totals change with every application to this employer's jobs; re-reading them is cheap.
+                    // Archiving leaves them as they are.
+                    changes.subscribe(visit, (conn, batch) -> {
+                        if (ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                                && c.employerId == employer.userId && c.op != ChangeLog.ARCHIVED).length > 0) {
+                            SwingUtilities.invokeLater(load);
+                        }
+                    });
+                }
+                load.run();
+            }
+
+            @Override
+            public void hidden() {
+                scope.get().cancel(); // Abort any query still running for this screen
+                byJob.setRowCount(0);
+                byDay.setRowCount(0);
+                selectionTimes.setRowCount(0);
+            }
+        };
+    }
+
+    private static DefaultTableModel readOnlyModel(String[] columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private static JTable plainTable(DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(ThemeManager.BODY_FONT);
+        table.setRowHeight(24);
+        table.getTableHeader().setFont(ThemeManager.BODY_FONT);
+        return table;
+    }
+
+    private Screens.Screen viewStatusScreen() {
+        JPanel statusPanel = ThemeManager.createStyledPanel(true);
+        statusPanel.setLayout(new BoxLayout(statusPanel, BoxLayout.Y_AXIS));
+        statusPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
+
+        JLabel titleLabel = ThemeManager.createStyledLabel("Your Applications", true);
+        titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        // Table setup
+        String[] columnNames = {"Application ID", "Job Title", "Status", "Applied Date", "Stored"};
+        ColumnarTableModel tableModel = new ColumnarTableModel(columnNames,
+                Integer.class, String.class, String.class, String.class, String.class);
+
+        JTable table = new ColumnarTable(tableModel);
+        table.setFillsViewportHeight(true);
+        table.setRowHeight(25);
+        table.setFont(ThemeManager.BODY_FONT);
+        table.setGridColor(Color.GRAY);
+        table.setShowGrid(true);
+        table.getTableHeader().setFont(ThemeManager.BODY_FONT);
+        table.removeColumn(table.getColumnModel().getColumn(0)); // the id is kept for live updates, not shown
+        JScrollPane scrollPane = new JScrollPane(table);
+        // Queries of the current visit; replaced each time the screen is shown
+        AtomicReference<QueryScope> scope = new AtomicReference<>(new QueryScope());
+
+        // Applications older than the archive age live in the archive tables, read only when asked for
+        JCheckBox archiveBox = new JCheckBox("Include archived applications (older, slower to load)");
+        archiveBox.setFont(ThemeManager.BODY_FONT);
+        archiveBox.setOpaque(false);
+        archiveBox.setAlignmentX(Component.CENTER_ALIGNMENT);
+
+        Runnable load = () -> {
+            User applicant = currentUser();
+            if (applicant == null) {
+                return;
+            }
+            boolean withArchive = archiveBox.isSelected();
+            String sql = withArchive ? ApplicationService.HISTORY_SQL : ApplicationService.STATUS_SQL;
+            DbExecutor.onEdt(db.loadTable(scope.get(), "status", tableModel, sql, pstmt -> {
+                pstmt.setInt(1, applicant.userId);
+                if (withArchive) {
+                    pstmt.setInt(2, applicant.userId);
+                }
+            }, (rs, rows, r) -> {
+                rows.set(r, 0, rs.getInt("id"));
+                rows.set(r, 1, rs.getString("title"));
+                rows.set(r, 2, rs.getString("status"));
+                rows.set(r, 3, rs.getString("appliedDate"));
+                rows.set(r, 4, rs.getString("stored"));
+            }), rows -> {
+                if (rows == 0) {
+                    JOptionPane.showMessageDialog(frame, "You haven't applied for any jobs yet.");
+                }
+            }, this::showError);
+        };
+        JButton refreshButton = ThemeManager.createStyledButton("Refresh");
+        refreshButton.addActionListener(e -> load.run());
+        archiveBox.addActionListener(e -> load.run());
+
+        JButton backButton = ThemeManager.createStyledButton("Back");
+        backButton.addActionListener(e -> showDashboard());
+
+        statusPanel.add(titleLabel);
+        statusPanel.add(Box.createVerticalStrut(20));
+        statusPanel.add(scrollPane);
+        statusPanel.add(Box.createVerticalStrut(10));
+        statusPanel.add(archiveBox);
+        statusPanel.add(Box.createVerticalStrut(20));
+        statusPanel.add(refreshButton);
+        statusPanel.add(Box.createVerticalStrut(15));
+        statusPanel.add(backButton);
+
+        return new Screens.Screen() {
+            @Override
+            public JComponent component() {
+                return statusPanel;
+            }
+
+            @Override
+            public void shown() {
+                QueryScope visit = sessionScope();
+                scope.set(visit);
+                User seeker = currentUser();
+                if (changes != null && seeker != null && applications != null) {
+                    // Status changes and deletes made by employers show up without a refresh; archived
+                    // applications move to the archive tier, or leave the table if it is not shown
+                    changes.subscribe(visit, (conn, batch) -> {
+                        boolean withArchive = archiveBox.isSelected();
+                        int[] deleted = ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                                && c.jobSeekerId == seeker.userId && (withArchive ? c.op == ChangeLog.DELETED
+                                : ChangeLog.removes(c.op)));
+                        int[] changed = ChangeFeed.rowIds(batch, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                                && c.jobSeekerId == seeker.userId && !ChangeLog.removes(c.op));
+                        int[] archived = !withArchive ? new int[0] : ChangeFeed.rowIds(batch,
+                                c -> c.table.equals(ChangeLog.APPLICATIONS) && c.jobSeekerId == seeker.userId
+                                        && c.op == ChangeLog.ARCHIVED);
+                        if (deleted.length == 0 && changed.length == 0 && archived.length == 0) {
+                            return;
+                        }
+                        List<Object[]> rows = new ArrayList<>();
+                        if (changed.length > 0) {
+                            rows.addAll(applications.statusRows(conn, seeker.userId, changed, false));
+                        }
+                        if (archived.length > 0) {
+                            rows.addAll(applications.statusRows(conn, seeker.userId, archived, true));
+                        }
+                        ColumnarTableModel.Rows changedRows = tableModel.newRows(rows.size());
+                        for (Object[] row : rows) {
+                            int r = changedRows.add();
+                            changedRows.set(r, 0, (int) (Integer) row[0]);
+                            for (int c = 1; c < row.length; c++) {
+                                changedRows.set(r, c, (String) row[c]);
+                            }
+                        }
+                        SwingUtilities.invokeLater(() -> upsertRows(tableModel, deleted, changedRows));
+                    });
+                }
+                load.run(); // Load status immediately
+            }
+
+            @Override
+            public void hidden() {
+                scope.get().cancel(); // Abort any query still running for this screen
+                tableModel.clear();
+            }
+        };
+    }
+
+    // Applies changed rows to a table whose column 0 is the row id: removes the deleted ids, replaces rows
+    // that are shown and appends the others
+    private static void upsertRows(ColumnarTableModel tableModel, int[] deleted, ColumnarTableModel.Rows rows) {
+        for (int id : deleted) {
+            int row = tableModel.indexOf(0, id);
+            if (row != -1) {
+                tableModel.removeRow(row);
+            }
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            int row = tableModel.indexOf(0, rows.ints[0][i]);
+            if (row != -1) {
+                tableModel.update(row, rows, i);
+            } else {
+                tableModel.appendRow(rows, i);
+            }
+        }
+    }
+
+    // Replaces the search results with these jobs, in their order
+    private static void showJobs(ColumnarTableModel resultsModel, List<JobService.Summary> jobs) {
+        ColumnarTableModel.Rows rows = resultsModel.newRows(jobs.size());
+        for (JobService.Summary job : jobs) {
+            int r = rows.add();
+            rows.set(r, 0, job.id);
+            rows.set(r, 1, job.title);
+            rows.set(r, 2, job.salary);
+        }
+        resultsModel.setRows(rows);
+    }
+
+    // Wires a progress dialog to a resume transfer: progress is shown on the EDT and Cancel aborts the transfer
+    private ResumeTransfer monitoredTransfer(QueryScope scope, ProgressMonitor monitor) {
+        monitor.setMillisToDecideToPopup(300);
+        AtomicReference<ResumeTransfer> transfer = new AtomicReference<>();
+        AtomicInteger shown = new AtomicInteger(-1);
+        transfer.set(new ResumeTransfer(scope, (done, total) -> {
+            int permille = total > 0 ? (int) (done * 1000 / total) : 0;
+            if (shown.getAndSet(permille) == permille) {
+                return; // only repaint when the visible value changes
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (monitor.isCanceled()) {
+                    transfer.get().cancel();
+                } else {
+                    monitor.setProgress(permille);
+                    monitor.setNote((done / 1024) + " KB of " + (total / 1024) + " KB");
+                }
+            });
+        }));
+        return transfer.get();
+    }
+}
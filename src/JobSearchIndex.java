@@ -0,0 +1,69 @@
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Full-text search over job titles and descriptions, so Search Jobs never scans MySQL with LIKE '%...%'.
+// The index is loaded once in the background and then kept current by postJob().
+class JobSearchIndex {
+    private static final int LOAD_BATCH = 5_000;
+    private static final String LOAD_SQL =
+            "SELECT id, title, description, salary FROM jobs WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final InvertedIndex index = new InvertedIndex(3, 1); // title terms count three times
+    private volatile CompletableFuture<Integer> loaded;
+
+    // Starts the background load on first use; completes with the number of jobs indexed
+    public synchronized CompletableFuture<Integer> ensureLoaded(DbExecutor db, QueryScope scope) {
+        if (loaded == null || loaded.isCompletedExceptionally()) {
+            loaded = db.read(scope, "search.index", conn -> {
+                int lastId = 0;
+                int total = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL)) {
+                    while (true) {
+                        pstmt.setInt(1, lastId);
+                        pstmt.setInt(2, LOAD_BATCH);
+                        int batch = 0;
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                lastId = rs.getInt(1);
+                                index.put(lastId, rs.getDouble(4), rs.getString(2), rs.getString(3));
+                                batch++;
+                            }
+                        }
+                        total += batch;
+                        if (batch < LOAD_BATCH) {
+                            return total;
+                        }
+                    }
+                }
+            });
+        }
+        return loaded;
+    }
+
+    public boolean isReady() {
+        CompletableFuture<Integer> current = loaded;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    // Called after a job row is inserted; safe to call while the initial load is still running
+    public void add(int jobId, String title, String description, double salary) {
+        index.put(jobId, salary, title, description);
+    }
+
+    public void remove(int jobId) {
+        index.remove(jobId);
+    }
+
+    // Ranked job ids for the query within the salary range (inclusive); the last word is matched as a prefix
+    public List<InvertedIndex.Hit> search(String query, double minSalary, double maxSalary, int k) {
+        boolean typeahead = !query.isEmpty() && !Character.isWhitespace(query.charAt(query.length() - 1));
+        return index.search(query, typeahead, k,
+                (jobId, salary) -> salary >= minSalary && salary <= maxSalary);
+    }
+
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,242 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Posting and searching jobs, independent of any screen. Callers pass a connection borrowed from the pool.
+class JobService {
+    // What a job list shows for one job
+    static final class Summary {
+        final int id;
+        final String title;
+        final double salary;
+
+        Summary(int id, String title, double salary) {
+            this.id = id;
+            this.title = title;
+            this.salary = salary;
+        }
+    }
+
+    // One job to post, as read from an import file
+    record Posting(String title, String description, double salary) {
+    }
+
+    private final JobSearchIndex index;
+    private final JobCatalogCache catalog;
+    private final MatchingEngine matcher;
+
+    public JobService(JobSearchIndex index, JobCatalogCache catalog, MatchingEngine matcher) {
+        this.index = index;
+        this.catalog = catalog;
+        this.matcher = matcher;
+    }
+
+    public JobCatalogCache catalog() {
+        return catalog;
+    }
+
+    // Returns the new job's id
+    public int post(Connection conn, int employerId, String title, String description, double salary)
+            throws SQLException {
+        String sql = "INSERT INTO jobs (employerId, title, description, salary) VALUES (?, ?, ?, ?)";
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, employerId);
+            pstmt.setString(2, title);
+            pstmt.setString(3, description);
+            pstmt.setDouble(4, salary);
+            pstmt.executeUpdate();
+            int jobId;
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) {
+                    throw new SQLException("No id returned for the new job");
+                }
+                jobId = keys.getInt(1);
+            }
+            ChangeLog.job(conn, ChangeLog.INSERTED, jobId);
+            conn.commit();
+            index.add(jobId, title, description, salary); // keep search current
+            catalog.jobAdded(jobId, title, salary);
+            matcher.putJob(jobId, title, description);
+            return jobId;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Posts the jobs for the employer with one JDBC batch in one transaction and returns their ids in order.
+    // The caller then passes them to indexPosted; JobImport does that off the writing thread.
+    public int[] postAll(Connection conn, int employerId, List<Posting> postings) throws SQLException {
+        String sql = "INSERT INTO jobs (employerId, title, description, salary) VALUES (?, ?, ?, ?)";
+        int[] ids = new int[postings.size()];
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Posting posting : postings) {
+                pstmt.setInt(1, employerId);
+                pstmt.setString(2, posting.title());
+                pstmt.setString(3, posting.description());
+                pstmt.setDouble(4, posting.salary());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            int n = 0;
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                while (keys.next() && n < ids.length) {
+                    ids[n++] = keys.getInt(1);
+                }
+            }
+            if (n != ids.length) {
+                throw new SQLException("Expected " + ids.length + " ids for the new jobs, got " + n);
+            }
+            ChangeLog.jobs(conn, ChangeLog.INSERTED, employerId, ids);
+            conn.commit();
+            return ids;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    // Makes jobs saved by postAll searchable and matchable here; other instances learn of them from the change feed
+    public void indexPosted(int[] ids, List<Posting> postings) {
+        for (int i = 0; i < ids.length; i++) {
+            Posting posting = postings.get(i);
+            index.add(ids[i], posting.title(), posting.description(), posting.salary());
+            matcher.putJob(ids[i], posting.title(), posting.description());
+        }
+        catalog.invalidateAll(); // cheaper than patching the tail page a thousand times
+    }
+
+    // Keeps the search index, job list cache and matching engine current with jobs posted or archived by other apps
+    // and API servers
+    public void follow(ChangeFeed feed, QueryScope scope) {
+        feed.subscribe(scope, (conn, changes) -> {
+            int[] removed = ChangeFeed.rowIds(changes,
+                    c -> c.table.equals(ChangeLog.JOBS) && ChangeLog.removes(c.op));
+            for (int jobId : removed) {
+                index.remove(jobId);
+                matcher.removeJob(jobId);
+            }
+            if (removed.length > 0) {
+                catalog.invalidateAll(); // cached pages would still list them
+            }
+            int[] added = ChangeFeed.rowIds(changes,
+                    c -> c.table.equals(ChangeLog.JOBS) && c.op == ChangeLog.INSERTED);
+            if (added.length == 0) {
+                return;
+            }
+            String sql = "SELECT id, title, description, salary FROM jobs WHERE id IN ("
+                    + ApplicationBatch.placeholders(added.length) + ") ORDER BY id";
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < added.length; i++) {
+                    pstmt.setInt(i + 1, added[i]);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        index.add(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDouble(4));
+                        catalog.jobAdded(rs.getInt(1), rs.getString(2), rs.getDouble(4));
+                        matcher.putJob(rs.getInt(1), rs.getString(2), rs.getString(3));
+                    }
+                }
+            }
+        });
+    }
+
+    public CompletableFuture<Integer> ensureIndexLoaded(DbExecutor db, QueryScope scope) {
+        return index.ensureLoaded(db, scope);
+    }
+
+    public boolean isIndexReady() {
+        return index.isReady();
+    }
+
+    // Builds the matching engine's job vectors in the background; recommendations need them
+    public CompletableFuture<Integer> ensureMatcherLoaded(DbExecutor db, QueryScope scope) {
+        return matcher.ensureLoaded(db, scope);
+    }
+
+    public boolean isMatcherReady() {
+        return matcher.isReady();
+    }
+
+    // Whether the job is open for applications: posted and not archived
+    public boolean exists(Connection conn, int jobId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM jobs WHERE id = ?")) {
+            pstmt.setInt(1, jobId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // The employer's jobs in posting order
+    public List<Summary> postedBy(Connection conn, int employerId) throws SQLException {
+        List<Summary> result = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT id, title, salary FROM jobs WHERE employerId = ? ORDER BY id")) {
+            pstmt.setInt(1, employerId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new Summary(rs.getInt(1), rs.getString(2), rs.getDouble(3)));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Ranked matches from the in-memory index; no database access
+    public List<InvertedIndex.Hit> search(String query, double minSalary, double maxSalary, int k) {
+        return index.search(query, minSalary, maxSalary, k);
+    }
+
+    // Display columns for the hits in one round trip, in ranking order
+    public List<Summary> summaries(Connection conn, QueryScope scope, List<InvertedIndex.Hit> hits) throws SQLException {
+        List<Summary> result = new ArrayList<>(hits.size());
+        if (hits.isEmpty()) {
+            return result;
+        }
+        String sql = "SELECT id, title, salary FROM jobs WHERE id IN (" + ApplicationBatch.placeholders(hits.size()) + ")";
+        Map<Integer, Summary> rows = new HashMap<>();
+        try (PreparedStatement pstmt = scope.track(conn.prepareStatement(sql))) {
+            for (int i = 0; i < hits.size(); i++) {
+                pstmt.setInt(i + 1, hits.get(i).docId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.put(rs.getInt(1), new Summary(rs.getInt(1), rs.getString(2), rs.getDouble(3)));
+                }
+            }
+        }
+        for (InvertedIndex.Hit hit : hits) {
+            Summary row = rows.get(hit.docId);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    // One keyset page of the job list: jobs with id > afterId in id order, served from the catalog cache
+    public List<Summary> page(Connection conn, int afterId, int limit) throws SQLException {
+        JobCatalogCache.Page page = catalog.get(conn, null, afterId, limit);
+        List<Summary> result = new ArrayList<>(page.size);
+        for (int i = 0; i < page.size; i++) {
+            result.add(new Summary(page.ids[i], page.titles[i], page.salaries[i]));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,244 @@
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Lazily loaded job list for the Search Jobs screen.
+// Pages are fetched by keyset (id > last id of the previous page) as the user scrolls, and only a bounded
+// window of pages is kept in memory; evicted pages are fetched again when they scroll back into view.
+// Pages come from the shared JobCatalogCache, so reopening the screen or Refresh usually skips the database.
+class JobTableModel extends AbstractTableModel implements ColumnarModel {
+    private static final long serialVersionUID = 1L;
+    static final int PAGE_SIZE = 100;
+    static final int MAX_CACHED_PAGES = 20;
+    static final String PAGE_SQL = "SELECT id, title, salary FROM jobs WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String[] COLUMNS = {"Job ID", "Title", "Salary"};
+
+    private final DbExecutor db;
+    private final JobCatalogCache catalog;
+    private final QueryScope scope;
+    private final Consumer<Throwable> onError;
+
+    // All state below is only touched on the EDT
+    private final Map<Integer, JobCatalogCache.Page> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, JobCatalogCache.Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+
+        @Override
+        public JobCatalogCache.Page put(Integer key, JobCatalogCache.Page value) {
+            lastPageIndex = -1;
+            return super.put(key, value);
+        }
+
+        @Override
+        public JobCatalogCache.Page remove(Object key) {
+            lastPageIndex = -1;
+            return super.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            lastPageIndex = -1;
+            super.clear();
+        }
+    };
+    // The page of the last cell read: painting reads a row's cells in turn without a map lookup (and boxing)
+    private int lastPageIndex = -1;
+    private JobCatalogCache.Page lastPage;
+    private int[] pageKeys = new int[64]; // pageKeys[p] = id after which page p starts
+    private int knownPages;               // pages whose key is known
+    private int rowCount;
+    private boolean endReached;
+    private final Set<Integer> loading = new HashSet<>();
+    private int generation;
+
+    public JobTableModel(DbExecutor db, JobCatalogCache catalog, QueryScope scope, Consumer<Throwable> onError) {
+        this.db = db;
+        this.catalog = catalog;
+        this.scope = scope;
+        this.onError = onError;
+    }
+
+    // Drop everything and start again from the first page
+    public void reload() {
+        generation++;
+        pages.clear();
+        loading.clear();
+        knownPages = 1;
+        pageKeys[0] = 0;
+        rowCount = 0;
+        endReached = false;
+        fireTableDataChanged();
+        requestPage(0);
+    }
+
+    // Fetches the last page again once the whole list is shown, picking up jobs posted since; earlier pages
+    // cannot change because ids only grow
+    public void refreshTail() {
+        int last = knownPages - 1;
+        if (!endReached || loading.contains(last)) {
+            return;
+        }
+        pages.remove(last);
+        requestPage(last);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 ? Integer.class : column == 2 ? Double.class : String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        JobCatalogCache.Page page = pageFor(row);
+        int offset = row % PAGE_SIZE;
+        if (page == null || offset >= page.size) {
+            return null;
+        }
+        switch (column) {
+            case 0:
+                return page.ids[offset];
+            case 1:
+                return page.titles[offset];
+            default:
+                return page.salaries[offset];
+        }
+    }
+
+    @Override
+    public boolean isRowLoaded(int row) {
+        JobCatalogCache.Page page = pageFor(row);
+        return page != null && row % PAGE_SIZE < page.size;
+    }
+
+    @Override
+    public int intAt(int row, int column) {
+        return pageFor(row).ids[row % PAGE_SIZE];
+    }
+
+    @Override
+    public double doubleAt(int row, int column) {
+        return pageFor(row).salaries[row % PAGE_SIZE];
+    }
+
+    @Override
+    public String stringAt(int row, int column) {
+        return pageFor(row).titles[row % PAGE_SIZE];
+    }
+
+    // The row's page, or null while it is fetched
+    private JobCatalogCache.Page pageFor(int row) {
+        int pageIndex = row / PAGE_SIZE;
+        if (pageIndex == lastPageIndex) {
+            return lastPage;
+        }
+        JobCatalogCache.Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex); // evicted; show blanks until it is back
+            return null;
+        }
+        // Prefetch the next page once the user reaches the last loaded one
+        if (!endReached && pageIndex == knownPages - 2) {
+            requestPage(knownPages - 1);
+        }
+        lastPageIndex = pageIndex;
+        lastPage = page;
+        return page;
+    }
+
+    // Job id for a view row, or -1 if that page is not in memory
+    public int getJobId(int row) {
+        JobCatalogCache.Page page = pages.get(row / PAGE_SIZE);
+        int offset = row % PAGE_SIZE;
+        return page == null || offset >= page.size ? -1 : page.ids[offset];
+    }
+
+    private void requestPage(int pageIndex) {
+        if (pageIndex >= knownPages || loading.contains(pageIndex) || pages.containsKey(pageIndex)) {
+            return;
+        }
+        loading.add(pageIndex);
+        int afterId = pageKeys[pageIndex];
+        int requestGeneration = generation;
+        JobCatalogCache.Page cached = catalog.getIfPresent(afterId, PAGE_SIZE);
+        if (cached != null) {
+            // Installed on the next EDT turn: this may run while the table is painting
+            SwingUtilities.invokeLater(() -> {
+                if (requestGeneration == generation) {
+                    install(pageIndex, cached);
+                }
+            });
+            return;
+        }
+        DbExecutor.onEdt(db.read(scope, "search.page", conn -> catalog.get(conn, scope, afterId, PAGE_SIZE)), page -> {
+            if (requestGeneration == generation) {
+                install(pageIndex, page);
+            }
+        }, error -> {
+            if (requestGeneration == generation) {
+                loading.remove(pageIndex);
+                onError.accept(error);
+            }
+        });
+    }
+
+    private void install(int pageIndex, JobCatalogCache.Page page) {
+        loading.remove(pageIndex);
+        pages.put(pageIndex, page);
+
+        int first = pageIndex * PAGE_SIZE;
+        if (pageIndex < knownPages - 1) {
+            // A page that was evicted and fetched again
+            fireTableRowsUpdated(first, first + page.size - 1);
+            return;
+        }
+        // The last page: first fetch, or fetched again by refreshTail with rows added or removed
+        int oldSize = rowCount - first;
+        if (page.size < PAGE_SIZE) {
+            endReached = true;
+        } else {
+            endReached = false;
+            if (knownPages == pageKeys.length) {
+                int[] grown = new int[pageKeys.length * 2];
+                System.arraycopy(pageKeys, 0, grown, 0, pageKeys.length);
+                pageKeys = grown;
+            }
+            pageKeys[knownPages++] = page.ids[page.size - 1];
+        }
+        rowCount = first + page.size;
+        int same = Math.min(oldSize, page.size);
+        if (same > 0) {
+            fireTableRowsUpdated(first, first + same - 1);
+        }
+        if (page.size > oldSize) {
+            fireTableRowsInserted(first + oldSize, rowCount - 1);
+        } else if (page.size < oldSize) {
+            fireTableRowsDeleted(rowCount, first + oldSize - 1);
+        }
+    }
+}
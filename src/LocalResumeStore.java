@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Content-addressed resume store on local disk.
+// Layout: <root>/ab/cd/<hash> holds the file and <hash>.refs its reference count. Files are written to
+// <root>/tmp and renamed into place, so a reader never sees a partial resume.
+// The desktop app and the API server may share the directory, so reference counts are changed, and unreferenced
+// files deleted, holding a file lock on <root>/locks/<stripe>.lock as well as the stripe's monitor.
+class LocalResumeStore implements ResumeStore {
+    private static final long GC_GRACE_MILLIS = 60 * 60 * 1000; // leave fresh uploads alone
+    private static final int LOCK_STRIPES = 64;
+    // Monitors per directory, shared by the stores of one process: the file lock is held per process, not per thread
+    private static final Map<Path, Object[]> STRIPES = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final Path tmp;
+    private final Path lockDir;
+    private final Object[] locks;
+
+    private interface Locked<T> {
+        T run() throws IOException;
+    }
+
+    public LocalResumeStore(Path root) throws IOException {
+        this.root = root;
+        this.tmp = root.resolve("tmp");
+        this.lockDir = root.resolve("locks");
+        Files.createDirectories(tmp);
+        Files.createDirectories(lockDir);
+        locks = STRIPES.computeIfAbsent(root.toAbsolutePath().normalize(), dir -> {
+            Object[] stripes = new Object[LOCK_STRIPES];
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                stripes[i] = new Object();
+            }
+            return stripes;
+        });
+    }
+
+    // -Dresume.store.dir, or ~/.job-recruitment/resumes
+    static Path defaultDirectory() {
+        String home = System.getProperty("user.home");
+        return Paths.get(System.getProperty("resume.store.dir",
+                Paths.get(home, ".job-recruitment", "resumes").toString()));
+    }
+
+    @Override
+    public String put(Path file, ResumeTransfer transfer) throws IOException {
+        MessageDigest digest = sha256();
+        long total = Files.size(file);
+        Path temp = Files.createTempFile(tmp, "upload-", ".part");
+        try {
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest);
+                 FileChannel sink = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[ResumeTransfer.BUFFER_SIZE];
+                long copied = 0;
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    transfer.checkCancelled();
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, n);
+                    while (chunk.hasRemaining()) {
+                        sink.write(chunk);
+                    }
+                    copied += n;
+                    transfer.report(copied, total);
+                }
+                sink.force(false);
+            }
+
+            String hash = toHex(digest.digest());
+            Path blob = blobPath(hash);
+            locked(hash, () -> {
+                if (!Files.exists(blob)) {
+                    Files.createDirectories(blob.getParent());
+                    Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                }
+                writeRefs(hash, readRefs(hash) + 1);
+                return null;
+            });
+            return hash;
+        } finally {
+            Files.deleteIfExists(temp); // already moved, or a duplicate of an existing resume
+        }
+    }
+
+    @Override
+    public long copyTo(String hash, Path target, ResumeTransfer transfer) throws IOException {
+        Path blob = blobPath(hash);
+        FileChannel source;
+        try {
+            source = FileChannel.open(blob, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+        try (source) {
+            long total = source.size();
+            return ResumeTransfer.writeAtomically(target, sink -> {
+                // transferTo lets the kernel copy file to file without passing the bytes through the heap
+                long copied = 0;
+                while (copied < total) {
+                    transfer.checkCancelled();
+                    copied += source.transferTo(copied, Math.min(ResumeTransfer.BUFFER_SIZE * 16L, total - copied), sink);
+                    transfer.report(copied, total);
+                }
+                return copied;
+            });
+        }
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        try {
+            return Files.newInputStream(blobPath(hash));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void release(String hash) throws IOException {
+        locked(hash, () -> {
+            long refs = readRefs(hash);
+            if (refs > 0) {
+                writeRefs(hash, refs - 1);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int collectGarbage() throws IOException {
+        long cutoff = System.currentTimeMillis() - GC_GRACE_MILLIS;
+        int removed = 0;
+        for (Path blob : listBlobs()) {
+            String hash = blob.getFileName().toString();
+            boolean deleted = locked(hash, () -> {
+                if (readRefs(hash) == 0 && Files.getLastModifiedTime(blob).toMillis() < cutoff) {
+                    Files.deleteIfExists(blob);
+                    Files.deleteIfExists(refsPath(hash));
+                    return true;
+                }
+                return false;
+            });
+            if (deleted) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private List<Path> listBlobs() throws IOException {
+        List<Path> blobs = new ArrayList<>();
+        try (DirectoryStream<Path> level1 = Files.newDirectoryStream(root,
+                p -> !p.equals(tmp) && !p.equals(lockDir) && Files.isDirectory(p))) {
+            for (Path dir1 : level1) {
+                try (DirectoryStream<Path> level2 = Files.newDirectoryStream(dir1, Files::isDirectory)) {
+                    for (Path dir2 : level2) {
+                        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir2,
+                                p -> p.getFileName().toString().length() == HASH_LENGTH)) {
+                            files.forEach(blobs::add);
+                        }
+                    }
+                }
+            }
+        }
+        return blobs;
+    }
+
+    private Path blobPath(String hash) {
+        if (ResumeStore.hashIn(hash.getBytes(StandardCharsets.US_ASCII)) == null) {
+            throw new IllegalArgumentException("Not a resume hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path refsPath(String hash) {
+        return blobPath(hash).resolveSibling(hash + ".refs");
+    }
+
+    private long readRefs(String hash) throws IOException {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(refsPath(hash)), StandardCharsets.US_ASCII).trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private void writeRefs(String hash, long refs) throws IOException {
+        Path temp = Files.createTempFile(tmp, "refs-", ".part");
+        Files.write(temp, Long.toString(refs).getBytes(StandardCharsets.US_ASCII));
+        Files.move(temp, refsPath(hash), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Runs the work holding the hash's stripe in this process and in every other process using the directory.
+    // The lock file is opened for each call: closing it releases the lock, and an interrupt only closes this copy.
+    private <T> T locked(String hash, Locked<T> work) throws IOException {
+        int stripe = Math.floorMod(hash.hashCode(), LOCK_STRIPES);
+        synchronized (locks[stripe]) {
+            try (FileChannel channel = FileChannel.open(lockDir.resolve(stripe + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.lock();
+                return work.run();
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,71 @@
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Limits login attempts per email address with a token bucket: a burst of maxAttempts, then one more attempt
+// every windowMillis / maxAttempts. A successful login refills the bucket. Only the most recently tried emails
+// are remembered, so the table stays bounded however many addresses are guessed.
+class LoginRateLimiter {
+    // Thrown instead of checking the password
+    static final class TooManyAttemptsException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final long retryAfterMillis;
+
+        TooManyAttemptsException(long retryAfterMillis) {
+            super("Too many login attempts, please try again in " + ((retryAfterMillis + 999) / 1000) + " seconds");
+            this.retryAfterMillis = retryAfterMillis;
+        }
+    }
+
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+    }
+
+    private final int maxAttempts;
+    private final long windowMillis;
+    private final Map<String, Bucket> buckets; // guarded by this
+
+    public LoginRateLimiter(int maxAttempts, long windowMillis, int maxTracked) {
+        this.maxAttempts = maxAttempts;
+        this.windowMillis = windowMillis;
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxTracked;
+            }
+        };
+    }
+
+    // -Dlogin.attempts (default 5) per -Dlogin.window seconds (default 60)
+    static LoginRateLimiter fromSystemProperties() {
+        return new LoginRateLimiter(Integer.getInteger("login.attempts", 5),
+                Long.getLong("login.window", 60) * 1000, 100_000);
+    }
+
+    // Takes one attempt for this email, or throws if it has none left
+    public synchronized void acquire(String email) {
+        long now = System.currentTimeMillis();
+        Bucket bucket = buckets.computeIfAbsent(key(email), k -> {
+            Bucket b = new Bucket();
+            b.tokens = maxAttempts;
+            b.updatedAt = now;
+            return b;
+        });
+        double refillPerMilli = (double) maxAttempts / windowMillis;
+        bucket.tokens = Math.min(maxAttempts, bucket.tokens + (now - bucket.updatedAt) * refillPerMilli);
+        bucket.updatedAt = now;
+        if (bucket.tokens < 1) {
+            throw new TooManyAttemptsException((long) Math.ceil((1 - bucket.tokens) / refillPerMilli));
+        }
+        bucket.tokens--;
+    }
+
+    public synchronized void succeeded(String email) {
+        buckets.remove(key(email));
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,448 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+// Ranks applicants for a job and jobs for a job seeker by the cosine similarity of TF-IDF term vectors.
+// Terms (TextAnalyzer) are hashed into DIMENSIONS buckets, so a vector is a sorted int[] of buckets and a
+// float[] of log term frequencies. IDF is taken over the job descriptions and applied while scoring, so cached
+// vectors stay valid as jobs come and go. A job's vector is rebuilt only when its text changes; resume vectors
+// are cached by resume hash, which changes whenever the file does. Scoring runs on a ForkJoin pool.
+class MatchingEngine implements AutoCloseable {
+    static final int DIMENSIONS = 1 << 18;
+    private static final int SPLIT_THRESHOLD = 1_024;
+    private static final int LOAD_BATCH = 5_000;
+    private static final String LOAD_SQL =
+            "SELECT id, title, description FROM jobs WHERE id > ? ORDER BY id LIMIT ?";
+
+    // A document's hashed terms
+    static final class TermVector {
+        final int[] buckets;  // ascending
+        final float[] weights; // 1 + log(term count)
+
+        private TermVector(int[] buckets, float[] weights) {
+            this.buckets = buckets;
+            this.weights = weights;
+        }
+
+        static TermVector of(String... texts) {
+            List<String> terms = new ArrayList<>();
+            for (String text : texts) {
+                terms.addAll(TextAnalyzer.terms(text));
+            }
+            int[] all = new int[terms.size()];
+            for (int i = 0; i < all.length; i++) {
+                all[i] = bucket(terms.get(i));
+            }
+            Arrays.sort(all);
+            int distinct = 0;
+            for (int i = 0; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    distinct++;
+                }
+            }
+            int[] buckets = new int[distinct];
+            float[] weights = new float[distinct];
+            for (int i = 0, n = -1; i < all.length; i++) {
+                if (i == 0 || all[i] != all[i - 1]) {
+                    buckets[++n] = all[i];
+                }
+                weights[n]++;
+            }
+            for (int i = 0; i < distinct; i++) {
+                weights[i] = 1 + (float) Math.log(weights[i]);
+            }
+            return new TermVector(buckets, weights);
+        }
+
+        // Fibonacci hashing spreads String.hashCode over the bucket range
+        private static int bucket(String term) {
+            return (term.hashCode() * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(DIMENSIONS));
+        }
+    }
+
+    private static final class JobVector {
+        final int jobId;
+        final int fingerprint; // of the text the vector was built from
+        final TermVector vector;
+
+        JobVector(int jobId, int fingerprint, TermVector vector) {
+            this.jobId = jobId;
+            this.fingerprint = fingerprint;
+            this.vector = vector;
+        }
+    }
+
+    // Where resume files are read from while ranking; keys are resume hashes or the caller's own
+    interface ResumeSource {
+        InputStream open(String key) throws IOException;
+    }
+
+    private final ForkJoinPool pool;
+    private final Map<Integer, JobVector> jobs = new ConcurrentHashMap<>();
+    private final Map<String, TermVector> resumes;
+    // Document frequencies over job vectors, guarded by itself
+    private final int[] documentFrequency = new int[DIMENSIONS];
+    private int documents;
+    private long version;     // bumped by every change to the frequencies
+    private float[] idf;      // computed for idfVersion
+    private long idfVersion = -1;
+    private volatile CompletableFuture<Integer> loaded;
+
+    public MatchingEngine(int threads, int maxCachedResumes) {
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread t =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("matcher-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.resumes = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TermVector> eldest) {
+                return size() > maxCachedResumes;
+            }
+        });
+    }
+
+    // -Dmatch.threads (default one per core), -Dmatch.resumes cached resume vectors (default 50000)
+    static MatchingEngine fromSystemProperties() {
+        return new MatchingEngine(Integer.getInteger("match.threads", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("match.resumes", 50_000));
+    }
+
+    // Builds vectors for every job in the background on first use; completes with the number of jobs
+    public synchronized CompletableFuture<Integer> ensureLoaded(DbExecutor db, QueryScope scope) {
+        if (loaded == null || loaded.isCompletedExceptionally()) {
+            loaded = db.read(scope, "match.load", conn -> {
+                int lastId = 0;
+                int total = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL)) {
+                    while (true) {
+                        pstmt.setInt(1, lastId);
+                        pstmt.setInt(2, LOAD_BATCH);
+                        int batch = 0;
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                lastId = rs.getInt(1);
+                                putJob(lastId, rs.getString(2), rs.getString(3));
+                                batch++;
+                            }
+                        }
+                        total += batch;
+                        if (batch < LOAD_BATCH) {
+                            return total;
+                        }
+                    }
+                }
+            });
+        }
+        return loaded;
+    }
+
+    public boolean isReady() {
+        CompletableFuture<Integer> current = loaded;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    // Adds or replaces a job; does nothing if its text is unchanged
+    public void putJob(int jobId, String title, String description) {
+        int fingerprint = (title + "\u0000" + description).hashCode();
+        JobVector current = jobs.get(jobId);
+        if (current != null && current.fingerprint == fingerprint) {
+            return;
+        }
+        TermVector vector = TermVector.of(title, title, description); // the title counts twice
+        synchronized (documentFrequency) {
+            JobVector old = jobs.put(jobId, new JobVector(jobId, fingerprint, vector));
+            if (old != null) {
+                count(old.vector, -1);
+            }
+            count(vector, 1);
+        }
+    }
+
+    public void removeJob(int jobId) {
+        synchronized (documentFrequency) {
+            JobVector old = jobs.remove(jobId);
+            if (old != null) {
+                count(old.vector, -1);
+            }
+        }
+    }
+
+    private void count(TermVector vector, int sign) {
+        for (int bucket : vector.buckets) {
+            documentFrequency[bucket] += sign;
+        }
+        documents += sign;
+        version++;
+    }
+
+    private float[] idf() {
+        synchronized (documentFrequency) {
+            if (idfVersion != version) {
+                float[] next = new float[DIMENSIONS]; // rankings in progress keep the old one
+                for (int i = 0; i < DIMENSIONS; i++) {
+                    next[i] = (float) (Math.log((documents + 1.0) / (documentFrequency[i] + 1.0)) + 1);
+                }
+                idf = next;
+                idfVersion = version;
+            }
+            return idf;
+        }
+    }
+
+    public boolean hasResume(String key) {
+        return resumes.containsKey(key);
+    }
+
+    // The resume's vector, read and cached on first use; null if the source has no such resume
+    public TermVector resume(String key, ResumeSource source) throws IOException {
+        TermVector vector = resumes.get(key);
+        if (vector == null) {
+            try (InputStream in = source.open(key)) {
+                if (in == null) {
+                    return null;
+                }
+                vector = TermVector.of(ResumeText.extract(in));
+            }
+            resumes.put(key, vector);
+        }
+        return vector;
+    }
+
+    // The k resumes best matching the job, best first, as (index into keys, score). Resumes are read and
+    // scored in parallel.
+    public List<InvertedIndex.Hit> rankResumes(int jobId, String[] keys, ResumeSource source, int k) {
+        JobVector job = jobs.get(jobId);
+        if (job == null || keys.length == 0) {
+            return List.of();
+        }
+        TermVector[] vectors = new TermVector[keys.length];
+        inPool(() -> IntStream.range(0, keys.length).parallel().forEach(i -> {
+            if (keys[i] != null) {
+                try {
+                    vectors[i] = resume(keys[i], source);
+                } catch (IOException e) {
+                    System.err.println("Reading resume " + keys[i] + " failed: " + e.getMessage()); // ranked last
+                }
+            }
+        }));
+        int[] ids = IntStream.range(0, keys.length).toArray();
+        return rank(job.vector, ids, vectors, k);
+    }
+
+    // Up to k jobs best matching the resume, best first, skipping excluded job ids
+    public List<InvertedIndex.Hit> rankJobs(TermVector resume, int k, IntPredicate exclude) {
+        List<JobVector> candidates = new ArrayList<>(jobs.size());
+        for (JobVector job : jobs.values()) {
+            if (!exclude.test(job.jobId)) {
+                candidates.add(job);
+            }
+        }
+        int[] ids = new int[candidates.size()];
+        TermVector[] vectors = new TermVector[candidates.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = candidates.get(i).jobId;
+            vectors[i] = candidates.get(i).vector;
+        }
+        List<InvertedIndex.Hit> hits = new ArrayList<>(rank(resume, ids, vectors, k));
+        hits.removeIf(hit -> hit.score == 0); // nothing in common
+        return hits;
+    }
+
+    private List<InvertedIndex.Hit> rank(TermVector query, int[] ids, TermVector[] vectors, int k) {
+        float[] idf = idf();
+        float[] queryWeights = new float[query.buckets.length];
+        for (int i = 0; i < queryWeights.length; i++) {
+            queryWeights[i] = query.weights[i] * idf[query.buckets[i]];
+        }
+        double queryNorm = norm(queryWeights);
+        if (queryNorm == 0 || ids.length == 0) {
+            return List.of();
+        }
+        for (int i = 0; i < queryWeights.length; i++) {
+            queryWeights[i] /= (float) queryNorm;
+        }
+        return pool.invoke(new RankTask(query.buckets, queryWeights, idf, ids, vectors, k, 0, ids.length)).hits();
+    }
+
+    // Runs a parallel stream on this engine's pool instead of the common one
+    private void inPool(Runnable work) {
+        try {
+            pool.submit(work).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while ranking", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // Scores [from, to) of the candidates, splitting the range until it is small enough for one thread
+    private static final class RankTask extends RecursiveTask<TopK> {
+        private static final long serialVersionUID = 1L;
+        final int[] queryBuckets;
+        final float[] queryWeights;
+        final float[] idf;
+        final int[] ids;
+        final TermVector[] vectors;
+        final int k, from, to;
+
+        RankTask(int[] queryBuckets, float[] queryWeights, float[] idf, int[] ids, TermVector[] vectors,
+                 int k, int from, int to) {
+            this.queryBuckets = queryBuckets;
+            this.queryWeights = queryWeights;
+            this.idf = idf;
+            this.ids = ids;
+            this.vectors = vectors;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                RankTask left = new RankTask(queryBuckets, queryWeights, idf, ids, vectors, k, from, mid);
+                left.fork();
+                TopK right = new RankTask(queryBuckets, queryWeights, idf, ids, vectors, k, mid, to).compute();
+                return right.addAll(left.join());
+            }
+            TopK top = new TopK(k);
+            for (int i = from; i < to; i++) {
+                TermVector vector = vectors[i];
+                top.offer(ids[i], vector == null ? 0 : cosine(vector));
+            }
+            return top;
+        }
+
+        // The query side is already weighted and normalized
+        private float cosine(TermVector doc) {
+            double dot = 0, norm = 0;
+            int q = 0;
+            for (int d = 0; d < doc.buckets.length; d++) {
+                int bucket = doc.buckets[d];
+                float weight = doc.weights[d] * idf[bucket];
+                norm += weight * weight;
+                while (q < queryBuckets.length && queryBuckets[q] < bucket) {
+                    q++;
+                }
+                if (q < queryBuckets.length && queryBuckets[q] == bucket) {
+                    dot += queryWeights[q] * weight;
+                }
+            }
+            return norm == 0 ? 0 : (float) (dot / Math.sqrt(norm));
+        }
+    }
+
+    // The k best (id, score) pairs seen, in a min-heap of parallel primitive arrays
+    private static final class TopK {
+        final int[] ids;
+        final float[] scores;
+        int size;
+
+        TopK(int k) {
+            ids = new int[k];
+            scores = new float[k];
+        }
+
+        void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (ids.length > 0 && score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        TopK addAll(TopK other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.ids[i], other.scores[i]);
+            }
+            return this;
+        }
+
+        List<InvertedIndex.Hit> hits() {
+            List<InvertedIndex.Hit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new InvertedIndex.Hit(ids[i], scores[i]));
+            }
+            hits.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Integer.compare(a.docId, b.docId));
+            return hits;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && scores[child + 1] < scores[child]) {
+                    child++;
+                }
+                if (scores[i] <= scores[child]) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    private static double norm(float[] weights) {
+        double sum = 0;
+        for (float w : weights) {
+            sum += w * w;
+        }
+        return Math.sqrt(sum);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
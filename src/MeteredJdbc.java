@@ -0,0 +1,126 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Wraps a borrowed connection so the statements and result sets made from it add their time, rows and bytes
+// read to a Metrics.Trace. Bytes are what the values take in Java: a character per string char, the length of
+// binary values, 4 or 8 for numbers and dates; streamed columns (resume downloads) are not counted.
+final class MeteredJdbc {
+    private MeteredJdbc() {
+    }
+
+    static Connection wrap(Connection conn, Metrics.Trace trace) {
+        return proxy(Connection.class, new Metered(conn, trace) {
+            @Override
+            Object call(Method method, Object[] args) throws Throwable {
+                Object result = invoke(method, args);
+                return result instanceof Statement ? statement(method.getReturnType(), (Statement) result, trace)
+                        : result;
+            }
+        });
+    }
+
+    private static Object statement(Class<?> type, Statement statement, Metrics.Trace trace) {
+        return proxy(type, new Metered(statement, trace) {
+            @Override
+            Object call(Method method, Object[] args) throws Throwable {
+                String name = method.getName();
+                if (name.startsWith("execute")) {
+                    long start = System.nanoTime();
+                    try {
+                        return resultSet(invoke(method, args), trace);
+                    } finally {
+                        trace.executeNanos += System.nanoTime() - start;
+                    }
+                }
+                return resultSet(invoke(method, args), trace); // getResultSet, getGeneratedKeys
+            }
+        });
+    }
+
+    private static Object resultSet(Object result, Metrics.Trace trace) {
+        if (!(result instanceof ResultSet)) {
+            return result;
+        }
+        return proxy(ResultSet.class, new Metered(result, trace) {
+            @Override
+            Object call(Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("next")) {
+                    long start = System.nanoTime();
+                    Object more = invoke(method, args);
+                    trace.fetchNanos += System.nanoTime() - start;
+                    if (Boolean.TRUE.equals(more)) {
+                        trace.rows++;
+                    }
+                    return more;
+                }
+                Object value = invoke(method, args);
+                if (method.getName().startsWith("get")) {
+                    trace.bytes += sizeOf(value);
+                }
+                return value;
+            }
+        });
+    }
+
+    private static long sizeOf(Object value) {
+        if (value instanceof String) {
+            return ((String) value).length();
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        if (value instanceof Integer || value instanceof Float) {
+            return 4;
+        }
+        if (value instanceof Long || value instanceof Double || value instanceof BigDecimal
+                || value instanceof java.util.Date) {
+            return 8;
+        }
+        return value instanceof Boolean || value instanceof Byte ? 1 : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(MeteredJdbc.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private abstract static class Metered implements InvocationHandler {
+        private final Object target;
+        final Metrics.Trace trace;
+
+        Metered(Object target, Metrics.Trace trace) {
+            this.target = target;
+            this.trace = trace;
+        }
+
+        abstract Object call(Method method, Object[] args) throws Throwable;
+
+        final Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Metered[" + target + "]";
+                default:
+                    return call(method, args);
+            }
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histograms and counters for the database calls made by the screens, tagged by operation (login,
+// search, apply, review, status, ...), and the UI stalls reported by EdtStallDetector. Recording a call is a
+// handful of lock-free adds, cheap enough to leave on; readers take snapshots (MetricsLog, DiagnosticsPanel).
+class Metrics {
+    private static final int SUB_BUCKETS = 4;            // per power of two, so a bucket is at most 25% wide
+    private static final int BUCKETS = 31 * SUB_BUCKETS; // microseconds, up to about 40 minutes
+    private static final int RECENT_STALLS = 20;
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final Deque<Stall> stalls = new ArrayDeque<>(); // guarded by itself; newest first
+    private final AtomicLong stallCount = new AtomicLong();
+
+    // Where the time of one call went. Written only by the thread running the call, read once it has finished.
+    static final class Trace {
+        final String operation;
+        private final long submittedAt = System.nanoTime();
+        private long startedAt;
+        long queueNanos, connectNanos, executeNanos, fetchNanos;
+        long rows, bytes;
+
+        private Trace(String operation) {
+            this.operation = operation;
+        }
+
+        // The call left the executor's queue
+        void started() {
+            startedAt = System.nanoTime();
+            queueNanos = startedAt - submittedAt;
+        }
+
+        // A pooled connection was borrowed
+        void connected() {
+            connectNanos = System.nanoTime() - startedAt;
+        }
+    }
+
+    private static final class Operation {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder bytes = new LongAdder();
+        final LongAdder queueNanos = new LongAdder();
+        final LongAdder connectNanos = new LongAdder();
+        final LongAdder executeNanos = new LongAdder();
+        final LongAdder fetchNanos = new LongAdder();
+        final LongAdder edtNanos = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+    }
+
+    // A UI event that held the event dispatch thread; `stack` is where the EDT was while it ran long, if caught
+    record Stall(long sequence, long atMillis, long millis, String event, StackTraceElement[] stack) {
+        // The first frame in application code, which is usually the one to fix
+        String where() {
+            for (StackTraceElement frame : stack) {
+                String name = frame.getClassName();
+                if (!name.startsWith("java.") && !name.startsWith("javax.") && !name.startsWith("sun.")
+                        && !name.startsWith("jdk.") && !name.equals(EdtStallDetector.class.getName())) {
+                    return frame.toString();
+                }
+            }
+            return stack.length > 0 ? stack[0].toString() : "unknown";
+        }
+    }
+
+    // Totals for one operation since start; times are summed over calls
+    record Snapshot(String operation, long calls, long errors, long rows, long bytes, long queueNanos,
+                    long connectNanos, long executeNanos, long fetchNanos, long edtNanos, long[] histogram) {
+        // The calls made since `earlier`, a snapshot of the same operation
+        Snapshot minus(Snapshot earlier) {
+            if (earlier == null) {
+                return this;
+            }
+            long[] buckets = histogram.clone();
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] -= earlier.histogram[i];
+            }
+            return new Snapshot(operation, calls - earlier.calls, errors - earlier.errors, rows - earlier.rows,
+                    bytes - earlier.bytes, queueNanos - earlier.queueNanos, connectNanos - earlier.connectNanos,
+                    executeNanos - earlier.executeNanos, fetchNanos - earlier.fetchNanos,
+                    edtNanos - earlier.edtNanos, buckets);
+        }
+
+        // Upper bound of the bucket holding the given fraction of calls, e.g. 0.99; 0 with no calls
+        double percentileMillis(double fraction) {
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            long target = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= Math.max(1, target)) {
+                    return upperBoundMicros(i) / 1000.0;
+                }
+            }
+            return 0;
+        }
+
+        double maxMillis() {
+            return percentileMillis(1);
+        }
+
+        // Mean per call of a summed time
+        double averageMillis(long totalNanos) {
+            return calls == 0 ? 0 : totalNanos / 1e6 / calls;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("op=%s calls=%d errors=%d p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms rows=%d"
+                            + " bytes=%d queue=%.2fms connect=%.2fms execute=%.2fms fetch=%.2fms edt=%.2fms",
+                    operation, calls, errors, percentileMillis(0.5), percentileMillis(0.9), percentileMillis(0.99),
+                    maxMillis(), rows, bytes, averageMillis(queueNanos), averageMillis(connectNanos),
+                    averageMillis(executeNanos), averageMillis(fetchNanos), averageMillis(edtNanos));
+        }
+    }
+
+    Trace start(String operation) {
+        return new Trace(operation);
+    }
+
+    // Records a finished call; its latency runs from submission, so time spent queued counts
+    void record(Trace trace, boolean failed) {
+        Operation op = operation(trace.operation);
+        op.calls.increment();
+        if (failed) {
+            op.errors.increment();
+        }
+        op.rows.add(trace.rows);
+        op.bytes.add(trace.bytes);
+        op.queueNanos.add(trace.queueNanos);
+        op.connectNanos.add(trace.connectNanos);
+        op.executeNanos.add(trace.executeNanos);
+        op.fetchNanos.add(trace.fetchNanos);
+        op.histogram.incrementAndGet(bucket((System.nanoTime() - trace.submittedAt) / 1000));
+    }
+
+    // Records something timed outside DbExecutor, such as startup or showing a screen
+    void recordTime(String operation, long nanos) {
+        Operation op = operation(operation);
+        op.calls.increment();
+        op.histogram.incrementAndGet(bucket(nanos / 1000));
+    }
+
+    // Time the EDT spent applying an operation's results to a table; time spent waiting for the EDT behind
+    // other events shows up as stalls instead
+    void recordEdt(String operation, long nanos) {
+        operation(operation).edtNanos.add(nanos);
+    }
+
+    void stall(long nanos, String event, StackTraceElement[] stack) {
+        Stall stall = new Stall(stallCount.incrementAndGet(), System.currentTimeMillis(), nanos / 1_000_000, event,
+                stack == null ? new StackTraceElement[0] : stack);
+        synchronized (stalls) {
+            stalls.addFirst(stall);
+            if (stalls.size() > RECENT_STALLS) {
+                stalls.removeLast();
+            }
+        }
+    }
+
+    long stallCount() {
+        return stallCount.get();
+    }
+
+    // The last few stalls, newest first
+    List<Stall> recentStalls() {
+        synchronized (stalls) {
+            return new ArrayList<>(stalls);
+        }
+    }
+
+    // Every operation seen so far, by name
+    Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        operations.forEach((name, op) -> {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = op.histogram.get(i);
+            }
+            snapshot.put(name, new Snapshot(name, op.calls.sum(), op.errors.sum(), op.rows.sum(), op.bytes.sum(),
+                    op.queueNanos.sum(), op.connectNanos.sum(), op.executeNanos.sum(), op.fetchNanos.sum(),
+                    op.edtNanos.sum(), buckets));
+        });
+        return snapshot;
+    }
+
+    private Operation operation(String name) {
+        Operation op = operations.get(name);
+        return op != null ? op : operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    // Buckets 0-3 hold 0-3 us; above that, four per power of two
+    private static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int mantissa = (int) (micros >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - 1) * SUB_BUCKETS + mantissa);
+    }
+
+    private static long upperBoundMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket + 1;
+        }
+        int exponent = bucket / SUB_BUCKETS + 1;
+        int mantissa = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + mantissa + 1) << (exponent - 2);
+    }
+}
@@ -0,0 +1,138 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Appends what Metrics saw in each interval to metrics.log: a line per operation called in the interval, the
+// connection pool's state, the replicas' and the UI stalls, each with the EDT's stack. Quiet intervals write nothing. The file
+// rolls over past a size limit, keeping the last few (metrics.log.1 is the newest).
+class MetricsLog implements AutoCloseable {
+    private static final int STALL_FRAMES = 12;
+
+    private final Metrics metrics;
+    private final ReplicaRouter router;
+    private final Path file;
+    private final long maxBytes;
+    private final int keep;
+    private final ScheduledExecutorService writer;
+    private Map<String, Metrics.Snapshot> previous = Map.of(); // writer thread only
+    private long lastStall;
+
+    public MetricsLog(Metrics metrics, ReplicaRouter router, Path directory, long intervalMillis, long maxBytes,
+                      int keep) throws IOException {
+        this.metrics = metrics;
+        this.router = router;
+        this.file = Files.createDirectories(directory).resolve("metrics.log");
+        this.maxBytes = maxBytes;
+        this.keep = keep;
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-log");
+            t.setDaemon(true);
+            return t;
+        });
+        writer.scheduleWithFixedDelay(this::writeQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // -Dmetrics.dir (default ~/.job-recruitment/metrics), -Dmetrics.interval seconds (default 60),
+    // -Dmetrics.file.kb (default 1024), -Dmetrics.files old files kept (default 5)
+    static MetricsLog fromSystemProperties(Metrics metrics, ReplicaRouter router) throws IOException {
+        String home = System.getProperty("user.home");
+        return new MetricsLog(metrics, router, Paths.get(System.getProperty("metrics.dir",
+                Paths.get(home, ".job-recruitment", "metrics").toString())),
+                Long.getLong("metrics.interval", 60) * 1000, Long.getLong("metrics.file.kb", 1024) * 1024,
+                Integer.getInteger("metrics.files", 5));
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    // Writes the interval since the last call
+    synchronized void write() throws IOException {
+        Map<String, Metrics.Snapshot> current = metrics.snapshot();
+        List<Metrics.Stall> stalls = metrics.recentStalls();
+        String now = Instant.now().toString();
+        StringBuilder out = new StringBuilder();
+        for (Metrics.Snapshot snapshot : current.values()) {
+            Metrics.Snapshot interval = snapshot.minus(previous.get(snapshot.operation()));
+            if (interval.calls() > 0) {
+                out.append(now).append(' ').append(interval).append('\n');
+            }
+        }
+        long stallCount = metrics.stallCount();
+        if (stallCount > lastStall) {
+            out.append(now).append(" stalls=").append(stallCount - lastStall).append('\n');
+            for (int i = stalls.size() - 1; i >= 0; i--) {
+                Metrics.Stall stall = stalls.get(i);
+                if (stall.sequence() > lastStall) {
+                    appendStall(out, stall);
+                }
+            }
+        }
+        previous = current;
+        lastStall = stallCount;
+        if (out.length() == 0) {
+            return;
+        }
+        if (router != null) {
+            out.append(now).append(" pool ").append(router.primary().stats()).append('\n');
+            if (router.hasReplicas()) {
+                for (String line : router.describe()) {
+                    out.append(now).append(" route ").append(line).append('\n');
+                }
+            }
+        }
+        rollIfFull();
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(out.toString());
+        }
+    }
+
+    private static void appendStall(StringBuilder out, Metrics.Stall stall) {
+        out.append(Instant.ofEpochMilli(stall.atMillis())).append(" stall ").append(stall.millis()).append("ms ")
+                .append(stall.event()).append('\n');
+        StackTraceElement[] stack = stall.stack();
+        for (int i = 0; i < Math.min(STALL_FRAMES, stack.length); i++) {
+            out.append("\tat ").append(stack[i]).append('\n');
+        }
+    }
+
+    private void rollIfFull() throws IOException {
+        if (!Files.exists(file) || Files.size(file) < maxBytes) {
+            return;
+        }
+        Files.deleteIfExists(rolled(keep));
+        for (int i = keep - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rolled(int n) {
+        return file.resolveSibling(file.getFileName() + "." + n);
+    }
+
+    // Writes what is left of the current interval
+    @Override
+    public void close() {
+        writer.shutdownNow();
+        writeQuietly();
+    }
+}
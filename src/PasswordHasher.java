@@ -0,0 +1,139 @@
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Salted PBKDF2 password hashes, stored as "pbkdf2-sha512$<iterations>$<salt>$<hash>" (base64).
+// Hashing is deliberately slow, so it runs on a small CPU pool of its own rather than on the EDT or a
+// database worker; a full queue fails fast with RejectedExecutionException instead of piling up logins.
+// Rows from before hashing hold the plain password; verify() accepts them and needsRehash() flags them.
+class PasswordHasher implements AutoCloseable {
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final String PREFIX = "pbkdf2-sha512$";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private final int iterations;
+    private final ThreadPoolExecutor workers;
+    private final SecureRandom random = new SecureRandom();
+    private volatile String dummyHash; // checked for unknown emails so they take as long as wrong passwords
+
+    public PasswordHasher(int iterations, int threads, int queueCapacity) {
+        this.iterations = iterations;
+        AtomicInteger counter = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "password-hasher-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    // -Dpassword.iterations (default 210000, the OWASP figure for PBKDF2-HMAC-SHA512); one thread per core
+    static PasswordHasher fromSystemProperties() {
+        return new PasswordHasher(Integer.getInteger("password.iterations", 210_000),
+                Runtime.getRuntime().availableProcessors(), 256);
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    // Runs hashing work on the CPU pool
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            workers.execute(() -> {
+                try {
+                    future.complete(work.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new RejectedExecutionException("Too many logins at once, please try again", e));
+        }
+        return future;
+    }
+
+    // A new hash with a fresh salt; runs on the calling thread
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$"
+                + encoder.encodeToString(derive(password, salt, iterations));
+    }
+
+    // Whether the password matches the stored hash (or, for rows not migrated yet, the stored plain password)
+    public boolean verify(String password, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(derive(password, decoder.decode(parts[2]), Integer.parseInt(parts[1])),
+                    expected);
+        } catch (IllegalArgumentException e) { // damaged row
+            return false;
+        }
+    }
+
+    // Plain passwords and hashes made with fewer iterations are replaced after the next successful login
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        int end = stored.indexOf('$', PREFIX.length());
+        try {
+            return end < 0 || Integer.parseInt(stored.substring(PREFIX.length(), end)) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    // Spends the same time as a real check, for logins with no matching account
+    public void verifyDummy(String password) {
+        String dummy = dummyHash;
+        if (dummy == null) {
+            dummyHash = dummy = hash("");
+        }
+        verify(password, dummy);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Groups the background queries started by one screen so they can all be cancelled when the user leaves it
+class QueryScope {
+    private final WritePosition writes;
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<?>> latest = new HashMap<>(); // guarded by this
+    private volatile boolean cancelled;
+
+    public QueryScope() {
+        this(null);
+    }
+
+    // Queries in the scope read the writes of the session this position belongs to
+    public QueryScope(WritePosition writes) {
+        this.writes = writes;
+    }
+
+    // The session's write position, or null outside a session
+    WritePosition writes() {
+        return writes;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void register(CompletableFuture<?> future) {
+        inFlight.add(future);
+        future.whenComplete((r, e) -> inFlight.remove(future));
+    }
+
+    void replace(String key, CompletableFuture<?> future) {
+        CompletableFuture<?> previous;
+        synchronized (this) {
+            previous = latest.put(key, future);
+        }
+        if (previous != null && previous != future) {
+            previous.cancel(false);
+        }
+    }
+
+    // Registers a statement so cancel() can abort it on the server while it is still executing
+    public <S extends Statement> S track(S statement) {
+        statements.removeIf(QueryScope::isClosed);
+        statements.add(statement);
+        if (cancelled) {
+            cancelStatement(statement);
+        }
+        return statement;
+    }
+
+    public void cancel() {
+        cancelled = true;
+        for (CompletableFuture<?> future : inFlight) {
+            future.cancel(false);
+        }
+        for (Statement statement : statements) {
+            cancelStatement(statement);
+        }
+        statements.clear();
+    }
+
+    private static boolean isClosed(Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private static void cancelStatement(Statement statement) {
+        try {
+            if (!statement.isClosed()) {
+                statement.cancel();
+            }
+        } catch (SQLException ignored) {
+            // Driver does not support cancel or statement already finished
+        }
+    }
+}
@@ -0,0 +1,211 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Splits the database traffic: writes go to the primary, reads to replicas, taken in turn. A health check
+// polls every replica; one that fails it, or has fallen more than maxLagMillis behind the primary, gets no reads
+// until it recovers. Reads then fall back to the primary, as they do when no replica is configured.
+//
+// Positions are change_log versions. Every write to jobs or applications logs one in its transaction, and
+// replicas copy change_log like any other table. A session's reads go to a replica only once the replica holds
+// every version up to the session's WritePosition, so a seeker sees the application they have just made.
+// Versions can commit out of order, so a replica's position is the end of its gap-free run of versions; a gap
+// that stays open past maxLagMillis is a rolled-back insert and is skipped.
+class ReplicaRouter implements AutoCloseable {
+    private static final String RANGE_SQL =
+            "SELECT COUNT(*), COALESCE(MAX(version), 0) FROM change_log WHERE version > ?";
+
+    private final ConnectionPool primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final ScheduledExecutorService checker;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final Deque<long[]> primaryVersions = new ArrayDeque<>(); // {at millis, version}; checker thread only
+
+    private static final class Replica {
+        final String name;
+        final ConnectionPool pool;
+        final AtomicLong reads = new AtomicLong();
+        volatile boolean healthy;   // answered the last check and within maxLagMillis of the primary
+        volatile long applied = -1; // every version up to here is on the replica
+        volatile long lagMillis;
+        volatile String error;
+        long gapSince;              // checker thread only
+
+        Replica(String name, ConnectionPool pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+    }
+
+    // Everything on the primary
+    public ReplicaRouter(ConnectionPool primary) {
+        this(primary, List.of(), 0, 0);
+    }
+
+    public ReplicaRouter(ConnectionPool primary, List<ConnectionPool> replicaPools, long checkMillis,
+                         long maxLagMillis) {
+        this.primary = primary;
+        this.maxLagMillis = maxLagMillis;
+        List<Replica> list = new ArrayList<>();
+        for (int i = 0; i < replicaPools.size(); i++) {
+            list.add(new Replica("replica" + (i + 1), replicaPools.get(i)));
+        }
+        replicas = List.copyOf(list);
+        if (replicas.isEmpty()) {
+            checker = null;
+            return;
+        }
+        checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        checker.scheduleWithFixedDelay(this::check, 0, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // -Ddb.replicas is a comma-separated list of JDBC URLs (none by default); -Ddb.replica.user and
+    // -Ddb.replica.password default to the primary's. -Ddb.replica.check.millis (default 1000),
+    // -Ddb.replica.max.lag.millis (default 5000).
+    static ReplicaRouter fromSystemProperties(ConnectionPool primary, int maxSize) {
+        List<ConnectionPool> pools = new ArrayList<>();
+        String user = System.getProperty("db.replica.user", System.getProperty("db.user", "root"));
+        String password = System.getProperty("db.replica.password", System.getProperty("db.password", "HSSDataBase22"));
+        for (String url : System.getProperty("db.replicas", "").split(",")) {
+            if (!url.isBlank()) {
+                pools.add(new ConnectionPool(url.trim(), user, password, maxSize));
+            }
+        }
+        return new ReplicaRouter(primary, pools, Long.getLong("db.replica.check.millis", 1_000),
+                Long.getLong("db.replica.max.lag.millis", 5_000));
+    }
+
+    boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    ConnectionPool primary() {
+        return primary;
+    }
+
+    // A connection for writes, and for reads that must see every committed write (login, registration)
+    Connection write() throws SQLException {
+        return primary.getConnection();
+    }
+
+    // A connection for a read-only call; `writes` is the session's position, or null for reads that may lag
+    Connection read(WritePosition writes) throws SQLException {
+        if (!replicas.isEmpty() && (writes == null || !writes.hasQueued())) {
+            long needed = writes == null ? 0 : writes.version();
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.healthy || replica.applied < needed) {
+                    continue;
+                }
+                try {
+                    Connection conn = replica.pool.getConnection();
+                    replica.reads.incrementAndGet();
+                    return conn;
+                } catch (SQLException e) {
+                    replica.healthy = false; // until the next check says otherwise
+                    replica.error = e.getMessage();
+                }
+            }
+        }
+        primaryReads.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    private void check() {
+        long now = System.currentTimeMillis();
+        try (Connection conn = primary.getConnection()) {
+            primaryVersions.addLast(new long[]{now, ChangeLog.latestVersion(conn)});
+        } catch (SQLException e) {
+            System.err.println("Replica check could not read the primary: " + e.getMessage());
+        }
+        while (primaryVersions.size() > 1 && now - primaryVersions.peekFirst()[0] > 2 * maxLagMillis) {
+            primaryVersions.removeFirst();
+        }
+        for (Replica replica : replicas) {
+            try {
+                checkReplica(replica, now);
+            } catch (SQLException | RuntimeException e) {
+                replica.healthy = false;
+                replica.error = String.valueOf(e.getMessage()).lines().findFirst().orElse("");
+            }
+        }
+    }
+
+    private void checkReplica(Replica replica, long now) throws SQLException {
+        long count, latest;
+        try (Connection conn = replica.pool.getConnection()) {
+            if (replica.applied < 0) {
+                replica.applied = ChangeLog.latestVersion(conn); // older writes belong to no live session
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(RANGE_SQL)) {
+                pstmt.setLong(1, replica.applied);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    count = rs.getLong(1);
+                    latest = rs.getLong(2);
+                }
+            }
+        }
+        if (count == 0 || count == latest - replica.applied) {
+            replica.gapSince = 0;
+            replica.applied = Math.max(replica.applied, latest);
+        } else if (replica.gapSince == 0) {
+            replica.gapSince = now;
+        } else if (now - replica.gapSince > maxLagMillis) {
+            replica.gapSince = 0;
+            replica.applied = latest;
+        }
+        // Behind by the age of the oldest primary version the replica has not reached yet
+        long lag = 0;
+        long seen = Math.max(latest, replica.applied);
+        for (long[] sample : primaryVersions) {
+            if (sample[1] > seen) {
+                lag = now - sample[0];
+                break;
+            }
+        }
+        replica.lagMillis = lag;
+        replica.healthy = lag <= maxLagMillis;
+        replica.error = replica.healthy ? null : "behind the primary by " + lag + " ms";
+    }
+
+    // One line per database: where reads went and how each replica is doing
+    List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        lines.add("primary reads=" + primaryReads.get());
+        for (Replica replica : replicas) {
+            lines.add(replica.name + (replica.healthy ? " up" : " down") + " reads=" + replica.reads.get()
+                    + " lag=" + replica.lagMillis + "ms applied=" + replica.applied
+                    + (replica.error == null ? "" : " (" + replica.error + ")"));
+        }
+        return lines;
+    }
+
+    // Closes the replica pools; the primary pool belongs to the caller
+    @Override
+    public void close() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+}
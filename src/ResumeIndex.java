@@ -0,0 +1,222 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Full-text search over applicants' resumes, for employers looking for a skill across everyone who applied to
+// their jobs. Documents are applications, filtered by their job's employer.
+//
+// Text is extracted off the request path: when the change feed reports a new application, a small worker pool
+// reads the resume from the local store, extracts its text (ResumeText), saves it compressed in resume_texts and
+// indexes it. The instance that holds the file logs the stored text, so every other instance indexes it from the
+// database without the file. At startup the index is loaded from resume_texts, and resumes stored here that
+// have no text yet are extracted.
+class ResumeIndex implements AutoCloseable {
+    private static final int LOAD_BATCH = 2_000;
+    private static final String HASH_COLUMN =
+            "CASE WHEN LENGTH(a.resumepath) = " + ResumeStore.HASH_LENGTH + " THEN a.resumepath END";
+    private static final String LOAD_SQL = "SELECT a.id, j.employerId, " + HASH_COLUMN + " " +
+            "FROM applications a JOIN jobs j ON a.jobId = j.id WHERE a.id > ? ORDER BY a.id LIMIT ?";
+
+    // An application whose resume has to be indexed
+    private record Entry(int applicationId, int employerId, String hash) {
+    }
+
+    private final InvertedIndex index = new InvertedIndex(1);
+    private final ConnectionPool pool;
+    private final ResumeStore resumeStore;
+    private final ThreadPoolExecutor workers;
+    private final AtomicLong extracted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile CompletableFuture<Integer> loaded;
+
+    public ResumeIndex(ConnectionPool pool, ResumeStore resumeStore, int threads, int queueCapacity) {
+        this.pool = pool;
+        this.resumeStore = resumeStore;
+        AtomicInteger counter = new AtomicInteger();
+        // A full queue makes the submitting thread (the feed or the initial load) extract the resume itself,
+        // which slows it down instead of losing the resume
+        workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "resume-indexer-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY); // parsing must not slow down the screens
+            return t;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    // -Dresume.index.threads (default 2), -Dresume.index.queue (default 1000)
+    static ResumeIndex fromSystemProperties(ConnectionPool pool, ResumeStore resumeStore) {
+        return new ResumeIndex(pool, resumeStore, Integer.getInteger("resume.index.threads", 2),
+                Integer.getInteger("resume.index.queue", 1_000));
+    }
+
+    // Starts the background load on first use; completes with the number of applications indexed
+    public synchronized CompletableFuture<Integer> ensureLoaded(DbExecutor db, QueryScope scope) {
+        if (loaded == null || loaded.isCompletedExceptionally()) {
+            loaded = db.read(scope, "resumes.load", conn -> {
+                int lastId = 0;
+                int total = 0;
+                try (PreparedStatement pstmt = conn.prepareStatement(LOAD_SQL)) {
+                    while (true) {
+                        pstmt.setInt(1, lastId);
+                        pstmt.setInt(2, LOAD_BATCH);
+                        List<Entry> batch = new ArrayList<>();
+                        int rows = 0;
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            while (rs.next()) {
+                                lastId = rs.getInt(1);
+                                rows++;
+                                String hash = ResumeStore.hashIn(rs.getBytes(3));
+                                if (hash != null) {
+                                    batch.add(new Entry(lastId, rs.getInt(2), hash));
+                                }
+                            }
+                        }
+                        total += indexOrExtract(conn, batch, true);
+                        if (rows < LOAD_BATCH) {
+                            return total;
+                        }
+                    }
+                }
+            });
+        }
+        return loaded;
+    }
+
+    public boolean isReady() {
+        CompletableFuture<Integer> current = loaded;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+
+    // New applications are indexed once their text is stored, by this instance or the one holding the file;
+    // deleted and archived ones leave the index
+    public void follow(ChangeFeed feed, QueryScope scope) {
+        feed.subscribe(scope, (conn, changes) -> {
+            for (int id : ChangeFeed.rowIds(changes, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                    && ChangeLog.removes(c.op))) {
+                index.remove(id);
+            }
+            int[] inserted = ChangeFeed.rowIds(changes, c -> c.table.equals(ChangeLog.APPLICATIONS)
+                    && c.op == ChangeLog.INSERTED);
+            int[] stored = ChangeFeed.rowIds(changes, c -> c.table.equals(ChangeLog.RESUME_TEXTS));
+            if (inserted.length > 0) {
+                indexOrExtract(conn, entries(conn, inserted), true);
+            }
+            if (stored.length > 0) {
+                indexOrExtract(conn, entries(conn, stored), false);
+            }
+        });
+    }
+
+    private static List<Entry> entries(Connection conn, int[] ids) throws SQLException {
+        List<Entry> entries = new ArrayList<>();
+        String sql = "SELECT a.id, j.employerId, " + HASH_COLUMN + " FROM applications a " +
+                "JOIN jobs j ON a.jobId = j.id WHERE a.id IN (" + ApplicationBatch.placeholders(ids.length) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 1, ids[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String hash = ResumeStore.hashIn(rs.getBytes(3));
+                    if (hash != null) {
+                        entries.add(new Entry(rs.getInt(1), rs.getInt(2), hash));
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    // Indexes the entries whose text is stored; the others are extracted in the background if asked to.
+    // Returns the number indexed now.
+    private int indexOrExtract(Connection conn, List<Entry> entries, boolean extractMissing) throws SQLException {
+        Set<String> hashes = new HashSet<>();
+        for (Entry entry : entries) {
+            hashes.add(entry.hash());
+        }
+        Map<String, String> texts = ResumeTexts.find(conn, hashes);
+        int indexed = 0;
+        for (Entry entry : entries) {
+            String text = texts.get(entry.hash());
+            if (text != null) {
+                put(entry.applicationId(), entry.employerId(), text);
+                indexed++;
+            } else if (extractMissing) {
+                workers.execute(() -> extract(entry));
+            }
+        }
+        return indexed;
+    }
+
+    // Runs on a worker. Resumes whose file is on another instance are left to that instance.
+    private void extract(Entry entry) {
+        try {
+            String text;
+            try (InputStream in = resumeStore.open(entry.hash())) {
+                if (in == null) {
+                    return;
+                }
+                text = ResumeText.extract(in);
+            }
+            try (Connection conn = pool.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    ResumeTexts.save(conn, entry.hash(), text);
+                    ChangeLog.resumeText(conn, entry.applicationId());
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+            put(entry.applicationId(), entry.employerId(), text);
+            extracted.incrementAndGet();
+        } catch (IOException | SQLException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Resume text extraction failed for application " + entry.applicationId() + ": "
+                    + e.getMessage());
+        }
+    }
+
+    // Indexes text already extracted from the application's resume, replacing what it had
+    public void put(int applicationId, int employerId, String text) {
+        index.put(applicationId, employerId, text);
+    }
+
+    // The k applications to the employer's jobs whose resumes best match the query, best first
+    public List<InvertedIndex.Hit> search(int employerId, String query, int k) {
+        return index.search(query, false, k, (applicationId, employer) -> employer == employerId);
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    // Resumes extracted by this instance, extractions that failed, and resumes waiting to be extracted
+    public String stats() {
+        return extracted.get() + " extracted, " + failed.get() + " failed, " + workers.getQueue().size() + " queued";
+    }
+
+    @Override
+    public void close() {
+        workers.shutdownNow();
+    }
+}
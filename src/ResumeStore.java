@@ -0,0 +1,47 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Blob;
+import java.sql.SQLException;
+
+// Storage for resume files behind the Apply and Download Resume flows.
+// Resumes are addressed by the SHA-256 of their content; applications.resumepath holds only that hash.
+interface ResumeStore {
+    int HASH_LENGTH = 64; // hex-encoded SHA-256
+
+    // Stores the file (once per distinct content) and takes a reference on it; returns its hash
+    String put(Path file, ResumeTransfer transfer) throws IOException;
+
+    // Copies the resume to target; returns the bytes written, or -1 if the store has no such resume
+    long copyTo(String hash, Path target, ResumeTransfer transfer) throws IOException;
+
+    // Reads the resume, or returns null if the store has no such resume
+    InputStream open(String hash) throws IOException;
+
+    // Drops one reference, e.g. when an application is deleted or its insert failed
+    void release(String hash) throws IOException;
+
+    // Deletes resumes that no application references any more; returns the number removed
+    int collectGarbage() throws IOException;
+
+    // The hash stored in a resumepath value, or null for a legacy row holding the file itself
+    static String hashIn(Blob value) throws SQLException {
+        if (value == null || value.length() != HASH_LENGTH) {
+            return null;
+        }
+        return hashIn(value.getBytes(1, HASH_LENGTH));
+    }
+
+    static String hashIn(byte[] value) {
+        if (value == null || value.length != HASH_LENGTH) {
+            return null;
+        }
+        for (byte b : value) {
+            if (!(b >= '0' && b <= '9') && !(b >= 'a' && b <= 'f')) {
+                return null;
+            }
+        }
+        return new String(value, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,325 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// Plain text from a resume file, for matching and resume search. Understands:
+//   PDF   text-showing operators (Tj, TJ, ', ") in the page content streams, inflating FlateDecode streams;
+//         text in fonts without a byte-per-character encoding (hex strings) is not recovered
+//   DOCX  word/document.xml with the markup removed
+//   text  decoded as UTF-8
+// Anything else, including Word 97 .doc, yields its runs of readable characters, 8-bit and UTF-16LE
+// (how .doc files keep their text), like the strings tool.
+final class ResumeText {
+    static final int MAX_BYTES = 4 << 20; // the rest of a larger file is ignored
+    static final int MAX_CHARS = 64 * 1024; // more text than any resume needs; the rest is dropped
+    private static final int MIN_RUN = 4;
+    private static final int TJ_SPACE = 200; // a TJ offset (thousandths of an em) this wide separates words
+
+    private ResumeText() {
+    }
+
+    public static String extract(InputStream in) throws IOException {
+        return extract(in.readNBytes(MAX_BYTES));
+    }
+
+    public static String extract(byte[] data) {
+        String text;
+        if (startsWith(data, "%PDF-")) {
+            text = pdf(data);
+        } else if (startsWith(data, "PK\u0003\u0004")) {
+            text = docx(data);
+        } else {
+            text = utf8(data);
+        }
+        if (text == null || text.isBlank()) {
+            StringBuilder out = new StringBuilder();
+            appendRuns(data, 1, out);
+            appendRuns(data, 2, out);
+            text = out.toString();
+        }
+        return text.length() > MAX_CHARS ? text.substring(0, MAX_CHARS) : text;
+    }
+
+    private static boolean startsWith(byte[] data, String magic) {
+        if (data.length < magic.length()) {
+            return false;
+        }
+        for (int i = 0; i < magic.length(); i++) {
+            if (data[i] != (byte) magic.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The whole file as UTF-8 if it is valid text without control bytes
+    private static String utf8(byte[] data) {
+        for (byte b : data) {
+            if (b >= 0 && b < 0x20 && b != '\n' && b != '\r' && b != '\t') {
+                return null;
+            }
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(data)).toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+
+    // Text operators from every stream, inflated if it is compressed
+    private static String pdf(byte[] data) {
+        StringBuilder out = new StringBuilder();
+        int at = 0;
+        while (out.length() < MAX_CHARS) {
+            int keyword = indexOf(data, "stream", at, data.length);
+            if (keyword < 0) {
+                break;
+            }
+            int start = keyword + "stream".length();
+            if (start < data.length && data[start] == '\r') {
+                start++;
+            }
+            if (start >= data.length || data[start] != '\n' || (keyword >= 3 && isEndstream(data, keyword))) {
+                at = start; // "endstream", or the word inside other text
+                continue;
+            }
+            start++;
+            int end = indexOf(data, "endstream", start, data.length);
+            if (end < 0) {
+                break;
+            }
+            int dictionary = lastIndexOf(data, "<<", keyword);
+            boolean flate = dictionary >= 0 && indexOf(data, "/FlateDecode", dictionary, keyword) >= 0;
+            byte[] content = flate ? inflate(data, start, end - start) : slice(data, start, end);
+            if (content != null) {
+                appendTextOperators(content, out);
+            }
+            at = end + "endstream".length();
+        }
+        return out.toString();
+    }
+
+    private static boolean isEndstream(byte[] data, int keyword) {
+        return data[keyword - 3] == 'e' && data[keyword - 2] == 'n' && data[keyword - 1] == 'd';
+    }
+
+    // Literal strings shown by Tj, TJ, ' and " between BT and ET. Each operator starts a new word; inside a
+    // TJ array only a wide offset does.
+    private static void appendTextOperators(byte[] content, StringBuilder out) {
+        boolean inText = false;
+        int i = 0;
+        while (i < content.length) {
+            byte b = content[i];
+            if (b == 'B' && isOperator(content, i, "BT")) {
+                inText = true;
+                i += 2;
+            } else if (b == 'E' && isOperator(content, i, "ET")) {
+                inText = false;
+                out.append('\n');
+                i += 2;
+            } else if (inText && b == '(') {
+                i = appendLiteral(content, i, out);
+                out.append(' ');
+            } else if (inText && b == '[') {
+                // TJ: strings and offsets
+                i++;
+                while (i < content.length && content[i] != ']') {
+                    if (content[i] == '(') {
+                        i = appendLiteral(content, i, out);
+                    } else if (content[i] == '-' || content[i] == '.' || Character.isDigit(content[i])) {
+                        int numberStart = i;
+                        while (i < content.length && (content[i] == '-' || content[i] == '.'
+                                || Character.isDigit(content[i]))) {
+                            i++;
+                        }
+                        if (offsetSeparatesWords(content, numberStart, i)) {
+                            out.append(' ');
+                        }
+                    } else {
+                        i++;
+                    }
+                }
+                out.append(' ');
+                i++;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private static boolean isOperator(byte[] content, int i, String operator) {
+        int end = i + operator.length();
+        return end <= content.length && (i == 0 || isDelimiter(content[i - 1]))
+                && (end == content.length || isDelimiter(content[end]))
+                && content[i + 1] == (byte) operator.charAt(1);
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '[' || b == ']' || b == '(' || b == ')'
+                || b == '<' || b == '>' || b == '/';
+    }
+
+    private static boolean offsetSeparatesWords(byte[] content, int from, int to) {
+        try {
+            return -Double.parseDouble(new String(content, from, to - from, StandardCharsets.US_ASCII)) > TJ_SPACE;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    // Appends the literal string starting at the '(' at i; returns the index after its ')'
+    private static int appendLiteral(byte[] content, int i, StringBuilder out) {
+        int depth = 0;
+        for (i++; i < content.length; i++) {
+            int c = content[i] & 0xFF;
+            if (c == '\\' && i + 1 < content.length) {
+                int next = content[++i] & 0xFF;
+                switch (next) {
+                    case 'n':
+                    case 'r':
+                        out.append(' ');
+                        break;
+                    case 't':
+                        out.append('\t');
+                        break;
+                    case 'b':
+                    case 'f':
+                    case '\n':
+                    case '\r':
+                        break; // line continuation or unprintable
+                    default:
+                        if (next >= '0' && next <= '7') {
+                            int code = next - '0';
+                            for (int digits = 1; digits < 3 && i + 1 < content.length
+                                    && content[i + 1] >= '0' && content[i + 1] <= '7'; digits++) {
+                                code = code * 8 + (content[++i] - '0');
+                            }
+                            out.append((char) (code & 0xFF));
+                        } else {
+                            out.append((char) next); // \( \) \\
+                        }
+                }
+            } else if (c == '(') {
+                depth++;
+                out.append('(');
+            } else if (c == ')') {
+                if (depth == 0) {
+                    return i + 1;
+                }
+                depth--;
+                out.append(')');
+            } else {
+                out.append((char) c); // PDFDocEncoding is Latin-1 for the printable range
+            }
+        }
+        return i;
+    }
+
+    private static byte[] inflate(byte[] data, int offset, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished() && out.size() < MAX_BYTES) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            return null; // damaged or not really Flate; skip this stream
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // The body text of a .docx: paragraph and tab markup become whitespace, other markup is dropped
+    private static String docx(byte[] data) {
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(data))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.getName().equals("word/document.xml")) {
+                    String xml = new String(zip.readNBytes(MAX_BYTES), StandardCharsets.UTF_8);
+                    return unescapeXml(xml.replaceAll("</w:p>|<w:br/>|<w:tab/>", " ").replaceAll("<[^>]*>", ""));
+                }
+            }
+        } catch (IOException e) {
+            return null; // not a readable zip; fall back to readable runs
+        }
+        return null;
+    }
+
+    private static String unescapeXml(String text) {
+        return text.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"")
+                .replace("&apos;", "'").replace("&amp;", "&");
+    }
+
+    // Appends runs of at least MIN_RUN printable ASCII characters; width 2 reads UTF-16LE (character, 0)
+    private static void appendRuns(byte[] data, int width, StringBuilder out) {
+        int runStart = out.length();
+        for (int i = 0; i + width <= data.length; i += width) {
+            int c = data[i] & 0xFF;
+            boolean printable = (c >= 0x20 && c < 0x7F || c == '\t') && (width == 1 || data[i + 1] == 0);
+            if (printable) {
+                out.append((char) c);
+            } else {
+                if (out.length() - runStart < MIN_RUN) {
+                    out.setLength(runStart); // too short to be a word
+                } else {
+                    out.append(' ');
+                }
+                runStart = out.length();
+            }
+        }
+        if (out.length() - runStart < MIN_RUN) {
+            out.setLength(runStart);
+        }
+    }
+
+    private static byte[] slice(byte[] data, int from, int to) {
+        byte[] copy = new byte[to - from];
+        System.arraycopy(data, from, copy, 0, copy.length);
+        return copy;
+    }
+
+    // First occurrence starting in [from, to - needle length]
+    private static int indexOf(byte[] data, String needle, int from, int to) {
+        outer:
+        for (int i = Math.max(0, from); i <= Math.min(to, data.length) - needle.length(); i++) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (data[i + j] != (byte) needle.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(byte[] data, String needle, int before) {
+        outer:
+        for (int i = Math.min(before, data.length) - needle.length(); i >= 0; i--) {
+            for (int j = 0; j < needle.length(); j++) {
+                if (data[i + j] != (byte) needle.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
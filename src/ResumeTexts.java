@@ -0,0 +1,102 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// The text extracted from each stored resume, kept in resume_texts by resume hash and Deflate-compressed
+// (resume text shrinks to about a third). Written once per distinct resume by whichever instance holds the file,
+// read by every instance when it builds its resume index.
+final class ResumeTexts {
+    private ResumeTexts() {
+    }
+
+    // Stores the resume's text, replacing any earlier extraction (the same text unless that one was damaged)
+    public static void save(Connection conn, String hash, String text) throws SQLException {
+        byte[] compressed = compress(text);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO resume_texts (resumeHash, chars, text) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE chars = ?, text = ?")) {
+            pstmt.setString(1, hash);
+            pstmt.setInt(2, text.length());
+            pstmt.setBytes(3, compressed);
+            pstmt.setInt(4, text.length());
+            pstmt.setBytes(5, compressed);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Text by hash for those of the hashes that have one
+    public static Map<String, String> find(Connection conn, Collection<String> hashes) throws SQLException {
+        Map<String, String> texts = new HashMap<>();
+        if (hashes.isEmpty()) {
+            return texts;
+        }
+        String sql = "SELECT resumeHash, text FROM resume_texts WHERE resumeHash IN ("
+                + ApplicationBatch.placeholders(hashes.size()) + ")";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String hash : hashes) {
+                pstmt.setString(i++, hash);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String text = decompress(rs.getBytes(2));
+                    if (text != null) {
+                        texts.put(rs.getString(1), text);
+                    }
+                }
+            }
+        }
+        return texts;
+    }
+
+    static byte[] compress(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Null if the stored bytes are damaged; the resume is then extracted again
+    static String decompress(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    return null; // truncated, or not written by compress
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            return null;
+        } finally {
+            inflater.end();
+        }
+    }
+}
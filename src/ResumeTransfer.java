@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Streams resume files between disk, the resume store and legacy BLOB rows with a fixed-size buffer,
+// so memory use does not depend on file size. Supports progress reporting and cancellation.
+class ResumeTransfer {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    // Called from the transfer thread; total is -1 when the size is unknown
+    interface Progress {
+        void update(long bytesDone, long bytesTotal);
+    }
+
+    private final QueryScope scope;
+    private final Progress progress;
+    private volatile boolean cancelled;
+
+    public ResumeTransfer(QueryScope scope, Progress progress) {
+        this.scope = scope;
+        this.progress = progress;
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || scope.isCancelled();
+    }
+
+    // Prepares a forward-only query that lets MySQL stream large rows instead of buffering the whole result
+    public static PreparedStatement prepareStreaming(Connection conn, String sql) throws SQLException {
+        PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            pstmt.setFetchSize(Integer.MIN_VALUE); // MySQL Connector/J row-streaming hint
+        } catch (SQLException ignored) {
+            // Other drivers reject the hint; they stream BLOBs through getBlob anyway
+        }
+        return pstmt;
+    }
+
+    // Copies a BLOB to target. Writes to a temporary file first so a failed or cancelled download
+    // never leaves a partial file behind. Returns the number of bytes written, or -1 when the BLOB is NULL or empty.
+    public long download(Blob blob, Path target) throws IOException, SQLException {
+        if (blob == null) {
+            return -1;
+        }
+        try {
+            long total = blob.length();
+            if (total == 0) {
+                return -1;
+            }
+            try (InputStream in = blob.getBinaryStream()) {
+                return copyToFile(in, total, target);
+            }
+        } finally {
+            try {
+                blob.free();
+            } catch (SQLException | UnsupportedOperationException ignored) {
+            }
+        }
+    }
+
+    long copyToFile(InputStream in, long total, Path target) throws IOException {
+        return writeAtomically(target, sink -> {
+            ReadableByteChannel source = Channels.newChannel(in);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long copied = 0;
+            while (source.read(buffer) != -1) {
+                checkCancelled();
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    copied += sink.write(buffer);
+                }
+                buffer.clear();
+                progress.update(copied, total);
+            }
+            return copied;
+        });
+    }
+
+    // Fills a file through the given writer
+    interface ChannelWriter {
+        long write(FileChannel sink) throws IOException;
+    }
+
+    // Runs the writer against a temporary file next to target and renames it into place only on success
+    static long writeAtomically(Path target, ChannelWriter writer) throws IOException {
+        Path dir = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, ".resume-", ".part");
+        boolean done = false;
+        try {
+            long written;
+            try (FileChannel sink = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                written = writer.write(sink);
+                sink.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            done = true;
+            return written;
+        } finally {
+            if (!done) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    void report(long bytesDone, long bytesTotal) {
+        progress.update(bytesDone, bytesTotal);
+    }
+
+    void checkCancelled() throws InterruptedIOException {
+        if (isCancelled()) {
+            throw new InterruptedIOException("Transfer cancelled");
+        }
+    }
+}
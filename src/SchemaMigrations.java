@@ -0,0 +1,238 @@
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Versioned, forward-only schema changes, applied at startup by the desktop app and the API server.
+// Applied versions are recorded in schema_version. A released migration is never edited, only followed by a
+// new one. MySQL commits DDL immediately, so a run that fails halfway keeps its earlier steps; every step
+// therefore checks whether its work is already done and can simply run again.
+final class SchemaMigrations {
+    // One change to the schema
+    interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    // Whether a migration can run yet; if not it is retried at the next startup
+    interface Condition {
+        boolean holds(Connection conn) throws SQLException;
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final Condition ready;
+        final String waitsFor; // shown while ready does not hold
+        final Step[] steps;
+
+        Migration(int version, String description, Step... steps) {
+            this(version, description, conn -> true, null, steps);
+        }
+
+        Migration(int version, String description, Condition ready, String waitsFor, Step... steps) {
+            this.version = version;
+            this.description = description;
+            this.ready = ready;
+            this.waitsFor = waitsFor;
+            this.steps = steps;
+        }
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Base tables",
+                    sql("CREATE TABLE IF NOT EXISTS users (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100), " +
+                            "email VARCHAR(255), password VARCHAR(255), phoneNumber VARCHAR(20), role VARCHAR(20))"),
+                    sql("CREATE TABLE IF NOT EXISTS jobs (id INT AUTO_INCREMENT PRIMARY KEY, employerId INT, " +
+                            "title VARCHAR(255), description TEXT, salary DECIMAL(12,2))"),
+                    sql("CREATE TABLE IF NOT EXISTS applications (id INT AUTO_INCREMENT PRIMARY KEY, jobId INT, " +
+                            "jobSeekerId INT, status VARCHAR(20), appliedDate DATETIME, resumepath LONGBLOB)"),
+                    // Databases created by the first version of the app have no job owner
+                    addColumn("jobs", "employerId", "INT")),
+            new Migration(2, "Indexes for login and the application screens",
+                    // Login: WHERE email = ? AND role = ?
+                    index("users", "idx_users_email_role", false, "email", "role"),
+                    // View Application Status: WHERE jobSeekerId = ?, covering the columns it reads
+                    index("applications", "idx_applications_seeker", false,
+                            "jobSeekerId", "jobId", "status", "appliedDate")),
+            new Migration(3, "One application per job and seeker",
+                    // Keeps the oldest of each duplicate; the deleted rows' resumes stay in the resume store
+                    sql("DELETE FROM applications WHERE jobId IS NOT NULL AND jobSeekerId IS NOT NULL AND id NOT IN " +
+                            "(SELECT keep FROM (SELECT MIN(id) AS keep FROM applications " +
+                            "GROUP BY jobId, jobSeekerId) k)"),
+                    // Also serves the join from jobs to applications and the ingest queue's duplicate check
+                    index("applications", "uq_applications_job_seeker", true, "jobId", "jobSeekerId")),
+            new Migration(4, "Employer index on jobs",
+                    conn -> count(conn, "SELECT COUNT(*) FROM jobs WHERE employerId IS NULL") == 0,
+                    "every job has an employerId",
+                    // View Applications and every employer action: WHERE j.employerId = ?
+                    index("jobs", "idx_jobs_employer", false, "employerId")),
+            new Migration(5, "Change log for live table updates",
+                    // Written in the same transaction as each change; version orders the feed
+                    sql("CREATE TABLE IF NOT EXISTS change_log (version BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                            "tableName VARCHAR(20) NOT NULL, op CHAR(1) NOT NULL, rowId INT NOT NULL, " +
+                            "employerId INT, jobSeekerId INT, changedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+                    index("change_log", "idx_change_log_time", false, "changedAt")),
+            new Migration(6, "Running totals for recruiting analytics",
+                    // Kept up to date by every write to applications; see ApplicationStats
+                    sql("CREATE TABLE IF NOT EXISTS stats_job_status (jobId INT NOT NULL, status VARCHAR(20) NOT NULL, " +
+                            "applications INT NOT NULL, PRIMARY KEY (jobId, status))"),
+                    sql("CREATE TABLE IF NOT EXISTS stats_daily (employerId INT NOT NULL, appliedOn DATE NOT NULL, " +
+                            "status VARCHAR(20) NOT NULL, applications INT NOT NULL, PRIMARY KEY (employerId, appliedOn, status))"),
+                    sql("CREATE TABLE IF NOT EXISTS stats_selection_time (employerId INT NOT NULL, bucket INT NOT NULL, " +
+                            "selections INT NOT NULL, PRIMARY KEY (employerId, bucket))"),
+                    // Counts the applications already there; selection times have no history to start from
+                    ApplicationStats::rebuild),
+            new Migration(7, "Extracted resume text",
+                    // One row per distinct resume, Deflate-compressed; see ResumeTexts
+                    sql("CREATE TABLE IF NOT EXISTS resume_texts (resumeHash CHAR(64) PRIMARY KEY, " +
+                            "chars INT NOT NULL, text MEDIUMBLOB NOT NULL, " +
+                            "extractedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)")),
+            new Migration(8, "Archive tables for old applications and inactive jobs",
+                    // Jobs already posted get the migration's time, so they are first archived jobDays from now
+                    addColumn("jobs", "postedAt", "TIMESTAMP DEFAULT CURRENT_TIMESTAMP"),
+                    // Archiver finds what to move by these
+                    index("jobs", "idx_jobs_posted", false, "postedAt"),
+                    index("applications", "idx_applications_applied", false, "appliedDate"),
+                    // Rows moved out by Archiver; the job title is copied in so the seeker's history needs no join
+                    sql("CREATE TABLE IF NOT EXISTS applications_archive (id INT PRIMARY KEY, jobId INT, " +
+                            "jobSeekerId INT, employerId INT, title VARCHAR(255), status VARCHAR(20), " +
+                            "appliedDate DATETIME, resumepath LONGBLOB, " +
+                            "archivedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+                    index("applications_archive", "idx_applications_archive_seeker", false,
+                            "jobSeekerId", "appliedDate"),
+                    index("applications_archive", "idx_applications_archive_employer", false, "employerId"),
+                    // The description is Deflate-compressed like resume_texts; see Archiver
+                    sql("CREATE TABLE IF NOT EXISTS jobs_archive (id INT PRIMARY KEY, employerId INT, " +
+                            "title VARCHAR(255), salary DECIMAL(12,2), description MEDIUMBLOB, postedAt TIMESTAMP NULL, " +
+                            "archivedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)"),
+                    index("jobs_archive", "idx_jobs_archive_employer", false, "employerId"))
+    );
+
+    private SchemaMigrations() {
+    }
+
+    // Applies every migration not yet recorded; returns how many ran
+    public static int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (version INT PRIMARY KEY, " +
+                    "description VARCHAR(200), appliedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+        Set<Integer> applied = appliedVersions(conn);
+        int ran = 0;
+        for (Migration migration : MIGRATIONS) {
+            if (applied.contains(migration.version)) {
+                continue;
+            }
+            if (!migration.ready.holds(conn)) {
+                System.err.println("Schema migration " + migration.version + " (" + migration.description
+                        + ") waits until " + migration.waitsFor);
+                continue;
+            }
+            apply(conn, migration);
+            ran++;
+        }
+        return ran;
+    }
+
+    public static Set<Integer> appliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    private static void apply(Connection conn, Migration migration) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try {
+            for (Step step : migration.steps) {
+                step.apply(conn);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Another instance starting at the same time recorded it first
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw new SQLException("Schema migration " + migration.version + " (" + migration.description
+                    + ") failed: " + e.getMessage(), e);
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    static Step sql(String statement) {
+        return conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(statement);
+            }
+        };
+    }
+
+    static Step addColumn(String table, String column, String type) {
+        return conn -> {
+            DatabaseMetaData meta = conn.getMetaData();
+            try (ResultSet rs = meta.getColumns(conn.getCatalog(), conn.getSchema(), identifier(meta, table),
+                    identifier(meta, column))) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+            sql("ALTER TABLE " + table + " ADD COLUMN " + column + " " + type).apply(conn);
+        };
+    }
+
+    static Step index(String table, String name, boolean unique, String... columns) {
+        return conn -> {
+            if (hasIndex(conn, table, name)) {
+                return;
+            }
+            sql("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + name + " ON " + table
+                    + " (" + String.join(", ", columns) + ")").apply(conn);
+        };
+    }
+
+    static boolean hasIndex(Connection conn, String table, String name) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), conn.getSchema(), identifier(meta, table),
+                false, true)) {
+            while (rs.next()) {
+                if (name.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Unquoted names as the database stores them in its catalog (H2 upper-cases them)
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        if (meta.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        return meta.storesLowerCaseIdentifiers() ? name.toLowerCase(Locale.ROOT) : name;
+    }
+
+    private static int count(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
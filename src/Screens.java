@@ -0,0 +1,69 @@
+import javax.swing.JComponent;
+import javax.swing.JPanel;
+import java.awt.CardLayout;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// The cards of the main window. A screen is built the first time it is shown and kept for the rest of the
+// session; leaving it calls hidden(), which cancels its queries and lets its rows go, and coming back calls
+// shown() to load them again. However many times a screen is visited, one copy of it exists.
+class Screens {
+    interface Screen {
+        JComponent component();
+
+        // Became the visible card: load data, subscribe to changes
+        default void shown() {
+        }
+
+        // Another card replaced it: cancel work in flight and drop data
+        default void hidden() {
+        }
+    }
+
+    private final CardLayout layout = new CardLayout();
+    private final JPanel cards = new JPanel(layout);
+    private final Map<String, Supplier<Screen>> factories = new HashMap<>();
+    private final Map<String, Screen> built = new HashMap<>();
+    private final Metrics metrics;
+    private Screen current;
+
+    Screens(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    JPanel panel() {
+        return cards;
+    }
+
+    void register(String name, Supplier<Screen> factory) {
+        factories.put(name, factory);
+    }
+
+    // Shows the named screen, building it on first use. Showing the current screen again reloads it.
+    void show(String name) {
+        long start = System.nanoTime();
+        Screen screen = built.get(name);
+        if (screen == null) {
+            Supplier<Screen> factory = factories.get(name);
+            if (factory == null) {
+                throw new IllegalArgumentException("No screen named " + name);
+            }
+            screen = factory.get();
+            built.put(name, screen);
+            cards.add(screen.component(), name);
+        }
+        if (current != null) {
+            current.hidden();
+        }
+        current = screen;
+        layout.show(cards, name);
+        screen.shown();
+        metrics.recordTime("screen." + name, System.nanoTime() - start);
+    }
+
+    // Screens built so far
+    int size() {
+        return built.size();
+    }
+}
@@ -0,0 +1,28 @@
+import java.security.SecureRandom;
+import java.util.Base64;
+
+// A logged-in user, created once at login. Screens read the identity from here instead of querying users again.
+class Session {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    final String id;
+    final User user;
+    final WritePosition writes = new WritePosition(); // so the user's reads see their own writes
+    private volatile long lastAccess;
+
+    Session(User user, long now) {
+        byte[] token = new byte[16];
+        RANDOM.nextBytes(token);
+        this.id = Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+        this.user = user;
+        this.lastAccess = now;
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    void touch(long now) {
+        lastAccess = now;
+    }
+}
@@ -0,0 +1,79 @@
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Live sessions, bounded in number and expired after a period of inactivity.
+// Lookups are in memory, so switching between users on a shared machine costs no identity queries.
+class SessionCache {
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    // Access-ordered: the least recently used session is first, so eviction only ever looks at the head
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Integer, String> sessionOfUser = new HashMap<>();
+
+    public SessionCache(int maxSessions, long idleTimeoutMillis) {
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    // Starts a session for an authenticated user, replacing any earlier session of the same user
+    public synchronized Session open(User user) {
+        long now = System.currentTimeMillis();
+        String previous = sessionOfUser.remove(user.userId);
+        if (previous != null) {
+            sessions.remove(previous);
+        }
+        Session session = new Session(user, now);
+        sessions.put(session.id, session);
+        sessionOfUser.put(user.userId, session.id);
+        evict(now);
+        return session;
+    }
+
+    // The live session with this id, or null if it was closed, evicted or has been idle too long
+    public synchronized Session get(String id) {
+        if (id == null) {
+            return null;
+        }
+        Session session = sessions.get(id);
+        long now = System.currentTimeMillis();
+        if (session == null) {
+            return null;
+        }
+        if (now - session.lastAccess() > idleTimeoutMillis) {
+            remove(session);
+            return null;
+        }
+        session.touch(now);
+        return session;
+    }
+
+    public synchronized void close(String id) {
+        Session session = id == null ? null : sessions.get(id);
+        if (session != null) {
+            remove(session);
+        }
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+
+    private void remove(Session session) {
+        sessions.remove(session.id);
+        sessionOfUser.remove(session.user.userId, session.id);
+    }
+
+    private void evict(long now) {
+        Iterator<Session> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            Session session = it.next();
+            if (sessions.size() <= maxSessions && now - session.lastAccess() <= idleTimeoutMillis) {
+                return; // everything after the head was used more recently
+            }
+            it.remove();
+            sessionOfUser.remove(session.user.userId, session.id);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Splits free text into lowercase, stemmed search terms
+class TextAnalyzer {
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it",
+            "of", "on", "or", "our", "that", "the", "to", "we", "will", "with", "you", "your"));
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        forEachToken(text, token -> {
+            if (!STOP_WORDS.contains(token)) {
+                terms.add(stem(token));
+            }
+        });
+        return terms;
+    }
+
+    // Lowercased alphanumeric runs, without stemming or stop word removal
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text != null) {
+            forEachToken(text, tokens::add);
+        }
+        return tokens;
+    }
+
+    private interface TokenSink {
+        void accept(String token);
+    }
+
+    private static void forEachToken(String text, TokenSink sink) {
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && (Character.isLetterOrDigit(text.charAt(i))
+                    || text.charAt(i) == '+' || text.charAt(i) == '#'); // keep c++, c#
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                sink.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+    }
+
+    // Light suffix stripping: enough to match "developer jobs" with "developing job"
+    // without the over-stemming of a full Porter stemmer
+    public static String stem(String word) {
+        int n = word.length();
+        if (n <= 3 || !Character.isLetter(word.charAt(n - 1))) {
+            return word;
+        }
+        if (word.endsWith("ies") && n > 4) {
+            return word.substring(0, n - 3) + "y";
+        }
+        if (word.endsWith("sses")) {
+            return word.substring(0, n - 2);
+        }
+        if (word.endsWith("ment") && n > 7) {
+            return word.substring(0, n - 4);
+        }
+        if (word.endsWith("ing") && n > 5) {
+            return undouble(word.substring(0, n - 3));
+        }
+        if (word.endsWith("ed") && n > 4) {
+            return undouble(word.substring(0, n - 2));
+        }
+        if (word.endsWith("ly") && n > 4) {
+            return word.substring(0, n - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+
+    // "running" -> "runn" -> "run"
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n > 2 && stem.charAt(n - 1) == stem.charAt(n - 2)
+                && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+}
@@ -0,0 +1,84 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+// Theme Manager Class
+class ThemeManager {
+    // Colors
+    public static final Color PRIMARY_COLOR = new Color(0x1d, 0x35, 0x57);       // #1d3557
+    public static final Color SECONDARY_COLOR = new Color(0xf1, 0xfa, 0xee);     // #f1faee
+    public static final Color TEXT_COLOR = new Color(0x00, 0x15, 0x24);          // #001524
+    public static final Color BACKGROUND_COLOR = new Color(0xa8, 0xda, 0xdc);    // #a8dadc
+
+
+    // Fonts
+    public static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 24);
+    public static final Font SUBTITLE_FONT = new Font("Arial", Font.BOLD, 18);
+    public static final Font BODY_FONT = new Font("Arial", Font.PLAIN, 14);
+    public static final Font BUTTON_FONT = new Font("Arial", Font.BOLD, 14);
+
+    // Button styling
+    public static JButton createStyledButton(String text) {
+        JButton button = new JButton(text);
+        button.setFont(BUTTON_FONT);
+        button.setBackground(PRIMARY_COLOR);
+        button.setForeground(SECONDARY_COLOR);
+        button.setFocusPainted(false);
+        button.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(50, 100, 150)),
+                BorderFactory.createEmptyBorder(8, 25, 8, 25)
+        ));
+        button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
+
+        // Hover effect
+        button.addMouseListener(new MouseAdapter() {
+            public void mouseEntered(MouseEvent e) {
+                button.setBackground(new Color(90, 150, 200));
+            }
+            public void mouseExited(MouseEvent e) {
+                button.setBackground(PRIMARY_COLOR);
+            }
+        });
+
+        return button;
+    }
+
+    // Panel styling
+    public static JPanel createStyledPanel(boolean withBackground) {
+        JPanel panel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                if (withBackground) {
+                    Graphics2D g2d = (Graphics2D) g;
+                    g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                            RenderingHints.VALUE_ANTIALIAS_ON);
+                    g2d.setColor(new Color(255, 255, 255, 200));
+                    g2d.fillRoundRect(0, 0, getWidth(), getHeight(), 20, 20);
+                }
+            }
+        };
+        panel.setOpaque(!withBackground);
+        return panel;
+    }
+
+    // Text field styling
+    public static JTextField createStyledTextField(int columns) {
+        JTextField field = new JTextField(columns);
+        field.setFont(BODY_FONT);
+        field.setMaximumSize(new Dimension(300, 30));
+        field.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(200, 200, 200)),
+                BorderFactory.createEmptyBorder(5, 10, 5, 10)
+        ));
+        return field;
+    }
+
+    // Label styling
+    public static JLabel createStyledLabel(String text, boolean isTitle) {
+        JLabel label = new JLabel(text);
+        label.setFont(isTitle ? TITLE_FONT : BODY_FONT);
+        label.setForeground(isTitle ? PRIMARY_COLOR : TEXT_COLOR);
+        return label;
+    }
+
+}
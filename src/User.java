@@ -0,0 +1,21 @@
+// Base User Class
+class User {
+    protected int userId;
+    protected String name, email, phoneNumber, role;
+
+    public User(int userId, String name, String email, String phoneNumber, String role) {
+        this.userId = userId;
+        this.name = name;
+        this.email = email;
+        this.phoneNumber = phoneNumber;
+        this.role = role;
+    }
+
+    public void login() {
+        System.out.println(name + " logged in as " + role);
+    }
+
+    public void logout() {
+        System.out.println(name + " logged out.");
+    }
+}
@@ -0,0 +1,166 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Login and registration, independent of any screen. Callers pass a connection borrowed from the pool.
+// A login is split so the slow password check never holds a connection: findCredentials (database),
+// checkPassword (hasher pool), then saveUpgradedHash (database) if the stored hash is plain text or outdated.
+class UserService {
+    static final String[] ROLES = {"JobSeeker", "Employer"};
+    // Served by the index on users.email
+    static final String CREDENTIALS_SQL =
+            "SELECT id, name, email, phoneNumber, role, password FROM users WHERE email = ? AND role = ?";
+
+    // A user and their stored password hash
+    static final class Credentials {
+        final User user;
+        final String passwordHash;
+
+        Credentials(User user, String passwordHash) {
+            this.user = user;
+            this.passwordHash = passwordHash;
+        }
+    }
+
+    // A successful login; upgradedHash is set when the stored hash should be replaced
+    static final class Login {
+        final User user;
+        final String previousHash;
+        final String upgradedHash;
+
+        Login(User user, String previousHash, String upgradedHash) {
+            this.user = user;
+            this.previousHash = previousHash;
+            this.upgradedHash = upgradedHash;
+        }
+    }
+
+    private final PasswordHasher hasher;
+    private final LoginRateLimiter limiter;
+
+    public UserService(PasswordHasher hasher, LoginRateLimiter limiter) {
+        this.hasher = hasher;
+        this.limiter = limiter;
+    }
+
+    // Every account with this email and role; normally at most one
+    public List<Credentials> findCredentials(Connection conn, String email, String role) throws SQLException {
+        List<Credentials> result = new ArrayList<>(1);
+        try (PreparedStatement pstmt = conn.prepareStatement(CREDENTIALS_SQL)) {
+            pstmt.setString(1, email);
+            pstmt.setString(2, role);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    User user = new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"),
+                            rs.getString("phoneNumber"), rs.getString("role"));
+                    result.add(new Credentials(user, rs.getString("password")));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Completes with the login, or null if the password matches none of the accounts. Fails with
+    // TooManyAttemptsException when this email is being guessed, without spending CPU on it.
+    public CompletableFuture<Login> checkPassword(String email, String password, List<Credentials> candidates) {
+        try {
+            limiter.acquire(email);
+        } catch (LoginRateLimiter.TooManyAttemptsException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return hasher.submit(() -> {
+            if (candidates.isEmpty()) {
+                hasher.verifyDummy(password);
+                return null;
+            }
+            for (Credentials candidate : candidates) {
+                if (hasher.verify(password, candidate.passwordHash)) {
+                    limiter.succeeded(email);
+                    String upgraded = hasher.needsRehash(candidate.passwordHash) ? hasher.hash(password) : null;
+                    return new Login(candidate.user, candidate.passwordHash, upgraded);
+                }
+            }
+            return null;
+        });
+    }
+
+    // Replaces the stored hash, unless the password was changed meanwhile
+    public void saveUpgradedHash(Connection conn, Login login) throws SQLException {
+        String sql = "UPDATE users SET password = ? WHERE id = ? AND password = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, login.upgradedHash);
+            pstmt.setInt(2, login.user.userId);
+            pstmt.setString(3, login.previousHash);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // The whole login on the calling thread, for callers that may block (API request threads)
+    public User authenticate(ConnectionPool pool, String email, String password, String role) throws Exception {
+        List<Credentials> candidates;
+        try (Connection conn = pool.getConnection()) {
+            candidates = findCredentials(conn, email, role);
+        }
+        Login login = DbExecutor.join(checkPassword(email, password, candidates));
+        if (login == null) {
+            return null;
+        }
+        if (login.upgradedHash != null) {
+            try (Connection conn = pool.getConnection()) {
+                saveUpgradedHash(conn, login);
+            }
+        }
+        return login.user;
+    }
+
+    // Validates the fields, then hashes the password on the hasher pool
+    public CompletableFuture<String> hashForRegistration(String password, String phone, String role) {
+        try {
+            validate(phone, role);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return hasher.submit(() -> hasher.hash(password));
+    }
+
+    // passwordHash comes from hashForRegistration
+    public void register(Connection conn, String name, String email, String passwordHash, String phone, String role)
+            throws SQLException {
+        validate(phone, role);
+        String sql = "INSERT INTO users (name, email, password, phoneNumber, role) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, email);
+            pstmt.setString(3, passwordHash);
+            pstmt.setString(4, phone);
+            pstmt.setString(5, role);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void validate(String phone, String role) {
+        if (!isValidPhone(phone)) {
+            throw new IllegalArgumentException("Please enter a valid 10-digit phone number");
+        }
+        if (!isRole(role)) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+    }
+
+    static boolean isValidPhone(String phone) {
+        return phone != null && phone.matches("\\d{10}");
+    }
+
+    static boolean isRole(String role) {
+        for (String r : ROLES) {
+            if (r.equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// How far one session's own writes have got, as a change_log version. ReplicaRouter sends the session's reads
+// to a replica only once the replica holds that version, and to the primary while a queued write (an
+// application waiting in ApplicationIngestQueue) has not been saved yet.
+class WritePosition {
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    // A write committed; `version` is the primary's latest change_log version read after the commit
+    void advance(long version) {
+        this.version.accumulateAndGet(version, Math::max);
+    }
+
+    // A write was handed to a queue and will commit later
+    void queued() {
+        queued.incrementAndGet();
+    }
+
+    // A queued write committed
+    void saved(long version) {
+        advance(version);
+        queued.decrementAndGet();
+    }
+
+    // A queued write was dropped or turned out to be a duplicate
+    void dropped() {
+        queued.decrementAndGet();
+    }
+
+    long version() {
+        return version.get();
+    }
+
+    boolean hasQueued() {
+        return queued.get() > 0;
+    }
+}